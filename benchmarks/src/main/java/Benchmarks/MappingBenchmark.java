@@ -0,0 +1,65 @@
+package Benchmarks;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Entities.Person;
+import Entities.Project;
+import Factories.PersonFactory;
+import Factories.ProjectFactory;
+
+/**
+ * Measures the mapping of result rows to entities by {@link ProjectFactory} and {@link PersonFactory}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+    /**
+     * A row of one of the project views.
+     */
+    private ResultSet projectRow;
+    /**
+     * A row of the people view.
+     */
+    private ResultSet personRow;
+
+    @Setup
+    public void setup() {
+        projectRow = StubResults.row(
+                new String[] { "project_id", "project_name", "project_address", "project_type", "date_due",
+                        "date_finalized", "erf_number", "amount_due", "amount_paid" },
+                new Object[] { 1, "House Lovelace", "12, Main Road, Gardens, Cape Town, 8001", "House",
+                        "2023-11-30", null, 1024, 15000000, 5000000 });
+        personRow = StubResults.row(
+                new String[] { "person_id", "first_name", "last_name", "physical_address", "email_address",
+                        "phone_number", "erf_number" },
+                new Object[] { 1, "Ada", "Lovelace", "12, Main Road, Gardens, Cape Town, 8001",
+                        "ada@example.com", "0211234567", 1024 });
+    }
+
+    @Benchmark
+    public Project projectFromResults() throws SQLException {
+        return ProjectFactory.fromResults(projectRow);
+    }
+
+    @Benchmark
+    public Person personFromResultSet() throws SQLException {
+        return PersonFactory.fromResultSet(personRow);
+    }
+}
@@ -0,0 +1,61 @@
+package Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Components.CompiledQuery;
+import Components.QueryBuilder;
+
+/**
+ * Measures the construction of SQL statements with {@link QueryBuilder}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBuilderBenchmark {
+    /**
+     * A page of projects after a given project, as built by {@code EntityQuerier} for each project view.
+     */
+    @Benchmark
+    public CompiledQuery select() {
+        return new QueryBuilder()
+                .select("incomplete_projects", "*")
+                .where("project_id", ">")
+                .orderBy("project_id", false)
+                .limit()
+                .compile();
+    }
+
+    /**
+     * An insert of a single row with placeholders, as built for the entity writes.
+     */
+    @Benchmark
+    public CompiledQuery insert() {
+        return new QueryBuilder()
+                .insertInto("person")
+                .group("first_name", "last_name", "email_address", "phone_number", "physical_address")
+                .values(5)
+                .compile("person_id");
+    }
+
+    /**
+     * An update of a few columns of one row.
+     */
+    @Benchmark
+    public CompiledQuery update() {
+        return new QueryBuilder()
+                .update("project")
+                .set("amount_due", "amount_paid")
+                .where("project_id")
+                .compile();
+    }
+}
@@ -0,0 +1,99 @@
+package Benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Components.Menu.Menu;
+import Components.Menu.OptionDecorator;
+import Entities.EntityDecorator;
+import Entities.Person;
+import Entities.Project;
+import Utilities.OutputUtils;
+
+/**
+ * Measures the rendering of entities, menus and terminal text, and the parsing of project dates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderingBenchmark {
+    private Person person;
+    private Project project;
+    private Menu menu;
+    /**
+     * The terminal output, which is replaced by a stream discarding everything written to it while measuring.
+     */
+    private PrintStream systemOut;
+
+    @Setup
+    public void setup() {
+        person = new Person(1, "Ada", "Lovelace", "12, Main Road, Gardens, Cape Town, 8001", "ada@example.com")
+                .setPhoneNumber("0211234567");
+        project = new Project(1, "House Lovelace", "12, Main Road, Gardens, Cape Town, 8001", "House")
+                .setDueDate("2023-11-30")
+                .setErfNumber(1024)
+                .setCost(150000.0)
+                .setPaid(50000.0);
+        menu = new Menu("MAIN MENU");
+        menu.put("view", "View the projects.");
+        menu.put("find", "Find a project by number or name.");
+        menu.put("create", "Create a new project.");
+        menu.put("import", "Import records from a file.");
+        menu.put("export", "Export a view to a file.");
+        menu.put("exit", "Exit the application.");
+        OptionDecorator.setSize(menu.getName().length());
+        systemOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(systemOut);
+    }
+
+    @Benchmark
+    public String decoratePerson() {
+        return EntityDecorator.decorate(person);
+    }
+
+    @Benchmark
+    public String decorateProject() {
+        return EntityDecorator.decorate(project);
+    }
+
+    @Benchmark
+    public String menuToString() {
+        return menu.toString();
+    }
+
+    @Benchmark
+    public String centerText() {
+        return OutputUtils.centerText(menu.getName());
+    }
+
+    @Benchmark
+    public void printDivider() {
+        OutputUtils.printDivider("-=");
+    }
+
+    @Benchmark
+    public Project setDueDate() {
+        return project.setDueDate("2023-11-30");
+    }
+}
@@ -0,0 +1,47 @@
+package Benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+
+/**
+ * Creates {@link ResultSet} stubs positioned on a single row, so that the row mappers can be measured without a
+ * database.
+ *
+ * The stubs are dynamic proxies, as in {@code Tests.ColumnMapperTest}; their dispatch cost is part of every
+ * measurement which uses them, and is the same from one run to the next.
+ */
+class StubResults {
+    /**
+     * @param labels the label of each column of the row, in order.
+     * @param values the value of each column of the row, in order; an {@link Integer} for the columns read with
+     *               {@code getInt} and a {@link String} (or {@code null}) for those read with {@code getString}.
+     * @return results positioned on the row, which may only be read by index.
+     */
+    static ResultSet row(String[] labels, Object[] values) {
+        ResultSetMetaData metadata = (ResultSetMetaData) Proxy.newProxyInstance(
+                ResultSetMetaData.class.getClassLoader(), new Class<?>[] { ResultSetMetaData.class },
+                (proxy, method, arguments) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return labels.length;
+                        case "getColumnLabel":
+                            return labels[(int) arguments[0] - 1];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (proxy, method, arguments) -> {
+                    switch (method.getName()) {
+                        case "getMetaData":
+                            return metadata;
+                        case "getString":
+                        case "getInt":
+                            if (arguments[0] instanceof Integer) {
+                                return values[(int) arguments[0] - 1];
+                            }
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,241 @@
+/*
+** The schema of the embedded database: helpers/tables.sql, views.sql, procedures.sql, triggers.sql and summary.sql,
+** with migrations V001 to V003 applied, translated for H2 in MySQL mode.
+**
+** It is run by Models.EmbeddedDatabase whenever the application opens a database file without schema_migration.
+** The translation differs from the MySQL schema in the following ways:
+** - Unsigned integers are signed, as H2 has no unsigned types.
+** - The triggers and procedures are implemented by Models.EmbeddedDatabase, as H2 runs triggers and functions
+**   written in Java rather than in SQL. assign_project and assign_participant are not used by the application and are
+**   left out.
+** - create_project returns the final values of its parameters as a row, from which H2 reads its OUT parameters.
+** - types_view orders the relationship types before the rows without one, as MySQL's "ORDER BY - relationship_type"
+**   does, without negating a string.
+**
+** This file uses information obtained at:
+** - https://h2database.com/html/features.html#compatibility
+** - https://h2database.com/html/features.html#triggers
+** - https://h2database.com/html/features.html#user_defined_functions
+*/
+CREATE TABLE building(
+    t_id int AUTO_INCREMENT,
+    building_type varchar(32) UNIQUE NOT NULL,
+    PRIMARY KEY(t_id)
+);
+CREATE TABLE relationship(
+    t_id int AUTO_INCREMENT,
+    relationship_type varchar(30) UNIQUE NOT NULL,
+    max_allowed int DEFAULT 1,
+    PRIMARY KEY(t_id)
+);
+CREATE TABLE address(
+    erf_number int,
+    street_address varchar(80),
+    suburb varchar(60),
+    city varchar(60),
+    province varchar(12),
+    post_code char(4),
+    PRIMARY KEY(erf_number)
+);
+CREATE TABLE person(
+    person_id int AUTO_INCREMENT,
+    first_name varchar(50) NOT NULL,
+    last_name varchar(50) NOT NULL,
+    phone_number char(10) NOT NULL UNIQUE,
+    email_address varchar(80) UNIQUE NOT NULL,
+    physical_address int,
+    PRIMARY KEY(person_id),
+    FOREIGN KEY(physical_address) REFERENCES address(erf_number)
+);
+CREATE TABLE project(
+    project_id int AUTO_INCREMENT,
+    project_name varchar(80) DEFAULT '',
+    project_type varchar(32) NOT NULL,
+    project_address int NOT NULL,
+    PRIMARY KEY(project_id),
+    FOREIGN KEY(project_address) REFERENCES address(erf_number),
+    FOREIGN KEY(project_type) REFERENCES building(building_type)
+);
+CREATE TABLE participant(
+    participant_id int AUTO_INCREMENT,
+    person_id int,
+    project_id int,
+    relationship varchar(30),
+    PRIMARY KEY(participant_id),
+    FOREIGN KEY(project_id) REFERENCES project(project_id),
+    FOREIGN KEY(person_id) REFERENCES person(person_id),
+    FOREIGN KEY(relationship) REFERENCES relationship(relationship_type)
+);
+CREATE TABLE account(
+    account_id int AUTO_INCREMENT,
+    project int NOT NULL,
+    amount_due int NOT NULL,
+    amount_paid int DEFAULT 0,
+    FOREIGN KEY(project) REFERENCES project(project_id),
+    PRIMARY KEY(account_id)
+);
+CREATE TABLE progress(
+    tracker_id int AUTO_INCREMENT,
+    project int NOT NULL,
+    date_due date NOT NULL,
+    date_finalized date,
+    PRIMARY KEY(tracker_id),
+    FOREIGN KEY(project) REFERENCES project(project_id) ON DELETE CASCADE
+);
+CREATE TABLE project_summary(
+    project_id int,
+    project_name varchar(80),
+    project_type varchar(32),
+    erf_number int,
+    project_address varchar(240),
+    amount_due int,
+    amount_paid int,
+    date_due date,
+    date_finalized date,
+    PRIMARY KEY(project_id)
+);
+CREATE INDEX summary_dates ON project_summary(date_finalized, date_due);
+CREATE INDEX summary_date_due ON project_summary(date_due);
+CREATE INDEX summary_project_name ON project_summary(project_name);
+CREATE INDEX participant_project_relationship ON participant(project_id, relationship);
+CREATE INDEX progress_dates ON progress(date_finalized, date_due);
+
+/*
+** Views
+*/
+CREATE VIEW roles AS
+SELECT relationship_type
+FROM relationship;
+
+CREATE VIEW addresses AS
+SELECT erf_number,
+    CONCAT_WS(', ', street_address, suburb, city, province, post_code) AS full_address
+FROM address;
+
+CREATE VIEW people AS
+SELECT addresses.erf_number,
+    person_id,
+    first_name,
+    last_name,
+    phone_number,
+    email_address,
+    full_address AS physical_address
+FROM person
+    LEFT JOIN addresses ON person.physical_address = erf_number;
+
+CREATE VIEW participants AS
+SELECT project_id,
+    addresses.erf_number,
+    person.person_id,
+    relationship_type,
+    first_name,
+    last_name,
+    phone_number,
+    email_address,
+    full_address AS physical_address
+FROM relationship
+    LEFT JOIN participant ON relationship_type = participant.relationship
+    LEFT JOIN person ON person.person_id = participant.person_id
+    LEFT JOIN addresses ON person.physical_address = erf_number;
+
+CREATE VIEW contacts AS
+SELECT DISTINCT erf_number,
+    phone_number
+FROM address
+    LEFT JOIN person ON physical_address = erf_number;
+
+CREATE VIEW projects AS
+SELECT project_id,
+    project_name,
+    project_type,
+    erf_number,
+    project_address,
+    amount_due,
+    amount_paid,
+    date_due,
+    date_finalized
+FROM project_summary;
+
+CREATE VIEW incomplete_projects AS
+SELECT *
+FROM project_summary
+WHERE date_finalized IS NULL;
+
+CREATE VIEW outstanding_projects AS
+SELECT *
+FROM project_summary
+WHERE date_due < CURRENT_DATE
+    AND date_finalized IS NULL;
+
+CREATE VIEW finalized_projects AS
+SELECT *
+FROM project_summary
+WHERE date_finalized IS NOT NULL;
+
+CREATE VIEW types_view AS
+SELECT *
+FROM (
+        SELECT building_type,
+            relationship_type
+        FROM building b
+            RIGHT JOIN relationship r ON b.t_id = r.t_id
+        UNION
+        SELECT building_type,
+            relationship_type
+        FROM building b
+            LEFT JOIN relationship r ON r.t_id = b.t_id
+    ) AS types
+ORDER BY relationship_type IS NULL;
+
+CREATE VIEW role_coverage AS
+SELECT project.project_id,
+    project.project_name,
+    GROUP_CONCAT(DISTINCT participant.relationship) AS relationships
+FROM project
+    LEFT JOIN participant ON participant.project_id = project.project_id
+GROUP BY project.project_id, project.project_name;
+
+/*
+** Procedures
+*/
+CREATE ALIAS limit_relationships FOR "Models.EmbeddedDatabase.limitRelationships";
+CREATE ALIAS set_default_project_name FOR "Models.EmbeddedDatabase.setDefaultProjectName";
+CREATE ALIAS refresh_project_summary FOR "Models.EmbeddedDatabase.refreshProjectSummary";
+CREATE ALIAS create_project FOR "Models.EmbeddedDatabase.createProject";
+
+/*
+** Triggers, created in the order MySQL fires them.
+*/
+CREATE TRIGGER check_project_name BEFORE INSERT ON participant FOR EACH ROW
+    CALL "Models.EmbeddedDatabase$CheckProjectName";
+CREATE TRIGGER check_relationship_on_insert BEFORE INSERT ON participant FOR EACH ROW
+    CALL "Models.EmbeddedDatabase$CheckRelationshipOnInsert";
+CREATE TRIGGER check_relationship_on_update BEFORE UPDATE ON participant FOR EACH ROW
+    CALL "Models.EmbeddedDatabase$CheckRelationshipOnUpdate";
+CREATE TRIGGER create_account AFTER INSERT ON project FOR EACH ROW
+    CALL "Models.EmbeddedDatabase$CreateAccount";
+CREATE TRIGGER summarize_project AFTER INSERT, UPDATE, DELETE ON project FOR EACH ROW
+    CALL "Models.EmbeddedDatabase$SummarizeProject";
+CREATE TRIGGER summarize_account AFTER INSERT, UPDATE, DELETE ON account FOR EACH ROW
+    CALL "Models.EmbeddedDatabase$SummarizeAccount";
+CREATE TRIGGER summarize_progress AFTER INSERT, UPDATE, DELETE ON progress FOR EACH ROW
+    CALL "Models.EmbeddedDatabase$SummarizeProgress";
+CREATE TRIGGER summarize_address_on_update AFTER UPDATE ON address FOR EACH ROW
+    CALL "Models.EmbeddedDatabase$SummarizeAddress";
+
+INSERT INTO building(building_type)
+    VALUES ('house'), ('villa'), ('mansion'), ('apartment'), ('rdp'), ('shack');
+INSERT INTO relationship(relationship_type)
+    VALUES ('customer'), ('project manager'), ('contractor'), ('architect'), ('structural engineer');
+
+/*
+** Created last, so that a database without it has not been set up completely.
+*/
+CREATE TABLE schema_migration(
+    version int,
+    description varchar(80) NOT NULL,
+    applied_at timestamp DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY(version)
+);
+INSERT INTO schema_migration(version, description)
+    VALUES (1, 'access path indexes'), (2, 'deferred participant checks'), (3, 'create_project procedure');
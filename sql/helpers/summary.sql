@@ -0,0 +1,183 @@
+/*
+** This file creates the project_summary table: a copy of the projects view stored as a table and kept up to date by
+** triggers, so that listing or selecting projects reads indexed rows instead of re-running the joins of the view.
+**
+** It must be sourced after tables.sql, views.sql and triggers.sql, and may be sourced again on an existing database
+** to rebuild the table.
+**
+** This file uses information obtained at:
+** - https://dev.mysql.com/doc/refman/8.0/en/create-trigger.html
+** - https://dev.mysql.com/doc/refman/8.0/en/replace.html
+*/
+DROP TABLE IF EXISTS project_summary;
+CREATE TABLE project_summary(
+    project_id int UNSIGNED,
+    project_name varchar(80),
+    project_type varchar(32),
+    erf_number int UNSIGNED,
+    project_address varchar(240),
+    amount_due int,
+    amount_paid int,
+    date_due Date,
+    date_finalized Date,
+    PRIMARY KEY(project_id),
+    INDEX summary_dates(date_finalized, date_due),
+    INDEX summary_date_due(date_due),
+    INDEX summary_project_name(project_name)
+);
+
+DROP PROCEDURE IF EXISTS refresh_project_summary;
+DROP TRIGGER IF EXISTS summarize_project_on_insert;
+DROP TRIGGER IF EXISTS summarize_project_on_update;
+DROP TRIGGER IF EXISTS summarize_project_on_delete;
+DROP TRIGGER IF EXISTS summarize_account_on_insert;
+DROP TRIGGER IF EXISTS summarize_account_on_update;
+DROP TRIGGER IF EXISTS summarize_account_on_delete;
+DROP TRIGGER IF EXISTS summarize_progress_on_insert;
+DROP TRIGGER IF EXISTS summarize_progress_on_update;
+DROP TRIGGER IF EXISTS summarize_progress_on_delete;
+DROP TRIGGER IF EXISTS summarize_address_on_update;
+
+DELIMITER $$
+/*
+** This procedure replaces the summary of the project with project_id = summarized_id with its current details.
+** Where a project has more than one account or progress row, the latest one is used.
+*/
+CREATE PROCEDURE refresh_project_summary(summarized_id int unsigned)
+BEGIN
+    REPLACE INTO project_summary
+    SELECT project.project_id,
+        project.project_name,
+        project.project_type,
+        address.erf_number,
+        CONCAT_WS(", ", street_address, suburb, city, province, post_code),
+        (SELECT amount_due FROM account WHERE account.project = project.project_id
+            ORDER BY account_id DESC LIMIT 1),
+        (SELECT amount_paid FROM account WHERE account.project = project.project_id
+            ORDER BY account_id DESC LIMIT 1),
+        (SELECT date_due FROM progress WHERE progress.project = project.project_id
+            ORDER BY tracker_id DESC LIMIT 1),
+        (SELECT date_finalized FROM progress WHERE progress.project = project.project_id
+            ORDER BY tracker_id DESC LIMIT 1)
+    FROM project
+        LEFT JOIN address ON project.project_address = address.erf_number
+    WHERE project.project_id = summarized_id;
+END$$
+
+CREATE TRIGGER summarize_project_on_insert AFTER INSERT ON project FOR EACH ROW
+BEGIN
+    CALL refresh_project_summary(NEW.project_id);
+END$$
+
+CREATE TRIGGER summarize_project_on_update AFTER UPDATE ON project FOR EACH ROW
+BEGIN
+    IF NEW.project_id != OLD.project_id THEN
+        DELETE FROM project_summary WHERE project_id = OLD.project_id;
+    END IF;
+    CALL refresh_project_summary(NEW.project_id);
+END$$
+
+CREATE TRIGGER summarize_project_on_delete AFTER DELETE ON project FOR EACH ROW
+BEGIN
+    DELETE FROM project_summary WHERE project_id = OLD.project_id;
+END$$
+
+CREATE TRIGGER summarize_account_on_insert AFTER INSERT ON account FOR EACH ROW
+BEGIN
+    CALL refresh_project_summary(NEW.project);
+END$$
+
+CREATE TRIGGER summarize_account_on_update AFTER UPDATE ON account FOR EACH ROW
+BEGIN
+    CALL refresh_project_summary(NEW.project);
+    IF NEW.project != OLD.project THEN
+        CALL refresh_project_summary(OLD.project);
+    END IF;
+END$$
+
+CREATE TRIGGER summarize_account_on_delete AFTER DELETE ON account FOR EACH ROW
+BEGIN
+    CALL refresh_project_summary(OLD.project);
+END$$
+
+CREATE TRIGGER summarize_progress_on_insert AFTER INSERT ON progress FOR EACH ROW
+BEGIN
+    CALL refresh_project_summary(NEW.project);
+END$$
+
+CREATE TRIGGER summarize_progress_on_update AFTER UPDATE ON progress FOR EACH ROW
+BEGIN
+    CALL refresh_project_summary(NEW.project);
+    IF NEW.project != OLD.project THEN
+        CALL refresh_project_summary(OLD.project);
+    END IF;
+END$$
+
+CREATE TRIGGER summarize_progress_on_delete AFTER DELETE ON progress FOR EACH ROW
+BEGIN
+    CALL refresh_project_summary(OLD.project);
+END$$
+
+/*
+** Only the address columns of the summaries are affected, so they are updated in place.
+*/
+CREATE TRIGGER summarize_address_on_update AFTER UPDATE ON address FOR EACH ROW
+BEGIN
+    UPDATE project_summary
+    SET erf_number = NEW.erf_number,
+        project_address = CONCAT_WS(", ", NEW.street_address, NEW.suburb, NEW.city, NEW.province, NEW.post_code)
+    WHERE erf_number = OLD.erf_number;
+END$$
+DELIMITER ;
+
+/*
+** Backfill the summaries of the projects which existed before the triggers were created.
+*/
+INSERT INTO project_summary
+SELECT project.project_id,
+    project.project_name,
+    project.project_type,
+    address.erf_number,
+    CONCAT_WS(", ", street_address, suburb, city, province, post_code),
+    (SELECT amount_due FROM account WHERE account.project = project.project_id
+        ORDER BY account_id DESC LIMIT 1),
+    (SELECT amount_paid FROM account WHERE account.project = project.project_id
+        ORDER BY account_id DESC LIMIT 1),
+    (SELECT date_due FROM progress WHERE progress.project = project.project_id
+        ORDER BY tracker_id DESC LIMIT 1),
+    (SELECT date_finalized FROM progress WHERE progress.project = project.project_id
+        ORDER BY tracker_id DESC LIMIT 1)
+FROM project
+    LEFT JOIN address ON project.project_address = address.erf_number;
+
+/*
+** Redefine the project views over the summaries. The views are simple filters, so MySQL merges them into the
+** queries which read them and uses the indexes of project_summary.
+*/
+CREATE OR REPLACE ALGORITHM = MERGE VIEW projects AS
+SELECT project_id,
+    project_name,
+    project_type,
+    erf_number,
+    project_address,
+    amount_due,
+    amount_paid,
+    date_due,
+    date_finalized
+FROM project_summary;
+
+CREATE OR REPLACE ALGORITHM = MERGE VIEW incomplete_projects AS
+SELECT *
+FROM project_summary
+WHERE date_finalized IS NULL;
+
+CREATE OR REPLACE ALGORITHM = MERGE VIEW outstanding_projects AS
+SELECT *
+FROM project_summary
+WHERE date_due < CURRENT_DATE()
+    AND date_finalized IS NULL;
+
+CREATE OR REPLACE ALGORITHM = MERGE VIEW finalized_projects AS
+SELECT *
+FROM project_summary
+WHERE date_finalized IS NOT NULL;
@@ -105,4 +105,15 @@ SELECT building_type,
     relationship_type
 FROM building b
     LEFT JOIN relationship r ON r.t_id = b.t_id
-ORDER BY - relationship_type DESC;
\ No newline at end of file
+ORDER BY - relationship_type DESC;
+
+/*
+ Role_Coverage
+ */
+CREATE VIEW role_coverage AS
+SELECT project.project_id,
+    project.project_name,
+    GROUP_CONCAT(DISTINCT participant.relationship) AS relationships
+FROM project
+    LEFT JOIN participant ON participant.project_id = project.project_id
+GROUP BY project.project_id;
@@ -0,0 +1,67 @@
+/*
+** Migration 1: adds the indexes used by the queries and triggers of the application, and makes the views which are
+** filtered by a key mergeable so that the filter reaches those indexes.
+**
+** - participant(project_id, relationship) covers limit_relationships' COUNT and the participants of a project.
+** - progress(date_finalized, date_due) covers the incomplete, outstanding and finalized filters on progress.
+**
+** Migrations are sourced in order by setup.sql and record themselves in schema_migration, so sourcing one again on
+** a database it was already applied to changes nothing.
+**
+** This file uses information obtained at:
+** - https://dev.mysql.com/doc/refman/8.0/en/create-index.html
+** - https://dev.mysql.com/doc/refman/8.0/en/view-algorithms.html
+*/
+CREATE TABLE IF NOT EXISTS schema_migration(
+    version int UNSIGNED,
+    description varchar(80) NOT NULL,
+    applied_at datetime DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY(version)
+);
+
+DROP PROCEDURE IF EXISTS migrate_v001;
+DELIMITER $$
+CREATE PROCEDURE migrate_v001()
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM schema_migration WHERE version = 1) THEN
+        CREATE INDEX participant_project_relationship ON participant(project_id, relationship);
+        CREATE INDEX progress_dates ON progress(date_finalized, date_due);
+        INSERT INTO schema_migration(version, description) VALUES (1, 'access path indexes');
+    END IF;
+END$$
+DELIMITER ;
+CALL migrate_v001();
+DROP PROCEDURE migrate_v001;
+
+/*
+** Addresses: erf_number is the primary key, so DISTINCT removed nothing but kept the view from being merged.
+*/
+CREATE OR REPLACE ALGORITHM = MERGE VIEW addresses AS
+SELECT erf_number,
+    CONCAT_WS(
+        ", ",
+        street_address,
+        suburb,
+        city,
+        province,
+        post_code
+    ) AS full_address
+FROM address;
+/*
+** Participants: without DISTINCT, a filter on project_id turns the outer join into an inner join which starts from
+** participant_project_relationship instead of from every relationship.
+*/
+CREATE OR REPLACE ALGORITHM = MERGE VIEW participants AS
+SELECT project_id,
+    addresses.erf_number,
+    person.person_id,
+    relationship_type,
+    first_name,
+    last_name,
+    phone_number,
+    email_address,
+    full_address AS physical_address
+FROM relationship
+    LEFT JOIN participant ON relationship_type = participant.relationship
+    LEFT JOIN person ON person.person_id = participant.person_id
+    LEFT JOIN addresses ON person.physical_address = erf_number;
@@ -0,0 +1,49 @@
+/*
+** Migration 2: lets the application defer the checks of the participant insert triggers.
+**
+** Batches of participants are checked by the application instead: it locks the projects, counts their participants
+** once and checks each role's quota against relationship.max_allowed before inserting, and names the projects
+** without a name itself. Such a writer sets @defer_participant_checks for the duration of its transaction, so that
+** check_project_name and check_relationship_on_insert do not repeat the same lookups for every row. Any other session
+** (e.g. ad-hoc SQL) leaves the variable NULL and is still checked by the triggers.
+**
+** Triggers cannot be created by a stored procedure, so they are replaced each time this migration is sourced.
+**
+** This file uses information obtained at:
+** - https://dev.mysql.com/doc/refman/8.0/en/user-variables.html
+*/
+DROP TRIGGER IF EXISTS check_project_name;
+DROP TRIGGER IF EXISTS check_relationship_on_insert;
+DELIMITER $$
+/*
+** Names the project after its customer when the first customer of a project without a name is assigned, unless the
+** checks are deferred.
+**
+** see: procedures.sql -> set_default_project_name
+*/
+CREATE TRIGGER check_project_name BEFORE INSERT ON participant FOR EACH ROW
+BEGIN
+    DECLARE this_project_name VARCHAR(80);
+    DECLARE this_project_type VARCHAR(30);
+
+    IF @defer_participant_checks IS NULL AND NEW.relationship = @customer_relationship THEN
+        SELECT project_name, project_type INTO this_project_name, this_project_type FROM project WHERE project_id = NEW.project_id;
+        IF (this_project_name = '') THEN
+            CALL set_default_project_name(NEW.project_id, this_project_type, NEW.person_id);
+        END IF;
+    END IF;
+END$$
+/*
+** Rejects a participant whose role is already full in its project, unless the checks are deferred.
+**
+** see: procedures.sql -> limit_relationships
+*/
+CREATE TRIGGER check_relationship_on_insert BEFORE INSERT ON participant FOR EACH ROW
+BEGIN
+    IF @defer_participant_checks IS NULL THEN
+        CALL limit_relationships(NEW.relationship, NEW.project_id);
+    END IF;
+END$$
+DELIMITER ;
+
+INSERT IGNORE INTO schema_migration(version, description) VALUES (2, 'deferred participant checks');
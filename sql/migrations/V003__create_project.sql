@@ -0,0 +1,97 @@
+/*
+** Migration 3: adds create_project, which creates a project with everything it needs in one call.
+**
+** The project's address and its customer (with their address) are inserted first if they are new, followed by the
+** project, its progress, its customer and the rest of its participants. Everything is inserted in one transaction, so
+** a project is never left half created. A project without a name is named after its customer, as
+** set_default_project_name would.
+**
+** The participants other than the customer are given as a JSON array of {"person_id": ..., "relationship": ...}
+** objects, so that a roster of any size fits in a single parameter; they are still checked by the participant
+** triggers.
+**
+** This file uses information obtained at:
+** - https://dev.mysql.com/doc/refman/8.0/en/create-procedure.html
+** - https://dev.mysql.com/doc/refman/8.0/en/json-table-functions.html
+** - https://dev.mysql.com/doc/refman/8.0/en/declare-handler.html
+*/
+DROP PROCEDURE IF EXISTS create_project;
+DELIMITER $$
+CREATE PROCEDURE create_project(
+    -- The name of the project; NULL or '' to name it after its customer. Set to the name it was given.
+    INOUT new_project_name varchar(80),
+    IN new_project_type varchar(32),
+    IN new_erf_number int unsigned,
+    -- The address of the project if it is new; new_street_address is NULL if the address already exists.
+    IN new_street_address varchar(80),
+    IN new_suburb varchar(60),
+    IN new_city varchar(60),
+    IN new_province varchar(12),
+    IN new_post_code char(4),
+    IN new_date_due date,
+    IN customer_role varchar(30),
+    -- The person_id of the customer; NULL to insert the customer described below. Set to the customer's person_id.
+    INOUT customer_id int unsigned,
+    IN customer_first_name varchar(50),
+    IN customer_last_name varchar(50),
+    IN customer_phone_number char(10),
+    IN customer_email_address varchar(80),
+    IN customer_erf_number int unsigned,
+    -- The address of the customer if it is new; customer_street_address is NULL if the address already exists.
+    IN customer_street_address varchar(80),
+    IN customer_suburb varchar(60),
+    IN customer_city varchar(60),
+    IN customer_province varchar(12),
+    IN customer_post_code char(4),
+    -- The other participants of the project; NULL if there are none.
+    IN roster JSON,
+    OUT new_project_id int unsigned
+)
+BEGIN
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
+    START TRANSACTION;
+    IF new_street_address IS NOT NULL THEN
+        INSERT INTO address(erf_number, street_address, suburb, city, province, post_code)
+            VALUES (new_erf_number, new_street_address, new_suburb, new_city, new_province, new_post_code);
+    END IF;
+    IF customer_street_address IS NOT NULL THEN
+        INSERT INTO address(erf_number, street_address, suburb, city, province, post_code)
+            VALUES (customer_erf_number, customer_street_address, customer_suburb, customer_city, customer_province,
+                customer_post_code);
+    END IF;
+    IF customer_id IS NULL THEN
+        INSERT INTO person(first_name, last_name, phone_number, email_address, physical_address)
+            VALUES (customer_first_name, customer_last_name, customer_phone_number, customer_email_address,
+                customer_erf_number);
+        SET customer_id = LAST_INSERT_ID();
+    END IF;
+
+    IF new_project_name IS NULL OR new_project_name = '' THEN
+        SELECT CONCAT_WS(' ', new_project_type, last_name) INTO new_project_name
+            FROM person WHERE person_id = customer_id;
+    END IF;
+    -- The account of the project is created by the create_account trigger.
+    INSERT INTO project(project_name, project_type, project_address)
+        VALUES (new_project_name, new_project_type, new_erf_number);
+    SET new_project_id = LAST_INSERT_ID();
+    INSERT INTO progress(project, date_due) VALUES (new_project_id, new_date_due);
+
+    INSERT INTO participant(project_id, person_id, relationship) VALUES (new_project_id, customer_id, customer_role);
+    IF roster IS NOT NULL THEN
+        INSERT INTO participant(project_id, person_id, relationship)
+            SELECT new_project_id, member.person_id, member.relationship
+            FROM JSON_TABLE(roster, '$[*]' COLUMNS(
+                person_id int unsigned PATH '$.person_id',
+                relationship varchar(30) PATH '$.relationship'
+            )) AS member;
+    END IF;
+    COMMIT;
+END$$
+DELIMITER ;
+
+INSERT IGNORE INTO schema_migration(version, description) VALUES (3, 'create_project procedure');
@@ -16,6 +16,12 @@ source helpers/tables.sql
 source helpers/views.sql
 source helpers/procedures.sql
 source helpers/triggers.sql
+source helpers/summary.sql
+
+-- Apply the migrations, in order
+source migrations/V001__access_path_indexes.sql
+source migrations/V002__deferred_participant_checks.sql
+source migrations/V003__create_project.sql
 
 INSERT INTO building(building_type) 
     VALUES ("house"), ("villa"), ("mansion"),("apartment"), ("rdp"), ("shack");
@@ -0,0 +1,121 @@
+package Components.Cache;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe set of keys which can answer "definitely absent" without storing the keys themselves. A key which
+ * was added is always reported as possibly present; a key which was not added is reported as possibly present with
+ * roughly the false positive rate the filter was sized for.
+ *
+ * Keys added after the filter holds its expected amount of keys are kept in an exact set instead, so that the false
+ * positive rate does not grow as the filter fills up.
+ */
+public class BloomFilter {
+    /**
+     * The bits set by the added keys.
+     */
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedInsertions;
+    /**
+     * The keys added once the filter was full.
+     */
+    private final Set<String> overflow = ConcurrentHashMap.newKeySet();
+    private final AtomicLong insertions = new AtomicLong(), lookups = new AtomicLong(), negatives = new AtomicLong();
+
+    /**
+     * The constructor for BloomFilter.
+     *
+     * @param expectedInsertions the amount of keys to size the filter for.
+     * @param falsePositiveRate  the fraction of absent keys which may be reported as possibly present, between 0 and
+     *                           1 (exclusive).
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("A bloom filter needs a positive size and a false positive rate below 1.");
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * @param key the key to add.
+     */
+    public void add(String key) {
+        if (insertions.incrementAndGet() > expectedInsertions) {
+            overflow.add(key);
+            return;
+        }
+        long hash = hash(key), step = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                // Another key set a bit in the same word; retry with its value.
+            }
+        }
+    }
+
+    /**
+     * @param key the key to look for.
+     * @return {@code false} if {@code key} was definitely never added; otherwise {@code true}.
+     */
+    public boolean mightContain(String key) {
+        lookups.incrementAndGet();
+        if (filterContains(key) || (!overflow.isEmpty() && overflow.contains(key))) {
+            return true;
+        }
+        negatives.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * @return whether all the bits {@code key} maps to are set.
+     */
+    private boolean filterContains(String key) {
+        long hash = hash(key), step = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the 64 bit FNV-1a hash of {@code key}, finalized with {@link #mix(long)}.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * @return {@code value} with its bits avalanched (the finalizer of MurmurHash3).
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("keys=%d, overflow=%d, lookups=%d, definite misses=%d",
+                insertions.get(), overflow.size(), lookups.get(), negatives.get());
+    }
+}
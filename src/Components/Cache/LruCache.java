@@ -0,0 +1,234 @@
+package Components.Cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, thread-safe cache which evicts its least recently used entry once it holds more than its capacity.
+ * Entries may also be given a time to live, after which they are treated as missing.
+ * 
+ * @param <K> the type of the keys.
+ * @param <V> the type of the cached values.
+ */
+public class LruCache<K, V> {
+    /**
+     * Notified of each entry removed to make room for another or because it expired.
+     * 
+     * @param <K> the type of the keys.
+     * @param <V> the type of the cached values.
+     */
+    @FunctionalInterface
+    public interface EvictionListener<K, V> {
+        /**
+         * Called while the cache is locked, so it must not call back into the cache.
+         * 
+         * @param key   the key of the evicted entry.
+         * @param value the value of the evicted entry.
+         */
+        void evicted(K key, V value);
+    }
+
+    /**
+     * Counts the lookups and evictions of a cache.
+     */
+    public static class Statistics {
+        private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), evictions = new AtomicLong(),
+                expirations = new AtomicLong();
+
+        /**
+         * Counts a lookup which was served from the cache.
+         */
+        public void recordHit() {
+            hits.incrementAndGet();
+        }
+
+        /**
+         * Counts a lookup which was not served from the cache.
+         */
+        public void recordMiss() {
+            misses.incrementAndGet();
+        }
+
+        void recordEviction() {
+            evictions.incrementAndGet();
+        }
+
+        void recordExpiration() {
+            expirations.incrementAndGet();
+        }
+
+        /**
+         * @return the fraction of lookups which were served from the cache.
+         */
+        public double getHitRate() {
+            long hitCount = hits.get(), total = hitCount + misses.get();
+            return total == 0 ? 0 : (double) hitCount / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, evictions=%d, expirations=%d, hit rate=%.2f%%",
+                    hits.get(), misses.get(), evictions.get(), expirations.get(), getHitRate() * 100);
+        }
+    }
+
+    /**
+     * A cached value and the time (in milliseconds) after which it expires.
+     */
+    private static class Node<V> {
+        final V value;
+        final long expiresAt;
+
+        Node(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int capacity;
+    /**
+     * The time (in milliseconds) entries are kept for; 0 if entries do not expire.
+     */
+    private final long timeToLive;
+    private final EvictionListener<K, V> listener;
+    private final Statistics statistics = new Statistics();
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * The cached entries, least recently used first.
+     */
+    private final LinkedHashMap<K, Node<V>> entries;
+
+    /**
+     * The constructor for LruCache.
+     * 
+     * @param capacity   the maximum amount of entries to keep.
+     * @param timeToLive the time (in milliseconds) after which an entry expires; 0 if entries should not expire.
+     * @param listener   notified of each evicted or expired entry; may be {@code null}.
+     */
+    public LruCache(int capacity, long timeToLive, EvictionListener<K, V> listener) {
+        this.capacity = Math.max(1, capacity);
+        this.timeToLive = Math.max(0, timeToLive);
+        this.listener = listener;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @param capacity the maximum amount of entries to keep.
+     * @param listener notified of each evicted entry; may be {@code null}.
+     */
+    public LruCache(int capacity, EvictionListener<K, V> listener) {
+        this(capacity, 0, listener);
+    }
+
+    /**
+     * @param capacity the maximum amount of entries to keep.
+     */
+    public LruCache(int capacity) {
+        this(capacity, 0, null);
+    }
+
+    /**
+     * Gets the value cached for {@code key}, marking it as the most recently used entry and counting the lookup in
+     * the {@link #getStatistics() statistics}.
+     * 
+     * @param key the key to look up.
+     * @return the cached value; {@code null} if {@code key} is not cached or has expired.
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Node<V> node = entries.get(key);
+            if (node != null && timeToLive > 0 && System.currentTimeMillis() >= node.expiresAt) {
+                entries.remove(key);
+                statistics.recordExpiration();
+                if (listener != null) {
+                    listener.evicted(key, node.value);
+                }
+                node = null;
+            }
+            if (node == null) {
+                statistics.recordMiss();
+                return null;
+            }
+            statistics.recordHit();
+            return node.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches {@code value} for {@code key}, evicting the least recently used entries if the cache is full.
+     * 
+     * @param key   the key to cache {@code value} for.
+     * @param value the value to cache.
+     * @return the value previously cached for {@code key}; {@code null} if there was none.
+     */
+    public V put(K key, V value) {
+        lock.lock();
+        try {
+            Node<V> previous = entries.put(key,
+                    new Node<>(value, timeToLive > 0 ? System.currentTimeMillis() + timeToLive : Long.MAX_VALUE));
+            Iterator<Map.Entry<K, Node<V>>> eldestFirst = entries.entrySet().iterator();
+            while (entries.size() > capacity && eldestFirst.hasNext()) {
+                Map.Entry<K, Node<V>> eldest = eldestFirst.next();
+                eldestFirst.remove();
+                statistics.recordEviction();
+                if (listener != null) {
+                    listener.evicted(eldest.getKey(), eldest.getValue().value);
+                }
+            }
+            return previous == null ? null : previous.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param key the key to remove.
+     * @return the value which was cached for {@code key}; {@code null} if there was none.
+     */
+    public V remove(K key) {
+        lock.lock();
+        try {
+            Node<V> removed = entries.remove(key);
+            return removed == null ? null : removed.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the amount of cached entries, including any which have expired but not been looked up since.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the lookup and eviction counters of this cache.
+     */
+    public Statistics getStatistics() {
+        return statistics;
+    }
+}
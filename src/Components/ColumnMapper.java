@@ -0,0 +1,105 @@
+package Components;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import Interfaces.RowMapper;
+
+/**
+ * A {@link RowMapper} which reads its columns by index instead of by label.
+ * 
+ * The labels of the columns are resolved to indexes once for each shape of results (the labels of all the columns in
+ * the results, in order), and the indexes are cached, so mapping a row never searches for a column by name.
+ * 
+ * @param <T> the type of object each row is mapped to.
+ */
+public abstract class ColumnMapper<T> implements RowMapper<T> {
+    /**
+     * The most result shapes whose column indexes are kept; the cache is cleared once it is exceeded.
+     */
+    private static final int MAX_SHAPES = 64;
+
+    private final String[] labels;
+    /**
+     * The index of each of {@link #labels}, keyed by result shape.
+     */
+    private final Map<String, int[]> indexesByShape = new ConcurrentHashMap<>();
+
+    /**
+     * The constructor for ColumnMapper.
+     * 
+     * @param labels the labels of the columns this mapper reads, in the order their indexes are passed to
+     *               {@link #map(ResultSet, int[])}.
+     */
+    protected ColumnMapper(String... labels) {
+        this.labels = labels.clone();
+    }
+
+    /**
+     * Maps the row {@code results} is currently positioned on. Implementations should not move the cursor.
+     * 
+     * @param results the results positioned on the row to map.
+     * @param columns the index of each of the labels passed to the constructor, in the same order.
+     * @return the object represented by the current row.
+     * @throws SQLException if a column cannot be read.
+     */
+    protected abstract T map(ResultSet results, int[] columns) throws SQLException;
+
+    /**
+     * Maps a single row, resolving the column indexes from the metadata of {@code results}. Prefer
+     * {@link #bind(ResultSetMetaData)} when mapping more than one row.
+     */
+    @Override
+    public T map(ResultSet results) throws SQLException {
+        return map(results, resolve(results.getMetaData()));
+    }
+
+    @Override
+    public RowMapper<T> bind(ResultSetMetaData metadata) throws SQLException {
+        int[] columns = resolve(metadata);
+        return results -> map(results, columns);
+    }
+
+    /**
+     * @param metadata the metadata of the results to be mapped.
+     * @return the index of each of {@link #labels} in the results.
+     * @throws SQLException if a label is not in the results.
+     */
+    private int[] resolve(ResultSetMetaData metadata) throws SQLException {
+        int columnCount = metadata.getColumnCount();
+        String[] resultLabels = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            resultLabels[i] = metadata.getColumnLabel(i + 1);
+        }
+        String shape = String.join("\0", resultLabels);
+        int[] columns = indexesByShape.get(shape);
+        if (columns != null) {
+            return columns;
+        }
+        columns = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            columns[i] = indexOf(resultLabels, labels[i]);
+        }
+        if (indexesByShape.size() >= MAX_SHAPES) {
+            indexesByShape.clear();
+        }
+        indexesByShape.put(shape, columns);
+        return columns;
+    }
+
+    /**
+     * @return the 1-based index of the first of {@code resultLabels} which equals {@code label}, ignoring case.
+     * @throws SQLException if {@code label} is not in {@code resultLabels}.
+     */
+    private static int indexOf(String[] resultLabels, String label) throws SQLException {
+        for (int i = 0; i < resultLabels.length; i++) {
+            if (resultLabels[i].equalsIgnoreCase(label)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException(String.format("Column '%s' not found.", label));
+    }
+}
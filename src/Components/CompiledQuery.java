@@ -0,0 +1,115 @@
+package Components;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Represents an immutable SQL statement produced by a {@link QueryBuilder}, along with the column bound by each of its
+ * placeholders.
+ * 
+ * CompiledQuery objects hold no connection state, so they can be built once (e.g. as constants) and shared between
+ * threads.
+ */
+public final class CompiledQuery {
+    /**
+     * The SQL text of this query.
+     */
+    private final String sql;
+    /**
+     * The column bound by each placeholder in {@link #sql}, in order; {@code null} where the column is unknown.
+     */
+    private final List<String> parameters;
+    /**
+     * The columns whose generated keys should be returned; empty if none.
+     */
+    private final String[] generatedKeys;
+
+    /**
+     * The constructor for CompiledQuery.
+     * 
+     * @param sql           the SQL text of the query.
+     * @param parameters    the column bound by each placeholder in {@code sql}.
+     * @param generatedKeys the columns whose generated keys should be returned.
+     */
+    CompiledQuery(String sql, List<String> parameters, String... generatedKeys) {
+        this.sql = sql;
+        this.parameters = List.copyOf(parameters.stream().map(name -> name == null ? "" : name).toList());
+        this.generatedKeys = generatedKeys.clone();
+    }
+
+    /**
+     * @return the SQL text of this query.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return the column bound by each placeholder of this query, in order.
+     */
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return the amount of placeholders in this query.
+     */
+    public int getParameterCount() {
+        return parameters.size();
+    }
+
+    /**
+     * @return {@code true} if this query returns generated keys.
+     */
+    public boolean returnsGeneratedKeys() {
+        return generatedKeys.length > 0;
+    }
+
+    /**
+     * @return {@code true} if this query calls a stored procedure.
+     */
+    public boolean isCall() {
+        return sql.startsWith("{CALL ");
+    }
+
+    /**
+     * Creates a {@link CallableStatement} for this query on {@code connection}, so that the OUT parameters of the
+     * procedure it calls can be registered and read.
+     *
+     * @param connection the connection on which to prepare the statement.
+     * @return the created {@link CallableStatement}.
+     * @throws IllegalStateException if this query does not call a stored procedure.
+     * @throws SQLException          if a database access error occurs.
+     */
+    public CallableStatement prepareCall(Connection connection) throws SQLException {
+        if (!isCall()) {
+            throw new IllegalStateException("Not a call of a stored procedure: " + sql);
+        }
+        return connection.prepareCall(sql);
+    }
+
+    /**
+     * Creates a {@link PreparedStatement} for this query on {@code connection}.
+     * 
+     * @param connection the connection on which to prepare the statement.
+     * @return the created {@link PreparedStatement}.
+     * @throws SQLException if a database access error occurs.
+     */
+    public PreparedStatement prepare(Connection connection) throws SQLException {
+        if (generatedKeys.length > 0) {
+            return connection.prepareStatement(sql, generatedKeys.clone());
+        }
+        return connection.prepareStatement(sql);
+    }
+
+    /**
+     * @return the SQL text of this query.
+     */
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
@@ -0,0 +1,238 @@
+package Components.Export;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.zip.GZIPOutputStream;
+
+import Interfaces.ResultsHandler;
+import Utilities.CsvUtils;
+
+/**
+ * Writes the rows of a {@link ResultSet} to a file as they are read, encoding each row into a single reusable direct
+ * buffer which is drained into the file's channel whenever it fills up. Memory use therefore does not depend on the
+ * amount of rows exported.
+ */
+public class ViewExporter implements ResultsHandler<Long>, AutoCloseable {
+    /**
+     * The formats rows can be exported in.
+     */
+    public enum Format {
+        /**
+         * Comma-separated values with a header row.
+         */
+        CSV,
+        /**
+         * One JSON object per line, keyed by column name.
+         */
+        JSON_LINES
+    }
+
+    /**
+     * The size of the buffer rows are encoded into.
+     */
+    private static final int BUFFER_SIZE = 1 << 18;
+    /**
+     * The size of the buffer used by the gzip stream.
+     */
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final Format format;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    /**
+     * The text of the row being encoded, reused for every row.
+     */
+    private final StringBuilder row = new StringBuilder(512);
+
+    /**
+     * Creates (or truncates) {@code file} to export rows to.
+     * 
+     * @param file   the file to write to.
+     * @param format the format to write rows in.
+     * @param gzip   whether to compress the file with gzip.
+     * @throws IOException if the file cannot be opened.
+     */
+    public ViewExporter(Path file, Format format, boolean gzip) throws IOException {
+        FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.channel = gzip
+                ? Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(fileChannel), GZIP_BUFFER_SIZE))
+                : fileChannel;
+        this.format = format;
+    }
+
+    /**
+     * Writes every row of {@code results}, preceded by a header if the format has one.
+     * 
+     * @return the amount of rows written.
+     * @throws UncheckedIOException if the file cannot be written to.
+     */
+    @Override
+    public Long handle(ResultSet results) throws SQLException, UncheckedIOException {
+        ResultSetMetaData metaData = results.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] columns = new String[columnCount];
+        boolean[] numeric = new boolean[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+            numeric[i] = isNumeric(metaData.getColumnType(i + 1));
+        }
+        if (format == Format.CSV) {
+            for (int i = 0; i < columnCount; i++) {
+                if (i > 0) {
+                    row.append(CsvUtils.SEPARATOR);
+                }
+                CsvUtils.appendField(row, columns[i]);
+            }
+            writeRow();
+        }
+        long rowCount = 0;
+        while (results.next()) {
+            if (format == Format.CSV) {
+                for (int i = 0; i < columnCount; i++) {
+                    if (i > 0) {
+                        row.append(CsvUtils.SEPARATOR);
+                    }
+                    CsvUtils.appendField(row, results.getString(i + 1));
+                }
+            } else {
+                row.append('{');
+                for (int i = 0; i < columnCount; i++) {
+                    if (i > 0) {
+                        row.append(',');
+                    }
+                    appendJsonString(columns[i]).append(':');
+                    String value = results.getString(i + 1);
+                    if (value == null) {
+                        row.append("null");
+                    } else if (numeric[i]) {
+                        row.append(value);
+                    } else {
+                        appendJsonString(value);
+                    }
+                }
+                row.append('}');
+            }
+            writeRow();
+            rowCount++;
+        }
+        return rowCount;
+    }
+
+    /**
+     * Encodes {@link #row} and a line break into {@link #buffer}, draining the buffer whenever it fills up.
+     */
+    private void writeRow() throws UncheckedIOException {
+        row.append('\n');
+        CharBuffer characters = CharBuffer.wrap(row);
+        while (true) {
+            CoderResult result = encoder.encode(characters, buffer, true);
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                break;
+            }
+        }
+        encoder.reset();
+        row.setLength(0);
+    }
+
+    /**
+     * Writes the contents of {@link #buffer} to the file and clears it.
+     */
+    private void drain() throws UncheckedIOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Appends {@code value} to {@link #row} as a quoted JSON string.
+     */
+    private StringBuilder appendJsonString(String value) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char current = value.charAt(i);
+            switch (current) {
+                case '"':
+                    row.append("\\\"");
+                    break;
+                case '\\':
+                    row.append("\\\\");
+                    break;
+                case '\n':
+                    row.append("\\n");
+                    break;
+                case '\r':
+                    row.append("\\r");
+                    break;
+                case '\t':
+                    row.append("\\t");
+                    break;
+                default:
+                    if (current < 0x20) {
+                        row.append(String.format("\\u%04x", (int) current));
+                    } else {
+                        row.append(current);
+                    }
+            }
+        }
+        return row.append('"');
+    }
+
+    /**
+     * @param sqlType one of the constants in {@link Types}.
+     * @return {@code true} if values of {@code sqlType} can be written as JSON numbers.
+     */
+    private static boolean isNumeric(int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Writes any buffered rows and closes the file.
+     * 
+     * @throws IOException if the file cannot be written to.
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            drain();
+        } catch (UncheckedIOException error) {
+            throw error.getCause();
+        }
+    }
+}
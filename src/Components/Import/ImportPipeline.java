@@ -0,0 +1,297 @@
+package Components.Import;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import Models.EntityModel.BatchResult;
+import Utilities.CsvUtils;
+
+/**
+ * Imports the records of a CSV file into the database in three stages connected by bounded queues:
+ * <ol>
+ * <li>a reader which decodes the file through a direct buffer and splits it into chunks of records;</li>
+ * <li>a pool of parsers which convert and validate each record in parallel;</li>
+ * <li>a writer, on the calling thread, which stores each chunk as a batch.</li>
+ * </ol>
+ * A stage blocks when the queue after it is full, so a slow database throttles reading instead of the file being
+ * loaded into memory. The first line of the file is treated as a header and skipped.
+ * 
+ * @param <T> the type each record is converted to.
+ */
+public class ImportPipeline<T> {
+    /**
+     * Converts the fields of a record, validating them.
+     * 
+     * @param <T> the type the record is converted to.
+     */
+    @FunctionalInterface
+    public interface RecordParser<T> {
+        /**
+         * @param fields the fields of the record.
+         * @return the converted record.
+         * @throws IllegalArgumentException if the record is invalid.
+         */
+        T parse(String[] fields) throws IllegalArgumentException;
+    }
+
+    /**
+     * Stores a chunk of converted records.
+     * 
+     * @param <T> the type of the records.
+     */
+    @FunctionalInterface
+    public interface ChunkWriter<T> {
+        /**
+         * @param chunk the records to store.
+         * @return the outcome of each record in {@code chunk}.
+         * @throws SQLException if a database access error unrelated to the records occurs.
+         */
+        BatchResult<T> write(List<T> chunk) throws SQLException;
+    }
+
+    /**
+     * A value read from the file along with the line it starts on.
+     */
+    private static class Numbered<V> {
+        final long lineNumber;
+        final V value;
+
+        Numbered(long lineNumber, V value) {
+            this.lineNumber = lineNumber;
+            this.value = value;
+        }
+    }
+
+    /**
+     * The size of the buffer the file is read through.
+     */
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final Path file;
+    private final RecordParser<T> parser;
+    private final ChunkWriter<T> writer;
+    private final int chunkSize, parserThreads, queueCapacity;
+
+    /**
+     * The constructor for ImportPipeline.
+     * 
+     * @param file          the CSV file to import.
+     * @param parser        converts each record.
+     * @param writer        stores each chunk of converted records.
+     * @param chunkSize     the amount of records passed between stages at a time.
+     * @param parserThreads the amount of records parsed in parallel.
+     * @param queueCapacity the amount of chunks which may wait between two stages.
+     */
+    public ImportPipeline(Path file, RecordParser<T> parser, ChunkWriter<T> writer, int chunkSize,
+            int parserThreads, int queueCapacity) {
+        this.file = file;
+        this.parser = parser;
+        this.writer = writer;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parserThreads = Math.max(1, parserThreads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * Imports the file, returning once every record has been written or rejected.
+     * 
+     * @return the amount of records read, written, rejected and failed, and the time taken.
+     * @throws IOException          if the file cannot be read.
+     * @throws SQLException         if a database access error occurs.
+     * @throws InterruptedException if the import is interrupted.
+     */
+    public ImportSummary run() throws IOException, SQLException, InterruptedException {
+        ImportSummary summary = new ImportSummary(file);
+        // An empty chunk marks the end of the records in both queues.
+        BlockingQueue<List<Numbered<String>>> records = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<List<Numbered<T>>> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        ExecutorService stages = Executors.newFixedThreadPool(parserThreads + 1, task -> {
+            Thread thread = new Thread(task, "import-" + file.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<Void> reading = stages.submit(() -> {
+                try {
+                    read(records, summary);
+                } catch (InterruptedException aborted) {
+                    // The import was abandoned, so nothing is left to take the end markers.
+                    throw aborted;
+                } catch (IOException | RuntimeException error) {
+                    endRecords(records);
+                    throw error;
+                }
+                endRecords(records);
+                return null;
+            });
+            for (int i = 0; i < parserThreads; i++) {
+                stages.submit(() -> {
+                    parse(records, parsed, summary);
+                    return null;
+                });
+            }
+            write(parsed, summary);
+            reading.get();
+        } catch (ExecutionException error) {
+            if (error.getCause() instanceof IOException) {
+                throw (IOException) error.getCause();
+            }
+            throw new IllegalStateException(error.getCause());
+        } finally {
+            stages.shutdownNow();
+            summary.finish();
+        }
+        return summary;
+    }
+
+    /**
+     * Marks the end of the records for each parser.
+     */
+    private void endRecords(BlockingQueue<List<Numbered<String>>> records) throws InterruptedException {
+        for (int i = 0; i < parserThreads; i++) {
+            records.put(List.of());
+        }
+    }
+
+    /**
+     * Reads the file through a direct buffer, splitting it into records and passing them on in chunks.
+     */
+    private void read(BlockingQueue<List<Numbered<String>>> records, ImportSummary summary)
+            throws IOException, InterruptedException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        CharBuffer characters = CharBuffer.allocate(READ_BUFFER_SIZE);
+        StringBuilder record = new StringBuilder();
+        List<Numbered<String>> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 1, recordStart = 1;
+        boolean quoted = false, endOfFile = false;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (!endOfFile) {
+                endOfFile = channel.read(bytes) == -1;
+                bytes.flip();
+                decoder.decode(bytes, characters, endOfFile);
+                bytes.compact();
+                characters.flip();
+                while (characters.hasRemaining()) {
+                    char current = characters.get();
+                    if (current == CsvUtils.QUOTE) {
+                        quoted = !quoted;
+                    } else if (current == '\n') {
+                        lineNumber++;
+                        if (!quoted) {
+                            chunk = emit(record, recordStart, chunk, records, summary);
+                            recordStart = lineNumber;
+                            continue;
+                        }
+                    }
+                    record.append(current);
+                }
+                characters.clear();
+            }
+            chunk = emit(record, recordStart, chunk, records, summary);
+            if (!chunk.isEmpty()) {
+                records.put(chunk);
+            }
+        }
+    }
+
+    /**
+     * Adds {@code record} to {@code chunk}, skipping the header and blank lines, and passes {@code chunk} on once it
+     * is full.
+     * 
+     * @return the chunk to add the next record to.
+     */
+    private List<Numbered<String>> emit(StringBuilder record, long lineNumber, List<Numbered<String>> chunk,
+            BlockingQueue<List<Numbered<String>>> records, ImportSummary summary) throws InterruptedException {
+        int length = record.length();
+        if (length > 0 && record.charAt(length - 1) == '\r') {
+            record.setLength(--length);
+        }
+        if (lineNumber > 1 && length > 0) {
+            summary.recordRead();
+            chunk.add(new Numbered<>(lineNumber, record.toString()));
+        }
+        record.setLength(0);
+        if (chunk.size() < chunkSize) {
+            return chunk;
+        }
+        records.put(chunk);
+        return new ArrayList<>(chunkSize);
+    }
+
+    /**
+     * Converts each chunk of records until the end of the records is reached, passing the valid ones on.
+     */
+    private void parse(BlockingQueue<List<Numbered<String>>> records, BlockingQueue<List<Numbered<T>>> parsed,
+            ImportSummary summary) throws InterruptedException {
+        // If interrupted, the import was abandoned and no end marker is passed on, as nothing is left to take it.
+        try {
+            List<Numbered<String>> chunk;
+            while (!(chunk = records.take()).isEmpty()) {
+                List<Numbered<T>> converted = new ArrayList<>(chunk.size());
+                for (Numbered<String> record : chunk) {
+                    try {
+                        converted.add(new Numbered<>(record.lineNumber,
+                                parser.parse(CsvUtils.parseRecord(record.value))));
+                    } catch (RuntimeException error) {
+                        summary.recordRejected(record.lineNumber, error.getLocalizedMessage());
+                    }
+                }
+                if (!converted.isEmpty()) {
+                    parsed.put(converted);
+                }
+            }
+        } catch (RuntimeException error) {
+            parsed.put(List.of());
+            throw error;
+        }
+        parsed.put(List.of());
+    }
+
+    /**
+     * Stores each chunk of converted records until every parser has finished.
+     */
+    private void write(BlockingQueue<List<Numbered<T>>> parsed, ImportSummary summary)
+            throws SQLException, InterruptedException {
+        int finishedParsers = 0;
+        while (finishedParsers < parserThreads) {
+            List<Numbered<T>> chunk = parsed.take();
+            if (chunk.isEmpty()) {
+                finishedParsers++;
+                continue;
+            }
+            List<T> values = new ArrayList<>(chunk.size());
+            for (Numbered<T> record : chunk) {
+                values.add(record.value);
+            }
+            BatchResult<T> result = writer.write(values);
+            for (int i = 0; i < result.size(); i++) {
+                if (result.isSuccessful(i)) {
+                    summary.recordWritten();
+                } else {
+                    SQLException error = result.getError(i);
+                    summary.recordFailed(chunk.get(i).lineNumber,
+                            error == null ? "not written" : error.getLocalizedMessage());
+                }
+            }
+        }
+    }
+}
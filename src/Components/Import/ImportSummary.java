@@ -0,0 +1,114 @@
+package Components.Import;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the records handled by each stage of an {@link ImportPipeline} run.
+ */
+public class ImportSummary {
+    /**
+     * The maximum amount of rejected or failed records described in {@link #toString()}.
+     */
+    private static final int MAX_REPORTED_PROBLEMS = 20;
+    private final Path file;
+    private final long startTime = System.nanoTime();
+    private long elapsedTime;
+    private final AtomicLong read = new AtomicLong(), rejected = new AtomicLong(), written = new AtomicLong(),
+            failed = new AtomicLong();
+    /**
+     * Describes each record which was rejected or failed to be written, up to {@link #MAX_REPORTED_PROBLEMS}.
+     */
+    private final List<String> problems = new ArrayList<>();
+
+    /**
+     * @param file the file being imported.
+     */
+    ImportSummary(Path file) {
+        this.file = file;
+    }
+
+    void recordRead() {
+        read.incrementAndGet();
+    }
+
+    void recordRejected(long lineNumber, String reason) {
+        rejected.incrementAndGet();
+        addProblem(lineNumber, "rejected", reason);
+    }
+
+    void recordWritten() {
+        written.incrementAndGet();
+    }
+
+    void recordFailed(long lineNumber, String reason) {
+        failed.incrementAndGet();
+        addProblem(lineNumber, "not written", reason);
+    }
+
+    void finish() {
+        elapsedTime = System.nanoTime() - startTime;
+    }
+
+    private synchronized void addProblem(long lineNumber, String outcome, String reason) {
+        if (problems.size() < MAX_REPORTED_PROBLEMS) {
+            problems.add(String.format("line %d %s: %s", lineNumber, outcome, reason));
+        }
+    }
+
+    /**
+     * @return the amount of records read from the file.
+     */
+    public long getRead() {
+        return read.get();
+    }
+
+    /**
+     * @return the amount of records which failed validation.
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the amount of records written to the database.
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * @return the amount of valid records which the database refused.
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the amount of records handled per second.
+     */
+    public double getThroughput() {
+        return elapsedTime == 0 ? 0 : read.get() / (elapsedTime / 1e9);
+    }
+
+    /**
+     * Describes the totals and throughput of the run, followed by the first rejected or failed records.
+     */
+    @Override
+    public synchronized String toString() {
+        StringBuilder summary = new StringBuilder(String.format(
+                "Imported %s: %d read, %d written, %d rejected, %d failed in %.2f s (%.0f records/s).",
+                file.getFileName(), getRead(), getWritten(), getRejected(), getFailed(), elapsedTime / 1e9,
+                getThroughput()));
+        for (String problem : problems) {
+            summary.append("\n  ").append(problem);
+        }
+        long unreported = getRejected() + getFailed() - problems.size();
+        if (unreported > 0) {
+            summary.append("\n  ... and ").append(unreported).append(" more.");
+        }
+        return summary.toString();
+    }
+}
@@ -108,16 +108,17 @@ public class Input {
     private static BufferedReader reader;
 
     /**
-     * Instantiates a new Input object if no Input objects are in scope.
+     * Instantiates a new Input object if no Input objects are in scope, and reads the user's responses from
+     * {@code reader} from now on.
      * 
      * @param reader the reader of the user's responses.
      * @return Input object.
      */
     public static Input getInstance(BufferedReader reader) {
         if (inputInstance == null) {
-            Input.reader = reader;
             inputInstance = new Input();
         }
+        Input.reader = reader;
         return inputInstance;
     }
 
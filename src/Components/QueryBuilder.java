@@ -1,17 +1,29 @@
 package Components;
 
 import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import Interfaces.IQuery;
-import Models.DatabaseConnectionModel;
 
 /**
  * Represents a QueryBuilder.
+ * 
+ * A QueryBuilder is meant to be used once, by a single thread, to produce an immutable {@link CompiledQuery} which can
+ * then be shared and reused freely.
  */
 public class QueryBuilder implements IQuery { 
     private StringBuilder query;
+    /**
+     * The column bound by each placeholder appended to {@link #query}, in order.
+     */
+    private final List<String> parameters = new ArrayList<>();
+    /**
+     * The columns of the most recent {@link #group(String...)}, used to name the placeholders of a "VALUES" clause.
+     */
+    private List<String> lastGroup = List.of();
     
     /** 
      * Makes sure that {@link #query} is initialized as a {@link StringBuilder}
@@ -35,10 +47,9 @@ public class QueryBuilder implements IQuery {
      */
     public QueryBuilder group(String ...items) {
         getQuery();
-        query.append("(").append(
-            String.join(
-                ",", Arrays.stream(items)
-                        .filter(name -> name != null).toList()))
+        lastGroup = Arrays.stream(items)
+                .filter(name -> name != null).toList();
+        query.append("(").append(String.join(",", lastGroup))
         .append(") ");
         return this;
     }
@@ -51,8 +62,14 @@ public class QueryBuilder implements IQuery {
      */
     public QueryBuilder values(String... values) {
         getQuery();
+        List<String> columns = lastGroup;
         query.append("VALUES");
         group(values);
+        for (int i = 0; i < values.length; i++) {
+            if ("?".equals(values[i])) {
+                parameters.add(i < columns.size() ? columns.get(i) : null);
+            }
+        }
         return this;
     }
 
@@ -70,6 +87,22 @@ public class QueryBuilder implements IQuery {
         return this;
     }
 
+    /**
+     * Appends a JDBC call of the stored procedure {@code procedureName} to {@link #query}, with a placeholder for
+     * each of its parameters.
+     *
+     * @param procedureName  the procedure to call
+     * @param parameterNames the name of each parameter of the procedure, in order
+     * @return this QueryBuilder instance
+     */
+    public QueryBuilder call(String procedureName, String... parameterNames) {
+        getQuery();
+        query.append("{CALL ").append(procedureName).append("(")
+                .append(String.join(",", Collections.nCopies(parameterNames.length, "?"))).append(")}");
+        parameters.addAll(Arrays.asList(parameterNames));
+        return this;
+    }
+
     /** 
      * Appends a SQL "INSERT INTO" clause to {@link #query} followed by {@code tableName}.
      * 
@@ -106,6 +139,7 @@ public class QueryBuilder implements IQuery {
         query.append("SET ");
         for (int i = 0; i < columnAmount; i++) {
             query.append(columnNames[i]).append("=?");
+            parameters.add(columnNames[i]);
             if (i < columnAmount - 1 ) {
                 query.append(",");
             }
@@ -136,6 +170,87 @@ public class QueryBuilder implements IQuery {
     public QueryBuilder where(String columnName) {
         getQuery();
         query.append(" WHERE ").append(columnName).append("=?");
+        parameters.add(columnName);
+        return this;
+    }
+
+    /** 
+     * Appends "WHERE {@code columnName}{@code comparison}?" to {@link #query}.
+     * 
+     * @param columnName the left hand side of the comparison
+     * @param comparison the comparison operator, e.g. {@code <} or {@code >=}
+     * @return this QueryBuilder instance
+     */
+    public QueryBuilder where(String columnName, String comparison) {
+        getQuery();
+        query.append(" WHERE ").append(columnName).append(comparison).append("?");
+        parameters.add(columnName);
+        return this;
+    }
+
+    /** 
+     * Appends "WHERE {@code columnName} IN (?,...)" to {@link #query}, with {@code placeholderAmount} placeholders.
+     * 
+     * @param columnName        the column whose value is in the list
+     * @param placeholderAmount the amount of placeholders in the list; at least 1
+     * @return this QueryBuilder instance
+     */
+    public QueryBuilder whereIn(String columnName, int placeholderAmount) {
+        getQuery();
+        String[] placeholders = new String[placeholderAmount];
+        Arrays.fill(placeholders, "?");
+        query.append(" WHERE ").append(columnName).append(" IN (").append(String.join(",", placeholders)).append(")");
+        for (int i = 0; i < placeholderAmount; i++) {
+            parameters.add(columnName);
+        }
+        return this;
+    }
+
+    /** 
+     * Appends "ORDER BY {@code columnName}" to {@link #query}, followed by "DESC" if {@code descending}.
+     * 
+     * @param columnName the column to sort by
+     * @param descending whether to sort from the largest value to the smallest
+     * @return this QueryBuilder instance
+     */
+    public QueryBuilder orderBy(String columnName, boolean descending) {
+        getQuery();
+        query.append("ORDER BY ").append(columnName).append(descending ? " DESC" : " ASC");
+        return this;
+    }
+
+    /**
+     * Appends "GROUP BY {@code columnNames}" to {@link #query}.
+     *
+     * @param columnNames the columns to group the rows by
+     * @return this QueryBuilder instance
+     */
+    public QueryBuilder groupBy(String... columnNames) {
+        getQuery();
+        query.append(" GROUP BY ").append(String.join(",", columnNames));
+        return this;
+    }
+
+    /**
+     * Appends "FOR UPDATE" to {@link #query}, so that the rows read are locked until the transaction ends.
+     *
+     * @return this QueryBuilder instance
+     */
+    public QueryBuilder forUpdate() {
+        getQuery();
+        query.append(" FOR UPDATE");
+        return this;
+    }
+
+    /**
+     * Appends "LIMIT ?" to {@link #query}.
+     * 
+     * @return this QueryBuilder instance
+     */
+    public QueryBuilder limit() {
+        getQuery();
+        query.append("LIMIT ?");
+        parameters.add("LIMIT");
         return this;
     }
 
@@ -148,6 +263,7 @@ public class QueryBuilder implements IQuery {
     public QueryBuilder and(String columnName) {
         getQuery();
         query.append(" AND ").append(columnName).append("=?");
+        parameters.add(columnName);
         return this;
     }
 
@@ -160,49 +276,19 @@ public class QueryBuilder implements IQuery {
     public QueryBuilder or(String columnName) {
         getQuery();
         query.append(" OR ").append(columnName).append("=?");
+        parameters.add(columnName);
         return this;
     }
     
     /** 
-     * Creates a {@link PreparedStatement} from {@link #query} as a {@link String} and reinitializes {@code query}.
-     * 
-     * @return the created {@link PreparedStatement}
-     * @throws SQLException if a database access error occurs.
-     */
-    public PreparedStatement prepare() throws SQLException {
-        String statement = query.toString();
-        query = null;
-        return dbInstance.prepare(statement);
-    }
-    
-    /** 
-     * Creates a {@link PreparedStatement} from {@link #query} as a {@link String} and reinitializes {@code query}.
+     * Creates an immutable {@link CompiledQuery} from {@link #query} and the placeholders appended to it.
      * 
      * @see <a href="https://stackoverflow.com/a/1915197/2850190">answer by rogerdpack</a>
-     * @param generatedKeys the keys generated by an insert or update operation.
-     * @return the created {@link PreparedStatement}
-     * @throws SQLException if a database access error occurs.
+     * @param generatedKeys the keys generated by an insert or update operation, if any.
+     * @return the compiled query.
      */
-    public PreparedStatement prepare(String... generatedKeys) throws SQLException {
-        String statement = query.toString();
-        query = null;
-        return dbInstance.prepare(statement, generatedKeys);
-    }
-
-    private DatabaseConnectionModel dbInstance;
-    private static QueryBuilder builderInstance;
-    /** 
-     * Creates a new QueryBuilder instance for this java application if no instance exists, or returns
-     * the current instance.
-     * 
-     * @param dbInstance the database model to use to prepare statements
-     * @return this application's QueryBuilder instance
-     */
-    public static QueryBuilder getInstance(DatabaseConnectionModel dbInstance) {
-        if (builderInstance == null) {
-            builderInstance = new QueryBuilder(dbInstance);
-        }
-        return builderInstance;
+    public CompiledQuery compile(String... generatedKeys) {
+        return new CompiledQuery(query.toString(), parameters, generatedKeys);
     }
 
     /** 
@@ -212,12 +298,4 @@ public class QueryBuilder implements IQuery {
     public String toString() {
         return query.toString();
     }
-
-    /**
-     * The constructor for this QueryBuilder instance.
-     * @param dbInstance
-     */
-    private QueryBuilder(DatabaseConnectionModel dbInstance) {
-        this.dbInstance = dbInstance;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+package Components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the building and relationship types stored in the database.
+ *
+ * Each type is assigned a dense ordinal (its position in the order the types were read), so types can be looked up by
+ * name or by ordinal in constant time and stored as small integers instead of strings. Type names are interned, so
+ * every entity referring to a type shares the same string.
+ *
+ * Sets of relationship types are represented as masks with the bit of each type's ordinal set, so there may be at most
+ * {@value #MAX_ROLE_TYPES} relationship types.
+ *
+ * A snapshot is never modified; a refreshed snapshot with a higher version replaces it instead.
+ */
+public class TypeRegistry {
+    /**
+     * Returned when a type is not in the registry.
+     */
+    public static final int UNKNOWN = -1;
+    /**
+     * The amount of bits in a role mask.
+     */
+    public static final int MAX_ROLE_TYPES = Long.SIZE;
+
+    private final long version;
+    private final List<String> buildingTypes, roleTypes;
+    private final Map<String, Integer> buildingOrdinals, roleOrdinals;
+    /**
+     * The maximum amount of participants allowed per project for each role, by ordinal.
+     */
+    private final int[] maxAllowed;
+
+    /**
+     * The constructor for TypeRegistry.
+     *
+     * @param version       the version of this snapshot.
+     * @param buildingTypes the building types, in ordinal order.
+     * @param roleTypes     the relationship types, in ordinal order.
+     * @param maxAllowed    the maximum amount of participants allowed per project for each relationship type.
+     * @throws IllegalArgumentException if a type is repeated, {@code maxAllowed} does not match {@code roleTypes} or
+     *                                  there are more than {@value #MAX_ROLE_TYPES} relationship types.
+     */
+    public TypeRegistry(long version, List<String> buildingTypes, List<String> roleTypes, int[] maxAllowed) {
+        if (roleTypes.size() != maxAllowed.length) {
+            throw new IllegalArgumentException("Each relationship type needs exactly one quota.");
+        }
+        if (roleTypes.size() > MAX_ROLE_TYPES) {
+            throw new IllegalArgumentException("At most " + MAX_ROLE_TYPES + " relationship types are supported.");
+        }
+        this.version = version;
+        this.buildingTypes = intern(buildingTypes);
+        this.roleTypes = intern(roleTypes);
+        this.buildingOrdinals = ordinals(this.buildingTypes);
+        this.roleOrdinals = ordinals(this.roleTypes);
+        this.maxAllowed = maxAllowed.clone();
+    }
+
+    /**
+     * @return an unmodifiable copy of {@code types} with each type interned.
+     */
+    private static List<String> intern(List<String> types) {
+        List<String> interned = new ArrayList<>(types.size());
+        for (String type : types) {
+            interned.add(type.intern());
+        }
+        return Collections.unmodifiableList(interned);
+    }
+
+    /**
+     * @return the ordinal of each of {@code types}, keyed by type.
+     */
+    private static Map<String, Integer> ordinals(List<String> types) {
+        Map<String, Integer> ordinals = new HashMap<>(types.size() * 2);
+        for (int i = 0; i < types.size(); i++) {
+            if (ordinals.put(types.get(i), i) != null) {
+                throw new IllegalArgumentException("The type " + types.get(i) + " is repeated.");
+            }
+        }
+        return Collections.unmodifiableMap(ordinals);
+    }
+
+    /**
+     * @return the version of this snapshot; higher versions replace lower ones.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the building types, in ordinal order.
+     */
+    public List<String> getBuildingTypes() {
+        return buildingTypes;
+    }
+
+    /**
+     * @param ordinal the ordinal of the building type.
+     * @return the building type with {@code ordinal}.
+     * @throws IndexOutOfBoundsException if no building type has {@code ordinal}.
+     */
+    public String getBuildingType(int ordinal) throws IndexOutOfBoundsException {
+        return buildingTypes.get(ordinal);
+    }
+
+    /**
+     * @param buildingType the name of the building type.
+     * @return the ordinal of {@code buildingType}; {@link #UNKNOWN} if it does not exist.
+     */
+    public int getBuildingOrdinal(String buildingType) {
+        return buildingOrdinals.getOrDefault(buildingType, UNKNOWN);
+    }
+
+    /**
+     * @return the relationship types, in ordinal order.
+     */
+    public List<String> getRoleTypes() {
+        return roleTypes;
+    }
+
+    /**
+     * @param ordinal the ordinal of the relationship type.
+     * @return the relationship type with {@code ordinal}.
+     * @throws IndexOutOfBoundsException if no relationship type has {@code ordinal}.
+     */
+    public String getRoleType(int ordinal) throws IndexOutOfBoundsException {
+        return roleTypes.get(ordinal);
+    }
+
+    /**
+     * @param roleType the name of the relationship type.
+     * @return the ordinal of {@code roleType}; {@link #UNKNOWN} if it does not exist.
+     */
+    public int getRoleOrdinal(String roleType) {
+        return roleOrdinals.getOrDefault(roleType, UNKNOWN);
+    }
+
+    /**
+     * @param ordinal the ordinal of the relationship type.
+     * @return the maximum amount of participants a project may have in the role.
+     * @throws IndexOutOfBoundsException if no relationship type has {@code ordinal}.
+     */
+    public int getMaxAllowed(int ordinal) throws IndexOutOfBoundsException {
+        return maxAllowed[ordinal];
+    }
+
+    /**
+     * @return the mask of every relationship type.
+     */
+    public long getAllRoles() {
+        return roleTypes.size() == MAX_ROLE_TYPES ? -1L : (1L << roleTypes.size()) - 1;
+    }
+
+    /**
+     * @param roles the names of relationship types; unknown names are ignored.
+     * @return the mask of {@code roles}.
+     */
+    public long getRoleMask(Iterable<String> roles) {
+        long mask = 0;
+        for (String role : roles) {
+            int ordinal = getRoleOrdinal(role);
+            if (ordinal != UNKNOWN) {
+                mask |= 1L << ordinal;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask a mask of relationship types.
+     * @return the relationship types in {@code mask}, in ordinal order.
+     */
+    public List<String> getRoleTypes(long mask) {
+        List<String> roles = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask & getAllRoles(); remaining != 0; remaining &= remaining - 1) {
+            roles.add(roleTypes.get(Long.numberOfTrailingZeros(remaining)));
+        }
+        return roles;
+    }
+
+    /**
+     * @param other the registry to compare to.
+     * @return whether {@code other} holds the same types and quotas, regardless of version.
+     */
+    public boolean hasSameTypes(TypeRegistry other) {
+        return buildingTypes.equals(other.buildingTypes)
+                && roleTypes.equals(other.roleTypes)
+                && Arrays.equals(maxAllowed, other.maxAllowed);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("version=%d, building types=%d, relationship types=%d",
+                version, buildingTypes.size(), roleTypes.size());
+    }
+}
@@ -1,35 +1,58 @@
 package Controllers;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EmptyStackException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
+import Components.TypeRegistry;
+import Components.Export.ViewExporter;
+import Components.Import.ImportPipeline;
+import Components.Import.ImportSummary;
+import Entities.Address;
 import Entities.Entity;
 import Entities.Person;
 import Entities.Project;
-import Factories.ProjectFactory;
+import Entities.RoleCoverage;
 import Interfaces.IQuery;
-import Models.EntityModel.EntityModel;
+import Factories.AddressFactory;
+import Factories.PersonFactory;
+import Factories.ProjectFactory;
+import Models.EntityModel.AsyncEntityModel;
+import Models.EntityModel.EntityStorage;
+import Models.EntityModel.UnitOfWork;
 
 /**
  * Controls the conversion of database results into {@link Entity}.
  */
 public class EntityController implements IQuery {
     /**
-     * Stores all the allowed {@code building} types.
+     * The building and relationship types currently stored in the database.
      */
-    private static ArrayList<String> buildingTypes;
+    private static final AtomicReference<TypeRegistry> types = new AtomicReference<>();
     /**
      * The instance of this EntityController.
      */
     private static EntityController entityControllerInstance;
     /**
-     * This application's {@link EntityModel} instance.
+     * The storage of this application's entities.
      */
-    private static EntityModel entityModel;
+    private static EntityStorage entityModel;
+    /**
+     * Runs independent {@link #entityModel} lookups concurrently.
+     */
+    private static AsyncEntityModel asyncModel;
     /**
      * This EntityModel's {@link ParticipantController} instance.
      */
@@ -42,18 +65,6 @@ public class EntityController implements IQuery {
         return participantController;
     }
 
-    /**
-     * Adds a building type to {@link #buildingTypes}.
-     * 
-     * @param buildingType the new building type to be added.
-     */
-    public static void addBuildingType(String buildingType) {
-        if (buildingTypes == null) {
-            buildingTypes = new ArrayList<>();
-        }
-        buildingTypes.add(buildingType);
-    }
-
     /**
      * This EntityController's {@link Stack} of {@link Entity} objects.
      */
@@ -106,19 +117,26 @@ public class EntityController implements IQuery {
         return entityStack.size();
     }
 
+    /**
+     * @return the current snapshot of the building and relationship types.
+     */
+    public static TypeRegistry getTypes() {
+        return types.get();
+    }
+
     /**
      * @return the list of building types.
      */
-    public static ArrayList<String> getBuildingTypes() {
-        return buildingTypes;
+    public static List<String> getBuildingTypes() {
+        return types.get().getBuildingTypes();
     }
 
     /**
      * @param index of the building type to get.
-     * @return the building type at {@code index} in {@link #buildingTypes}.
+     * @return the building type at {@code index} in the list of building types.
      */
     public static String getBuildingType(int index) throws IndexOutOfBoundsException {
-        return buildingTypes.get(index);
+        return types.get().getBuildingType(index);
     }
 
     /**
@@ -136,27 +154,59 @@ public class EntityController implements IQuery {
      * Creates a new row in the database with values {@code projectName},
      * {@code projectType}, and {@code erfNumber}.
      * 
-     * @param projectName the name of the project.
-     * @param projectType the type of the project.
-     * @param erfNumber   the ERF number of the project.
-     * @return true if the insert was successful, false if not successful.
+     * @param projectName    the name of the project.
+     * @param projectType    the type of the project.
+     * @param erfNumber      the ERF number of the project.
+     * @param projectAddress the full address linked to {@code erfNumber}.
+     * @return the new project.
      * @throws SQLException if an error occurs while writing the data to the
      *                      database.
      */
-    public int registerProject(String projectName, String projectType, int erfNumber)
+    public Project registerProject(String projectName, String projectType, int erfNumber, String projectAddress)
             throws SQLException {
-        PreparedStatement registration = entityModel.registerProject(projectName, projectType, erfNumber);
-        int affectedRows = registration.executeUpdate();
-        if (affectedRows == 0) {
-            throw new SQLException(INSERT_FAILURE_MESSAGE);
-        }
-        try (ResultSet generatedKeys = registration.getGeneratedKeys()) {
-            if (generatedKeys.next()) {
-                return generatedKeys.getInt(1);
-            } else {
-                throw new SQLException(INSERT_FAILURE_MESSAGE);
-            }
-        }
+        return entityModel.registerProject(projectName, projectType, erfNumber, projectAddress);
+    }
+
+    /**
+     * Begins a unit of work on the current thread, so that the statements of a command are committed together.
+     * 
+     * @param operation the type of command, which determines the isolation level of the unit.
+     * @return the unit of work, to be used with try-with-resources.
+     * @throws SQLException if a database access error occurs.
+     */
+    public UnitOfWork beginWork(UnitOfWork.Operation operation) throws SQLException {
+        return entityModel.beginWork(operation);
+    }
+
+    /**
+     * Writes the progress, account and contact detail updates which the storage is still holding back, e.g. before
+     * an invoice is printed or the user leaves a menu.
+     * 
+     * @throws SQLException if some updates could not be written.
+     */
+    public void flushWrites() throws SQLException {
+        entityModel.flushWrites();
+    }
+
+    /**
+     * Creates a project, with its customer and other participants, in a single call to the database.
+     * 
+     * @param projectName    the name of the project; empty to name it after its customer.
+     * @param projectType    the building type of the project.
+     * @param erfNumber      the ERF number of the project.
+     * @param projectAddress the full address linked to {@code erfNumber}.
+     * @param dueDate        the date the project is due.
+     * @param customer       the customer of the project; numbered once registered if they are new.
+     * @param roster         the other participants of the project, keyed by role.
+     * @param newAddresses   the addresses entered for the project and its customer which are not registered yet.
+     * @return the new project.
+     * @throws SQLException if the project could not be created, in which case nothing is written.
+     */
+    public Project createProject(String projectName, String projectType, int erfNumber, String projectAddress,
+            String dueDate, Person customer, Map<String, Person> roster, Collection<Address> newAddresses)
+            throws SQLException {
+        return entityModel.createProject(projectName, projectType, erfNumber, projectAddress, dueDate, customer,
+                roster, newAddresses);
     }
 
     /**
@@ -166,11 +216,7 @@ public class EntityController implements IQuery {
      * @throws SQLException if an error occurs while accessing the database.
      */
     public String findAddress(int erfNumber) throws SQLException {
-        ResultSet results = entityModel.getAddress(erfNumber);
-        if (results != null) {
-            return results.getString("full_address");
-        }
-        return null;
+        return entityModel.getAddress(erfNumber);
     }
 
     /**
@@ -182,15 +228,14 @@ public class EntityController implements IQuery {
      * @param city          the city.
      * @param province      the province.
      * @param postCode      the post code.
-     * @return true if the registration is successful, false if
-     *         not.
+     * @return the amount of rows inserted.
      * @throws SQLException if a database error occurs.
      */
     public int registerAddress(
             int erfNumber, String streetAddress, String suburb,
             String city, String province, int postCode) throws SQLException {
         return entityModel.registerAddress(erfNumber, streetAddress, suburb, city, province,
-                postCode).executeUpdate();
+                postCode);
     }
 
     /**
@@ -209,30 +254,53 @@ public class EntityController implements IQuery {
      * @param phoneNumber  the phone number of the person being registered
      * @param erfNumber    the erf number of the address of the person being
      *                     registered
+     * @param physicalAddress the full address linked to {@code erfNumber}.
      * @return a new {@link Person} object with the given properties.
      * @throws SQLException if a database error occurs.
      */
     public Person registerPerson(String firstName, String lastName, String emailAddress, String phoneNumber,
-            int erfNumber)
+            int erfNumber, String physicalAddress)
             throws SQLException {
-        entityModel.registerPerson(firstName, lastName, emailAddress, phoneNumber, erfNumber);
-        Person person = participantController.findPerson(phoneNumber);
-        return person;
+        return entityModel.registerPerson(firstName, lastName, emailAddress, phoneNumber, erfNumber,
+                physicalAddress);
     }
 
     /**
      * Queries the database {@code table} for all projects.
      * 
      * @param table the table from which to query the project data.
-     * @return a {@link ResultSet} if no projects exist.
+     * @return the projects in {@code table}; empty if no projects exist.
      * @throws SQLException if a database error occurs
      */
-    public ResultSet getProjects(String table) throws SQLException {
-        ResultSet results = entityModel.getProjects(table);
-        if (results == null) {
-            return null;
-        }
-        return results;
+    public List<Project> getProjects(String table) throws SQLException {
+        return entityModel.getProjects(table);
+    }
+
+    /**
+     * Streams all projects from the database {@code table} without loading them all into memory.
+     * 
+     * @param table the table from which to query the project data.
+     * @return the projects in {@code table}; must be closed once consumed.
+     * @throws SQLException if a database error occurs
+     */
+    public Stream<Project> streamProjects(String table) throws SQLException {
+        return entityModel.streamProjects(table);
+    }
+
+    /**
+     * Gets the page of projects from the database {@code table} adjacent to {@code projectId}.
+     * 
+     * @param table     the table from which to query the project data.
+     * @param projectId the last project_id of the previous page if {@code forward}; otherwise the first project_id
+     *                  of the next page.
+     * @param pageSize  the maximum amount of projects in the page.
+     * @param forward   whether to get the page after {@code projectId} rather than the page before it.
+     * @return the projects in the page ordered by project_id; empty if there are none.
+     * @throws SQLException if a database error occurs
+     */
+    public List<Project> getProjectPage(String table, int projectId, int pageSize, boolean forward)
+            throws SQLException {
+        return entityModel.getProjectPage(table, projectId, pageSize, forward);
     }
 
     /**
@@ -242,13 +310,14 @@ public class EntityController implements IQuery {
      * @throws SQLException if a database error occurs.
      */
     public Project getProject(String projectName) throws SQLException {
-        ResultSet results = entityModel.selectProject(projectName);
-        if (results == null) {
+        Project project = entityModel.selectProject(projectName);
+        if (project == null) {
             return null;
         }
-        selectedProject = ProjectFactory.fromResults(results);
+        selectedProject = project;
         participantController = ParticipantController.getInstance(entityModel);
-        participantController.setParticipants(entityModel.getParticipants(selectedProject.getNumber()));
+        participantController.setParticipants(selectedProject.getNumber(),
+                entityModel.getParticipants(selectedProject.getNumber()));
         return selectedProject;
     }
 
@@ -259,13 +328,16 @@ public class EntityController implements IQuery {
      * @throws SQLException if a database error occurs.
      */
     public Project getProject(int projectId) throws SQLException {
-        ResultSet results = entityModel.selectProject(projectId);
-        if (results == null) {
+        // The participants only depend on the id, so they are fetched alongside the project.
+        CompletableFuture<HashMap<String, Person>> participants = asyncModel.getParticipants(projectId);
+        Project project = AsyncEntityModel.await(asyncModel.selectProject(projectId));
+        if (project == null) {
+            participants.cancel(false);
             return null;
         }
-        selectedProject = ProjectFactory.fromResults(results);
+        selectedProject = project;
         participantController = ParticipantController.getInstance(entityModel);
-        participantController.setParticipants(entityModel.getParticipants(selectedProject.getNumber()));
+        participantController.setParticipants(projectId, AsyncEntityModel.await(participants));
         return selectedProject;
     }
 
@@ -292,48 +364,143 @@ public class EntityController implements IQuery {
     }
 
     /**
-     * @return the last id inserted into the database.
-     * @throws SQLException if a database communication error occurs.
+     * Imports the records in the CSV {@code file} into the database. The first line of the file is a header and the
+     * columns are those of {@link AddressFactory#RECORD_COLUMNS}, {@link PersonFactory#RECORD_COLUMNS} or
+     * {@link ProjectFactory#RECORD_COLUMNS} depending on {@code type}.
+     * 
+     * @param type one of {@link #ADDRESS_IMPORT}, {@link #PERSON_IMPORT} or {@link #PROJECT_IMPORT}.
+     * @param file the file to import.
+     * @return the amount of records read, written, rejected and failed, and the time taken.
+     * @throws IllegalArgumentException if {@code type} is not a type of import file.
+     * @throws IOException              if the file cannot be read.
+     * @throws SQLException             if a database error occurs.
+     * @throws InterruptedException     if the import is interrupted.
      */
-    public int getLastInsertId() throws SQLException {
-        return entityModel.getLastInsertId();
+    public ImportSummary importFile(String type, Path file)
+            throws IllegalArgumentException, IOException, SQLException, InterruptedException {
+        int chunkSize = entityModel.getBatchSize(),
+                parserThreads = Runtime.getRuntime().availableProcessors(),
+                queueCapacity = 2 * parserThreads;
+        switch (type) {
+            case ADDRESS_IMPORT:
+                return new ImportPipeline<>(file, AddressFactory::fromRecord, entityModel::registerAddresses,
+                        chunkSize, parserThreads, queueCapacity).run();
+            case PERSON_IMPORT:
+                return new ImportPipeline<>(file, PersonFactory::fromRecord, entityModel::registerPeople,
+                        chunkSize, parserThreads, queueCapacity).run();
+            case PROJECT_IMPORT:
+                TypeRegistry knownTypes = refreshTypes();
+                return new ImportPipeline<>(file,
+                        fields -> ProjectFactory.fromRecord(fields, knownTypes),
+                        entityModel::registerProjects,
+                        chunkSize, parserThreads, queueCapacity).run();
+            default:
+                throw new IllegalArgumentException(IMPORT_TYPE_INVALID_MESSAGE);
+        }
     }
 
     /**
-     * @param model the model to use for queries
+     * Writes every row of {@code view} to {@code file} as it is read from the database.
+     * 
+     * @param view   one of {@link #EXPORTABLE_VIEWS}.
+     * @param file   the file to write to; replaced if it exists.
+     * @param format the format to write the rows in.
+     * @param gzip   whether to compress {@code file} with gzip.
+     * @return the amount of rows written.
+     * @throws IllegalArgumentException if {@code view} cannot be exported.
+     * @throws IOException              if the file cannot be written to.
+     * @throws SQLException             if a database error occurs.
+     */
+    public long exportView(String view, Path file, ViewExporter.Format format, boolean gzip)
+            throws IllegalArgumentException, IOException, SQLException {
+        try (ViewExporter exporter = new ViewExporter(file, format, gzip)) {
+            return entityModel.scanView(view, exporter);
+        } catch (UncheckedIOException error) {
+            throw error.getCause();
+        }
+    }
+
+    /**
+     * @return a summary of the statement, person and project cache and key filter statistics.
+     */
+    public String getCacheStatistics() {
+        return new StringBuilder()
+                .append("Statement cache: ").append(entityModel.getStatementCacheStatistics()).append('\n')
+                .append("Person cache:    ").append(entityModel.getPersonCacheStatistics()).append('\n')
+                .append("Project cache:   ").append(entityModel.getProjectCacheStatistics()).append('\n')
+                .append("Key filters:     ").append(entityModel.getKeyFilterStatistics())
+                .toString();
+    }
+
+    /**
+     * @param model the storage to use for queries
      * @return this EntityManager instance
      * @throws SQLException if a database error occurs.
      */
-    public static EntityController getInstance(EntityModel model) throws SQLException {
+    public static EntityController getInstance(EntityStorage model) throws SQLException {
         if (entityControllerInstance == null) {
-            entityModel = model;            
-            loadTypes();
             entityModel = model;
+            asyncModel = AsyncEntityModel.getInstance(model);
+            refreshTypes();
+            entityModel.loadKeyFilters();
             entityControllerInstance = new EntityController();
         }
         return entityControllerInstance;
     }
 
     /**
-     * Loads all building and relationship types to the application from their respective tables.
+     * Finds every project without a participant in each role, using one aggregated query for all projects.
      * 
-     * @throws SQLException if a database communication error occurs.
+     * @param role the only role to report on; {@code null} to report on every role.
+     * @return the projects missing each role, keyed by role in ordinal order; roles which no project is missing are
+     *         left out.
+     * @throws SQLException             if a database error occurs.
+     * @throws IllegalArgumentException if {@code role} is not a relationship type.
      */
-    private static void loadTypes() throws SQLException{
-        ResultSet results = entityModel.loadTypes();
-        if (results == null) {
-            throw new SQLException(NO_TYPES);
+    public Map<String, List<RoleCoverage>> getMissingRoles(String role) throws SQLException {
+        TypeRegistry registry = types.get();
+        long reportedRoles = registry.getAllRoles();
+        if (role != null) {
+            int ordinal = registry.getRoleOrdinal(role);
+            if (ordinal == TypeRegistry.UNKNOWN) {
+                throw new IllegalArgumentException(String.format(ROLE_INVALID_MESSAGE, role));
+            }
+            reportedRoles = 1L << ordinal;
         }
-        do {
-            String buildingType = results.getString("building_type");
-            String roleType = results.getString("relationship_type");
-            if (buildingType != null) {
-                addBuildingType(buildingType);
+        Map<String, List<RoleCoverage>> missingRoles = new LinkedHashMap<>();
+        for (RoleCoverage coverage : entityModel.getRoleCoverage(registry)) {
+            for (String missingRole : registry.getRoleTypes(reportedRoles & ~coverage.getRoles())) {
+                missingRoles.computeIfAbsent(missingRole, key -> new ArrayList<>()).add(coverage);
             }
-            if (roleType != null) {
-                ParticipantController.addRoleType(roleType);
+        }
+        // Order the report by role rather than by the first project missing each role.
+        Map<String, List<RoleCoverage>> report = new LinkedHashMap<>();
+        for (String missingRole : registry.getRoleTypes(reportedRoles)) {
+            if (missingRoles.containsKey(missingRole)) {
+                report.put(missingRole, missingRoles.get(missingRole));
             }
-        } while (results.next());
+        }
+        return report;
+    }
+
+    /**
+     * Reloads the building and relationship types from their respective tables, replacing the current snapshot if
+     * the types have changed since it was loaded.
+     * 
+     * @return the snapshot in use once the types have been reloaded.
+     * @throws SQLException if a database communication error occurs or no types are defined.
+     */
+    public static TypeRegistry refreshTypes() throws SQLException {
+        TypeRegistry current = types.get();
+        TypeRegistry loaded = entityModel.loadTypes(current == null ? 1 : current.getVersion() + 1);
+        if (loaded.getBuildingTypes().isEmpty() && loaded.getRoleTypes().isEmpty()) {
+            throw new SQLException(NO_TYPES);
+        }
+        if (current != null && current.hasSameTypes(loaded)) {
+            return current;
+        }
+        // A concurrent refresh which already replaced current loaded the types at least as recently.
+        return types.compareAndSet(current, loaded) ? loaded : types.get();
     }
 
     private EntityController() {
@@ -1,21 +1,29 @@
 package Controllers;
 
 import java.io.IOException;
-import java.sql.ResultSet;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import Components.Input;
+import Components.Export.ViewExporter;
 
 import Components.Menu.Menu;
 import Components.Menu.Menu.InvalidSelectionException;
+import Entities.Address;
 import Entities.EntityDecorator;
 import Entities.Person;
 import Entities.Project;
+import Factories.PersonFactory;
+import Entities.RoleCoverage;
 import Interfaces.IMenu;
 import Interfaces.IQuery;
+import Models.EntityModel.UnitOfWork;
 import Utilities.InputUtils;
 import Utilities.OutputUtils;
 
@@ -39,6 +47,18 @@ public class InputController implements IQuery, IMenu {
      * The controller used in this application to manage project participants.
      */
     private ParticipantController participantController;
+    /**
+     * The project view being paged through in the {@link #PAGE_MENU}.
+     */
+    private String pagedView;
+    /**
+     * The maximum amount of projects shown per page in the {@link #PAGE_MENU}.
+     */
+    private int pageSize;
+    /**
+     * The project_id of the first and last projects on the page currently shown in the {@link #PAGE_MENU}.
+     */
+    private int firstPagedId, lastPagedId;
 
     /**
      * Provides the user with various options to interact with the application.
@@ -57,8 +77,10 @@ public class InputController implements IQuery, IMenu {
         switch (command) {
             case "show":
                 String projectView = PROJECTS_VIEW;
-                if (parameter != null) {
-                    switch (parameter) {
+                Integer pageSize = null;
+                String[] options = currentMenu.getSelected();
+                for (int i = 1; i < options.length; i++) {
+                    switch (options[i].toLowerCase()) {
                         case "-i":
                             projectView = INCOMPLETE_PROJECTS_VIEW;
                             break;
@@ -68,32 +90,58 @@ public class InputController implements IQuery, IMenu {
                         case "-f":
                             projectView = FINALIZED_PROJECTS_VIEW;
                             break;
+                        case "--page":
+                            pageSize = DEFAULT_PAGE_SIZE;
+                            if (i + 1 < options.length && options[i + 1].matches("^\\d+$")) {
+                                pageSize = Integer.parseInt(options[++i]);
+                            }
+                            break;
                     }
                 }
-                ResultSet results = entityController.getProjects(projectView);
-                if (results == null) {
-                    OutputUtils.printCentered("No projects were found matching the description.");
-                } else {
-                    do {
-                        Project currentProject = new Project(
-                                results.getInt("project_id"),
-                                results.getString("project_name"),
-                                results.getString("project_address"),
-                                results.getString("project_type"))
-                                .setErfNumber(results.getInt("erf_number"))
-                                .setCost(results.getInt("amount_due"))
-                                .setPaid(results.getInt("amount_paid"))
-                                .setDueDate(results.getString("date_due"));
-                        String dateFinalized = results.getString("date_finalized");
-                        if (dateFinalized == null) {
-                            dateFinalized = Project.NOT_SET;
-                        } else {
-                            currentProject.setDateFinalized(dateFinalized);
-                        }
-                        System.out.println(EntityDecorator.decorate(currentProject));
-                    } while (results.next());
+                if (pageSize != null) {
+                    if (pageSize < 1) {
+                        throw new IllegalArgumentException(PAGE_SIZE_INVALID_MESSAGE);
+                    }
+                    pagedView = projectView;
+                    this.pageSize = pageSize;
+                    if (showPage(0, true)) {
+                        menuController.addMenu(PAGE_MENU);
+                    }
+                    break;
+                }
+                long projectsShown = 0;
+                try (Stream<Project> projects = entityController.streamProjects(projectView)) {
+                    Iterator<Project> iterator = projects.iterator();
+                    while (iterator.hasNext()) {
+                        System.out.println(EntityDecorator.decorate(iterator.next()));
+                        projectsShown++;
+                    }
+                }
+                if (projectsShown == 0) {
+                    OutputUtils.printCentered(NO_PROJECTS_FOUND_MESSAGE);
+                }
+                break;
+            case "import":
+                String[] arguments = currentMenu.getSelected();
+                if (arguments.length < 3) {
+                    throw new IllegalArgumentException(IMPORT_USAGE_MESSAGE);
+                }
+                try {
+                    System.out.println(entityController.importFile(arguments[1].toLowerCase(), Path.of(arguments[2])));
+                } catch (InterruptedException error) {
+                    Thread.currentThread().interrupt();
+                    OutputUtils.printWarning(error.getLocalizedMessage());
                 }
                 break;
+            case "export":
+                exportView(currentMenu.getSelected());
+                break;
+            case "stats":
+                System.out.println(entityController.getCacheStatistics());
+                break;
+            case "missing":
+                showMissingRoles(currentMenu.getSelected());
+                break;
             case "select":
                 try {
                     Project project;
@@ -124,31 +172,139 @@ public class InputController implements IQuery, IMenu {
                 String phoneNumber = Input.expect("Customer phone number")
                         .toString(PHONE_NUMBER_REGEX, PHONE_NUMBER_LIMIT_EXPLANATION);
 
-                Person customer = checkPersonDetails("customer", phoneNumber);
+                // Nothing is written until the project is created, so the new addresses are kept until then.
+                Map<Integer, Address> newAddresses = new HashMap<>();
+                Person customer = readPersonDetails(CUSTOMER_ROLE, phoneNumber, newAddresses);
                 projectName = Input.query("Project Name").toString();
                 int erfNumber = Input.expect("Project ERF Number").toInteger();
-                entityController.findAddress(erfNumber);
-                String projectType;
-                while (true) {
-                    projectType = InputUtils.selectFromList(EntityController.getBuildingTypes());
-                    break;
-                }
+                String projectAddress = readAddress(erfNumber, newAddresses);
+                String projectType = InputUtils.selectFromList(EntityController.getBuildingTypes());
+                System.out.println("Due date:");
+                String dueDate = InputUtils.getDate(null);
+                HashMap<String, Person> roster = readRoster();
 
-                projectId = entityController.registerProject(
+                Project project = entityController.createProject(
                         projectName,
                         projectType,
-                        erfNumber);
-                if (projectId == 0) {
-                    OutputUtils.printCentered(String.format(INSERT_FAILURE_MESSAGE, "Project"));
-                } else {
-                    participantController.registerParticipant("customer", customer.getNumber(),
-                            projectId);
-                    OutputUtils.printCentered(String.format(INSERT_SUCCESS_MESSAGE, "Project"));
+                        erfNumber,
+                        projectAddress,
+                        dueDate,
+                        customer,
+                        roster,
+                        newAddresses.values());
+                roster.put(CUSTOMER_ROLE, customer);
+                participantController.setParticipants(project.getNumber(), roster);
+                OutputUtils.printCentered(String.format(INSERT_SUCCESS_MESSAGE, "Project"));
+                break;
+        }
+    }
+
+    /**
+     * Exports a view using the arguments of {@code export {view} {file} [--json] [--gzip]}. The format and
+     * compression are also inferred from a {@code .jsonl} or {@code .gz} extension on the file name.
+     * 
+     * @param arguments the command and its arguments as entered by the user.
+     * @throws IOException  if the file cannot be written to.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void exportView(String[] arguments) throws IOException, SQLException {
+        if (arguments.length < 3) {
+            throw new IllegalArgumentException(EXPORT_USAGE_MESSAGE);
+        }
+        String view = arguments[1].toLowerCase(), fileName = arguments[2];
+        String lowerCaseName = fileName.toLowerCase();
+        boolean gzip = lowerCaseName.endsWith(".gz"),
+                json = lowerCaseName.endsWith(".jsonl") || lowerCaseName.endsWith(".jsonl.gz");
+        for (int i = 3; i < arguments.length; i++) {
+            switch (arguments[i].toLowerCase()) {
+                case "--json":
+                    json = true;
+                    break;
+                case "--gzip":
+                    gzip = true;
+                    break;
+            }
+        }
+        long startTime = System.nanoTime();
+        long rows = entityController.exportView(view, Path.of(fileName),
+                json ? ViewExporter.Format.JSON_LINES : ViewExporter.Format.CSV, gzip);
+        OutputUtils.printCentered(String.format(EXPORT_SUCCESS_MESSAGE, rows, view, fileName,
+                (System.nanoTime() - startTime) / 1e9));
+    }
+
+    /**
+     * Lists the projects without a participant in each role, or only in the role given after the {@code missing}
+     * command.
+     * 
+     * @param arguments the {@code missing} command followed by an optional role, which may contain spaces.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void showMissingRoles(String[] arguments) throws SQLException {
+        String role = arguments.length < 2
+                ? null
+                : String.join(" ", List.of(arguments).subList(1, arguments.length)).toLowerCase();
+        Map<String, List<RoleCoverage>> missingRoles = entityController.getMissingRoles(role);
+        if (missingRoles.isEmpty()) {
+            OutputUtils.printCentered(NO_MISSING_ROLES_MESSAGE);
+            return;
+        }
+        missingRoles.forEach((missingRole, projects) -> {
+            OutputUtils.printCentered(String.format("%s (%d)", missingRole.toUpperCase(), projects.size()));
+            projects.forEach(project -> System.out.printf("%6d %s\n", project.getProjectId(),
+                    project.getProjectName()));
+        });
+    }
+
+    /**
+     * Provides the user with options to move between the pages of the project view
+     * selected with {@code show --page}.
+     * 
+     * @throws SQLException if a database access error occurs.
+     */
+    public void pageMenuInteraction() throws SQLException {
+        Menu currentMenu = menuController.getCurrent();
+        String command = currentMenu.getCommand();
+        switch (command) {
+            case "next":
+                if (!showPage(lastPagedId, true)) {
+                    OutputUtils.printCentered(LAST_PAGE_MESSAGE);
+                }
+                break;
+            case "prev":
+                if (!showPage(firstPagedId, false)) {
+                    OutputUtils.printCentered(FIRST_PAGE_MESSAGE);
                 }
                 break;
         }
     }
 
+    /**
+     * Prints the page of {@link #pagedView} adjacent to {@code projectId}, keeping
+     * track of its first and last project_id so that the neighbouring pages can be
+     * found from them.
+     * 
+     * @param projectId the project_id at the boundary of the page currently shown.
+     * @param forward   whether to show the page after {@code projectId} rather than
+     *                  the page before it.
+     * @return {@code true} if the page was shown; {@code false} if it was empty.
+     * @throws SQLException if a database access error occurs.
+     */
+    private boolean showPage(int projectId, boolean forward) throws SQLException {
+        List<Project> page = entityController.getProjectPage(pagedView, projectId, pageSize, forward);
+        if (page.isEmpty()) {
+            if (projectId == 0) {
+                OutputUtils.printCentered(NO_PROJECTS_FOUND_MESSAGE);
+            }
+            return false;
+        }
+        for (Project currentProject : page) {
+            System.out.println(EntityDecorator.decorate(currentProject));
+        }
+        firstPagedId = page.get(0).getNumber();
+        lastPagedId = page.get(page.size() - 1).getNumber();
+        return true;
+    }
+
     /**
      * Provides the user with options to view and modify various aspects of the
      * selected project.
@@ -218,20 +374,29 @@ public class InputController implements IQuery, IMenu {
         String command = currentMenu.getCommand(),
                 parameter = currentMenu.getParameter(0);
         Person selectedParticipant = participantController.getSelectedParticipant();
+        String phoneNumber = selectedParticipant.getPhoneNumber(),
+                emailAddress = selectedParticipant.getEmailAddress();
         switch (command) {
             case "view":
                 System.out.println(EntityDecorator.decorate(entityController.peekInStack()));
-                break;
+                return;
             case "email":
-                selectedParticipant.setPhoneNumber(InputUtils.getString(parameter, "Email Address"));
+                selectedParticipant.setEmailAddress(InputUtils.getString(parameter, "Email Address"));
                 break;
             case "phone":
                 selectedParticipant.setPhoneNumber(InputUtils.getString(parameter, "Phone Number"));
                 break;
+            default:
+                return;
         }
-        try {
-            participantController.updateContactDetails();
+        try (UnitOfWork work = entityController.beginWork(UnitOfWork.Operation.CONTACT_DETAILS)) {
+            if (!participantController.updateContactDetails()) {
+                throw new SQLException(UPDATE_FAILURE_MESSAGE);
+            }
+            work.commit();
         } catch (SQLException error) {
+            // The selected person keeps the details which are stored.
+            selectedParticipant.setPhoneNumber(phoneNumber).setEmailAddress(emailAddress);
             System.out.println("An error occurred while updating the database.");
             System.out.println(error);
         }
@@ -258,11 +423,13 @@ public class InputController implements IQuery, IMenu {
                 selectedProject.setPaid(InputUtils.getDouble(parameter, "Amount paid"));
                 break;
         }
-        if (!entityController.setSelectedProject(selectedProject).updateAccount()) {
-            throw new SQLException(UPDATE_FAILURE_MESSAGE);
-        } else {
-            OutputUtils.printCentered(UPDATE_SUCCESS_MESSAGE);
+        try (UnitOfWork work = entityController.beginWork(UnitOfWork.Operation.ACCOUNT)) {
+            if (!entityController.setSelectedProject(selectedProject).updateAccount()) {
+                throw new SQLException(UPDATE_FAILURE_MESSAGE);
+            }
+            work.commit();
         }
+        OutputUtils.printCentered(UPDATE_SUCCESS_MESSAGE);
     }
 
     /**
@@ -288,13 +455,21 @@ public class InputController implements IQuery, IMenu {
                 break;
             case "finalize":
                 if (selectedProject.getCost() != selectedProject.getPaid()) {
+                    // The invoice must show the amounts which are stored, not those still being held back.
+                    entityController.flushWrites();
                     printInvoice();
                 } else {
                     selectedProject.markFinalized();
                 }
                 break;
         }
-        entityController.setSelectedProject(selectedProject).updateProgress();
+        try (UnitOfWork work = entityController.beginWork(UnitOfWork.Operation.PROGRESS)) {
+            entityController.setSelectedProject(selectedProject).updateProgress();
+            work.commit();
+        }
+        if (command.equals("finalize")) {
+            entityController.flushWrites();
+        }
     }
 
     private void printInvoice() {
@@ -331,18 +506,23 @@ public class InputController implements IQuery, IMenu {
      */
     private Person checkPersonDetails(String role, String phoneNumber)
             throws IOException, SQLException {
-        Person participant = participantController.findPerson(phoneNumber);
-        if (participant == null) {
-            OutputUtils.printCentered(new StringBuilder().append("Enter the required details for ")
-                    .append(role.toUpperCase()).append(": ").toString());
-            int erfNumber = Input.expect("Address ERF Number").toInteger();
-            verifyAddress(erfNumber);
-            participant = entityController.registerPerson(
-                    Input.expect("First name").toString(),
-                    Input.expect("Last name").toString(),
-                    Input.expect("Email address").toString(),
-                    phoneNumber,
-                    erfNumber);
+        Map<Integer, Address> newAddresses = new HashMap<>();
+        Person participant = readPersonDetails(role, phoneNumber, newAddresses);
+        if (participant.getNumber() == 0) {
+            // The new addresses and the person are committed together.
+            try (UnitOfWork work = entityController.beginWork(UnitOfWork.Operation.REGISTRATION)) {
+                for (Address newAddress : newAddresses.values()) {
+                    registerAddress(newAddress);
+                }
+                participant = entityController.registerPerson(
+                        participant.getFirstName(),
+                        participant.getLastName(),
+                        participant.getEmailAddress(),
+                        participant.getPhoneNumber(),
+                        participant.getErfNumber(),
+                        participant.getAddress());
+                work.commit();
+            }
         }
         participantController.assignPerson(role, participant);
 
@@ -350,29 +530,118 @@ public class InputController implements IQuery, IMenu {
     }
 
     /**
-     * @param entityController the EntityController instance of this application.
-     * @param erfNumber        the ERF number of the address.
-     * @return true if the address exists; false if the address does not exit.
+     * Finds the person with {@code phoneNumber}, prompting the user for their
+     * details if they are not registered yet. Nothing is written to the database.
+     * 
+     * @param role         the role the person is being entered for.
+     * @param phoneNumber  the phone number of the person.
+     * @param newAddresses the addresses entered so far which are not registered
+     *                     yet, keyed by ERF number; the person's address is added
+     *                     if it is new.
+     * @return the registered person, or a new person numbered {@code 0}.
+     * @throws SQLException if a database access error occurs.
+     * @throws IOException  if an I/O error occurs.
+     */
+    private Person readPersonDetails(String role, String phoneNumber, Map<Integer, Address> newAddresses)
+            throws IOException, SQLException {
+        Person participant = participantController.findPerson(phoneNumber);
+        if (participant != null) {
+            return participant;
+        }
+        OutputUtils.printCentered(new StringBuilder().append("Enter the required details for ")
+                .append(role.toUpperCase()).append(": ").toString());
+        int erfNumber = Input.expect("Address ERF Number").toInteger();
+        String physicalAddress = readAddress(erfNumber, newAddresses);
+        String firstName = Input.expect("First name").toString(),
+                lastName = Input.expect("Last name").toString(),
+                emailAddress = Input.expect("Email address").toString();
+        while (participantController.isEmailAddressRegistered(emailAddress)) {
+            System.out.println(EMAIL_ADDRESS_TAKEN_MESSAGE);
+            emailAddress = Input.expect("Email address").toString();
+        }
+        return PersonFactory.fromDetails(0, firstName, lastName, emailAddress, phoneNumber, physicalAddress,
+                erfNumber);
+    }
+
+    /**
+     * Prompts the user for the phone number of a registered person to assign to
+     * each role other than the customer's; roles left blank are skipped.
+     * 
+     * @return the people entered, keyed by role.
      * @throws SQLException if a database access error occurs.
      * @throws IOException  if an I/O error occurs.
      */
-    private static boolean verifyAddress(int erfNumber)
+    private HashMap<String, Person> readRoster() throws IOException, SQLException {
+        HashMap<String, Person> roster = new HashMap<>();
+        for (String role : ParticipantController.getRoleTypes()) {
+            if (CUSTOMER_ROLE.equals(role)) {
+                continue;
+            }
+            String phoneNumber = Input.query(role + " phone number").toString();
+            if (phoneNumber == null || phoneNumber.isEmpty()) {
+                continue;
+            }
+            if (!phoneNumber.matches(PHONE_NUMBER_REGEX)) {
+                OutputUtils.printWarning(PHONE_NUMBER_LIMIT_EXPLANATION);
+                continue;
+            }
+            Person member = participantController.findPerson(phoneNumber);
+            if (member == null) {
+                OutputUtils.printWarning(String.format(PARTICIPANT_NOT_FOUND_MESSAGE, phoneNumber, role));
+            } else {
+                roster.put(role, member);
+            }
+        }
+        return roster;
+    }
+
+    /**
+     * Finds the address with {@code erfNumber}, prompting the user for its details
+     * if it does not exist yet. Nothing is written to the database.
+     * 
+     * @param erfNumber    the ERF number of the address.
+     * @param newAddresses the addresses entered so far which are not registered
+     *                     yet, keyed by ERF number; the address is added if it is
+     *                     new.
+     * @return the full address linked to {@code erfNumber}.
+     * @throws SQLException if a database access error occurs.
+     * @throws IOException  if an I/O error occurs.
+     */
+    private static String readAddress(int erfNumber, Map<Integer, Address> newAddresses)
             throws SQLException, IOException {
+        Address pending = newAddresses.get(erfNumber);
+        if (pending != null) {
+            return pending.toString();
+        }
         String address = entityController.findAddress(erfNumber);
         if (address != null) {
-            return true;
+            return address;
         }
         System.out.println("Address not found in database. Address Details: ");
-        int rowsAffected = entityController.registerAddress(erfNumber,
+        Address newAddress = new Address(erfNumber,
                 Input.expect("Street Address").toString(),
                 Input.expect("Suburb").toString(),
                 Input.expect("City").toString(),
                 Input.expect("Province").toString(),
                 Input.expect("Post code").toInteger());
+        newAddresses.put(erfNumber, newAddress);
+        return newAddress.toString();
+    }
+
+    /**
+     * @param newAddress the address to register.
+     * @throws SQLException if the address could not be registered.
+     */
+    private static void registerAddress(Address newAddress) throws SQLException {
+        int rowsAffected = entityController.registerAddress(newAddress.getErfNumber(),
+                newAddress.getStreetAddress(),
+                newAddress.getSuburb(),
+                newAddress.getCity(),
+                newAddress.getProvince(),
+                newAddress.getPostCode());
         if (rowsAffected == 0) {
             throw new SQLException(ADDRESS_INSERT_FAILURE_MESSAGE);
         }
-        return rowsAffected == 0;
     }
 
     /**
@@ -1,33 +1,25 @@
 package Controllers;
 
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+import Components.TypeRegistry;
 import Entities.Person;
-import Factories.PersonFactory;
-import Models.EntityModel.EntityModel;
+import Interfaces.IQuery;
+import Interfaces.Strings;
+import Models.EntityModel.EntityStorage;
 
 /**
  * Controls interactions related to participants in a project.
  */
 public class ParticipantController {
     private HashMap<String, Person> participants;
-    private static ArrayList<String> roleTypes;
-
     /**
-     * Adds a role type to the list of role types ({@link roleTypes}).
-     * 
-     * @param roleType The role type to add.
+     * The project_id of the project {@link #participants} belong to; {@code -1} if they were not loaded from a project.
      */
-    public static void addRoleType(String roleType) {
-        if (roleTypes == null) {
-            roleTypes = new ArrayList<>();
-        }
-        roleTypes.add(roleType);
-    }
+    private int projectId = -1;
 
     /**
      * The available instance of ParticipantController in this application.
@@ -75,15 +67,15 @@ public class ParticipantController {
         return participants == null || participants.size() == 0;
     }
 
-    private static EntityModel participantModel;
+    private static EntityStorage participantModel;
 
     /**
      * Creates and retrieves a new instance of ParticipantController.
      * 
-     * @param model the model to be used for communicating with the database.
+     * @param model the storage to be used for reading and writing participants.
      * @return the new ParticipantController instance.
      */
-    public static ParticipantController getInstance(EntityModel model) {
+    public static ParticipantController getInstance(EntityStorage model) {
         if (controllerInstance == null) {
             participantModel = model;
         }
@@ -103,18 +95,18 @@ public class ParticipantController {
     /**
      * @return the list of role types.
      */
-    public static ArrayList<String> getRoleTypes() {
-        return roleTypes;
+    public static List<String> getRoleTypes() {
+        return EntityController.getTypes().getRoleTypes();
     }
 
     /**
      * @param index the index to access.
      * @return the {@code role} at {@code index} in the list of role types.
      * @throws IndexOutOfBoundsException if {@code index >} the size of
-     *                                   {@link #roleTypes}.
+     *                                   the list of role types.
      */
     public static String getRoleType(int index) {
-        return roleTypes.get(index);
+        return EntityController.getTypes().getRoleType(index);
     }
 
     /**
@@ -151,33 +143,24 @@ public class ParticipantController {
     }
 
     /**
-     * Gets the list of participants from {@code results} and stores it as a
-     * {@link HashMap}.
+     * Replaces the participants of the selected project with {@code participants}.
      * 
-     * @param results a set of results containing the details for all participants.
-     * @throws SQLException if a Database communication occurs.
+     * @param projectId    the project_id of the selected project.
+     * @param participants the participants of the selected project, keyed by role.
      */
-    public void setParticipants(ResultSet results) throws SQLException {
-        if (participants == null) {
-            participants = new HashMap<>();
-        } if (results == null) {
-            throw new IllegalAccessError("The selected project has no participants.");
-        }
-        do {
-            assignPerson(results.getString("relationship_type"), PersonFactory.fromResultSet(results));
-        } while (results.next());
+    public void setParticipants(int projectId, HashMap<String, Person> participants) {
+        this.projectId = projectId;
+        this.participants = participants;
     }
 
     /**
-     * Finds all {@code roles} in {@link #roleTypes} which are not in
-     * {@link #participants}.
+     * Finds all role types which are not in {@link #participants}.
      * 
-     * @return {@link #roleTypes} with the {@link #participants} keys removed.
+     * @return a new list of the role types with the {@link #participants} keys removed.
      */
     public List<String> getMissingRoles() {
-        List<String> missingRoles = roleTypes;
-        roleTypes.removeIf(role -> participants.containsKey(role));
-        return missingRoles;
+        TypeRegistry types = EntityController.getTypes();
+        return types.getRoleTypes(~types.getRoleMask(participants.keySet()));
     }
 
     private String selectedRole;
@@ -192,16 +175,29 @@ public class ParticipantController {
     /**
      * Inserts the given parameters into the 'participant' table in the database.
      * 
+     * The role is checked against the cached relationship types first, as is its quota if the participants of the
+     * project are loaded, so that an assignment the database would reject is not sent to it.
+     * 
      * @param role the person should be assigned to.
-     * @param personId of the person to be assigned.
-     * @param projectId of the project to which the {@code personId} should be assigned..
-     * @return the result of {@link #getPerson(personId)}
-     * @throws SQLException if a database error occurs
+     * @param person the person to be assigned.
+     * @param projectId of the project to which {@code person} should be assigned.
+     * @return {@code person}.
+     * @throws IllegalArgumentException if {@code role} is not a relationship type.
+     * @throws SQLException if the role is already full in the project or a database error occurs
      */
-    public Person registerParticipant(String role, int personId, int projectId)
+    public Person registerParticipant(String role, Person person, int projectId)
             throws SQLException {
-        participantModel.registerParticipant(projectId, personId, role).executeUpdate();
-        Person person = getPerson(personId);
+        TypeRegistry types = EntityController.getTypes();
+        int ordinal = types.getRoleOrdinal(role);
+        if (ordinal == TypeRegistry.UNKNOWN) {
+            throw new IllegalArgumentException(String.format(Strings.ROLE_INVALID_MESSAGE, role));
+        }
+        // Each role holds at most one participant in the map, so a role in it is full unless more are allowed.
+        if (projectId == this.projectId && participants.containsKey(role) && types.getMaxAllowed(ordinal) <= 1) {
+            throw new SQLException(String.format(IQuery.MAX_RELATIONSHIP_MESSAGE, role, types.getMaxAllowed(ordinal)),
+                    IQuery.QUOTA_SQL_STATE);
+        }
+        participantModel.registerParticipant(projectId, person.getNumber(), role);
         assignPerson(role, person);
         return person;
     }
@@ -215,11 +211,16 @@ public class ParticipantController {
      */
     public Person findPerson(String phoneNumber)
             throws SQLException {
-        ResultSet results = participantModel.selectPerson(phoneNumber);
-        if (results == null) {
-            return null;
-        }
-        return PersonFactory.fromResultSet(results);
+        return participantModel.selectPerson(phoneNumber);
+    }
+
+    /**
+     * @param emailAddress the email address to look for.
+     * @return whether a row in the 'person' table has the given 'email_address' value.
+     * @throws SQLException if a database error occurs.
+     */
+    public boolean isEmailAddressRegistered(String emailAddress) throws SQLException {
+        return participantModel.isEmailAddressRegistered(emailAddress);
     }
 
     /**
@@ -231,12 +232,7 @@ public class ParticipantController {
      */
     public Person getPerson(int personId)
             throws SQLException {
-        ResultSet results = participantModel.selectPerson(personId);
-        if (results == null) {
-            return null;
-        } else {
-            return PersonFactory.fromResultSet(results);
-        }
+        return participantModel.selectPerson(personId);
     }
 
     /**
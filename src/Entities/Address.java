@@ -0,0 +1,78 @@
+package Entities;
+
+/**
+ * Represents a physical address, identified by its ERF number.
+ */
+public class Address {
+    private final int erfNumber, postCode;
+    private final String streetAddress, suburb, city, province;
+
+    /**
+     * Address constructor.
+     * 
+     * @param erfNumber     the ERF number of this address.
+     * @param streetAddress the street address of this address.
+     * @param suburb        the suburb of this address.
+     * @param city          the city of this address.
+     * @param province      the province of this address.
+     * @param postCode      the post code of this address.
+     */
+    public Address(int erfNumber, String streetAddress, String suburb, String city, String province, int postCode) {
+        this.erfNumber = erfNumber;
+        this.streetAddress = streetAddress;
+        this.suburb = suburb;
+        this.city = city;
+        this.province = province;
+        this.postCode = postCode;
+    }
+
+    /**
+     * @return the ERF number of this address.
+     */
+    public int getErfNumber() {
+        return erfNumber;
+    }
+
+    /**
+     * @return the street address of this address.
+     */
+    public String getStreetAddress() {
+        return streetAddress;
+    }
+
+    /**
+     * @return the suburb of this address.
+     */
+    public String getSuburb() {
+        return suburb;
+    }
+
+    /**
+     * @return the city of this address.
+     */
+    public String getCity() {
+        return city;
+    }
+
+    /**
+     * @return the province of this address.
+     */
+    public String getProvince() {
+        return province;
+    }
+
+    /**
+     * @return the post code of this address.
+     */
+    public int getPostCode() {
+        return postCode;
+    }
+
+    /**
+     * @return this address in the same format as the {@code full_address} column of the {@code addresses} view.
+     */
+    @Override
+    public String toString() {
+        return String.join(", ", streetAddress, suburb, city, province, String.valueOf(postCode));
+    }
+}
@@ -0,0 +1,48 @@
+package Entities;
+
+/**
+ * Represents the assignment of a person to a role in a project.
+ */
+public class Participant {
+    private final int projectId, personId;
+    private final String role;
+
+    /**
+     * Participant constructor.
+     * 
+     * @param projectId the project_id of the project.
+     * @param personId  the person_id of the person.
+     * @param role      the role of the person in the project.
+     */
+    public Participant(int projectId, int personId, String role) {
+        this.projectId = projectId;
+        this.personId = personId;
+        this.role = role;
+    }
+
+    /**
+     * @return the project_id of the project.
+     */
+    public int getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * @return the person_id of the person.
+     */
+    public int getPersonId() {
+        return personId;
+    }
+
+    /**
+     * @return the role of the person in the project.
+     */
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s of project %d (person %d)", role, projectId, personId);
+    }
+}
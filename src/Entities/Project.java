@@ -142,6 +142,24 @@ public class Project extends Entity {
         return dateFinalized == null ? NOT_SET : dateFinalized.toString();
     }
 
+    /**
+     * @param name the new name of this project.
+     * @return this Project object.
+     */
+    public Project setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * @param number the new project_id of this project.
+     * @return this Project object.
+     */
+    public Project setNumber(int number) {
+        this.number = number;
+        return this;
+    }
+
     /**
      * @return the address ERF number of this project.
      */
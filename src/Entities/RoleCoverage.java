@@ -0,0 +1,57 @@
+package Entities;
+
+/**
+ * Represents the roles filled in a project, as a set of bits over the ordinals of the relationship types.
+ */
+public class RoleCoverage {
+    private final int projectId;
+    private final String projectName;
+    private final long roles;
+
+    /**
+     * RoleCoverage constructor.
+     * 
+     * @param projectId   the project_id of the project.
+     * @param projectName the name of the project.
+     * @param roles       the bit of each filled role's ordinal.
+     */
+    public RoleCoverage(int projectId, String projectName, long roles) {
+        this.projectId = projectId;
+        this.projectName = projectName;
+        this.roles = roles;
+    }
+
+    /**
+     * @return the project_id of the project.
+     */
+    public int getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * @return the name of the project.
+     */
+    public String getProjectName() {
+        return projectName;
+    }
+
+    /**
+     * @return the bit of each filled role's ordinal.
+     */
+    public long getRoles() {
+        return roles;
+    }
+
+    /**
+     * @param roleOrdinal the ordinal of the relationship type.
+     * @return whether the project has a participant in the role.
+     */
+    public boolean hasRole(int roleOrdinal) {
+        return (roles & (1L << roleOrdinal)) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d: %s", projectId, projectName);
+    }
+}
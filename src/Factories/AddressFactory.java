@@ -0,0 +1,33 @@
+package Factories;
+
+import Entities.Address;
+import Utilities.CsvUtils;
+
+/**
+ * Contains methods that allow easy creation of {@link Address} objects.
+ */
+public class AddressFactory {
+    /**
+     * The columns of an address record, in the order they appear in an import file.
+     */
+    public static final String[] RECORD_COLUMNS = {
+            "erf_number", "street_address", "suburb", "city", "province", "post_code" };
+
+    /**
+     * Creates a new {@link Address} object from the fields of an import record.
+     * 
+     * @param fields the fields of the record, in the order of {@link #RECORD_COLUMNS}.
+     * @return an {@link Address} object with the given fields.
+     * @throws IllegalArgumentException if any of the fields is missing or invalid.
+     */
+    public static Address fromRecord(String[] fields) throws IllegalArgumentException {
+        CsvUtils.expectFields(fields, RECORD_COLUMNS.length);
+        return new Address(
+                CsvUtils.parseInteger(fields[0], "ERF number"),
+                CsvUtils.requireValue(fields[1], "Street address"),
+                fields[2],
+                CsvUtils.requireValue(fields[3], "City"),
+                fields[4],
+                CsvUtils.parseInteger(fields[5], "Post code"));
+    }
+}
@@ -3,7 +3,11 @@ package Factories;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import Components.ColumnMapper;
 import Entities.Person;
+import Interfaces.IQuery;
+import Interfaces.RowMapper;
+import Utilities.CsvUtils;
 
 /**
  * Represents the structure of a database row containing data about a person.
@@ -42,7 +46,28 @@ interface PersonRow {
 /**
  * Contains methods that allow easy creation of {@link Person} objects.
  */
-public class PersonFactory implements PersonRow {
+public class PersonFactory implements PersonRow, IQuery {
+    /**
+     * The columns of a person record, in the order they appear in an import file.
+     */
+    public static final String[] RECORD_COLUMNS = {
+            FIRST_NAME, LAST_NAME, EMAIL_ADDRESS, PHONE_NUMBER, ERF_NUMBER };
+    /**
+     * The columns read from a row containing a person, in the order their indexes are passed to
+     * {@link #fromColumns(ResultSet, int[])}.
+     */
+    public static final String[] ROW_COLUMNS = {
+            PERSON_ID, FIRST_NAME, LAST_NAME, PHYSICAL_ADDRESS, EMAIL_ADDRESS, PHONE_NUMBER, ERF_NUMBER };
+    /**
+     * Maps rows containing the {@link #ROW_COLUMNS} to {@link Person} objects, reading the columns by index.
+     */
+    public static final RowMapper<Person> ROW_MAPPER = new ColumnMapper<>(ROW_COLUMNS) {
+        @Override
+        protected Person map(ResultSet results, int[] columns) throws SQLException {
+            return fromColumns(results, columns);
+        }
+    };
+
     /**
      * Creates a new {@link Person} object with the given parameters.
      * 
@@ -52,14 +77,27 @@ public class PersonFactory implements PersonRow {
      *                      database error occurs.
      */
     public static Person fromResultSet(ResultSet results) throws SQLException {
+        return ROW_MAPPER.map(results);
+    }
+
+    /**
+     * Creates a new {@link Person} object from the current row of {@code results}.
+     * 
+     * @param results the resultset positioned on the row to read.
+     * @param columns the index of each of the {@link #ROW_COLUMNS} in {@code results}, in the same order; may be
+     *                followed by the indexes of other columns.
+     * @return a {@link Person} object with the values of the row.
+     * @throws SQLException if a column cannot be read.
+     */
+    public static Person fromColumns(ResultSet results, int[] columns) throws SQLException {
         return new Person(
-                results.getInt(PERSON_ID),
-                results.getString(FIRST_NAME),
-                results.getString(LAST_NAME),
-                results.getString(PHYSICAL_ADDRESS),
-                results.getString(EMAIL_ADDRESS))
-                .setPhoneNumber(results.getString(PHONE_NUMBER))
-                .setErfNumber(results.getInt(ERF_NUMBER));
+                results.getInt(columns[0]),
+                results.getString(columns[1]),
+                results.getString(columns[2]),
+                results.getString(columns[3]),
+                results.getString(columns[4]))
+                .setPhoneNumber(results.getString(columns[5]))
+                .setErfNumber(results.getInt(columns[6]));
     }
 
     /**
@@ -78,4 +116,25 @@ public class PersonFactory implements PersonRow {
             String phoneNumber, String physicalAddress, int erfNumber) {
         return new Person(personId, firstName, lastName, physicalAddress, emailAddress).setPhoneNumber(phoneNumber).setErfNumber(erfNumber);
     }
+
+    /**
+     * Creates a new {@link Person} object, which has not been stored yet, from the fields of an import record.
+     * 
+     * @param fields the fields of the record, in the order of {@link #RECORD_COLUMNS}.
+     * @return a {@link Person} object with the given fields.
+     * @throws IllegalArgumentException if any of the fields is missing or invalid.
+     */
+    public static Person fromRecord(String[] fields) throws IllegalArgumentException {
+        CsvUtils.expectFields(fields, RECORD_COLUMNS.length);
+        if (!fields[3].matches(PHONE_NUMBER_REGEX)) {
+            throw new IllegalArgumentException(PHONE_NUMBER_LIMIT_EXPLANATION);
+        }
+        return fromDetails(0,
+                CsvUtils.requireValue(fields[0], "First name"),
+                CsvUtils.requireValue(fields[1], "Last name"),
+                CsvUtils.requireValue(fields[2], "Email address"),
+                fields[3],
+                null,
+                CsvUtils.parseInteger(fields[4], "ERF number"));
+    }
 }
@@ -2,8 +2,14 @@ package Factories;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.format.DateTimeParseException;
 
+import Components.ColumnMapper;
+import Components.TypeRegistry;
 import Entities.Project;
+import Interfaces.IQuery;
+import Interfaces.RowMapper;
+import Utilities.CsvUtils;
 
 /**
  * Represents the structure of a database row containing data about a project.
@@ -50,7 +56,32 @@ interface ProjectRow {
 /**
  * Contains methods that allow easy creation of {@link Project} objects.
  */
-public class ProjectFactory implements ProjectRow {
+public class ProjectFactory implements ProjectRow, IQuery {
+    /**
+     * The columns of a project record, in the order they appear in an import file.
+     */
+    public static final String[] RECORD_COLUMNS = { PROJECT_NAME, PROJECT_TYPE, ERF_NUMBER, DATE_DUE };
+    /**
+     * Maps the rows of any of the project views to {@link Project} objects, reading the columns by index.
+     */
+    public static final RowMapper<Project> ROW_MAPPER = new ColumnMapper<>(
+            PROJECT_ID, PROJECT_NAME, PROJECT_ADDRESS, PROJECT_TYPE, DATE_DUE, DATE_FINALIZED, ERF_NUMBER,
+            AMOUNT_DUE, AMOUNT_PAID) {
+        @Override
+        protected Project map(ResultSet results, int[] columns) throws SQLException {
+            return new Project(
+                    results.getInt(columns[0]),
+                    results.getString(columns[1]),
+                    results.getString(columns[2]),
+                    results.getString(columns[3]))
+                    .setDueDate(results.getString(columns[4]))
+                    .setDateFinalized(results.getString(columns[5]))
+                    .setErfNumber(results.getInt(columns[6]))
+                    .setCost(results.getInt(columns[7]))
+                    .setPaid(results.getInt(columns[8]));
+        }
+    };
+
     /**
      * Creates a new {@link Project} object with the given parameters.
      * 
@@ -60,15 +91,33 @@ public class ProjectFactory implements ProjectRow {
      *                      database error occurs.
      */
     public static Project fromResults(ResultSet results) throws SQLException {
-        return new Project(
-                results.getInt(PROJECT_ID),
-                results.getString(PROJECT_NAME),
-                results.getString(PROJECT_ADDRESS),
-                results.getString(PROJECT_TYPE))
-                .setDueDate(results.getString(DATE_DUE))
-                .setDateFinalized(results.getString(DATE_FINALIZED))
-                .setErfNumber(results.getInt(ERF_NUMBER))
-                .setCost((double) results.getInt(AMOUNT_DUE))
-                .setPaid(results.getInt(AMOUNT_PAID));
+        return ROW_MAPPER.map(results);
+    }
+
+    /**
+     * Creates a new {@link Project} object, which has not been stored yet, from the fields of an import record.
+     * 
+     * @param fields        the fields of the record, in the order of {@link #RECORD_COLUMNS}.
+     * @param types         the registry of the building types a project may have.
+     * @return a {@link Project} object with the given fields.
+     * @throws IllegalArgumentException if any of the fields is missing or invalid.
+     */
+    public static Project fromRecord(String[] fields, TypeRegistry types)
+            throws IllegalArgumentException {
+        CsvUtils.expectFields(fields, RECORD_COLUMNS.length);
+        int buildingOrdinal = types.getBuildingOrdinal(fields[1]);
+        if (buildingOrdinal == TypeRegistry.UNKNOWN) {
+            throw new IllegalArgumentException(String.format("'%s' is not a building type.", fields[1]));
+        }
+        if (!fields[3].matches(DATE_FORMAT_REGEX)) {
+            throw new IllegalArgumentException(String.format("'%s' is not a date (YYYY-MM-dd).", fields[3]));
+        }
+        try {
+            return new Project(0, fields[0], null, types.getBuildingType(buildingOrdinal))
+                    .setErfNumber(CsvUtils.parseInteger(fields[2], "ERF number"))
+                    .setDueDate(fields[3]);
+        } catch (DateTimeParseException error) {
+            throw new IllegalArgumentException(String.format("'%s' is not a valid date.", fields[3]));
+        }
     }
 }
@@ -0,0 +1,19 @@
+package Interfaces;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Performs work on a borrowed {@link Connection}, e.g. the statements of a transaction.
+ *
+ * @param <T> the type of value produced by the work.
+ */
+@FunctionalInterface
+public interface ConnectionHandler<T> {
+    /**
+     * @param connection the connection to use; it must not be closed.
+     * @return the value produced by the work.
+     * @throws SQLException if a database access error occurs.
+     */
+    T handle(Connection connection) throws SQLException;
+}
@@ -15,7 +15,8 @@ public interface IMenu extends Strings {
             PARTICIPANT_MENU_NAME = "Participant Menu",
             ACCOUNT_MENU_NAME = "Account Menu",
             PERSON_MENU_NAME = "Person Menu",
-            PROGRESS_MENU_NAME = "Progress Menu";
+            PROGRESS_MENU_NAME = "Progress Menu",
+            PAGE_MENU_NAME = "Page Menu";
     /**
      * The option shown to users when quitting the application.
      */
@@ -32,6 +33,19 @@ public interface IMenu extends Strings {
      * The description shown to the user for the {@link #BACK_COMMAND}.
      */
     String BACK_COMMAND_DESCRIPTION = "go back to previous menu";
+    /**
+     * The message shown to the user when the {@code import} command is missing its arguments.
+     */
+    String IMPORT_USAGE_MESSAGE = "Usage: import {addresses|people|projects} {file}";
+    /**
+     * The message shown to the user when the {@code export} command is missing its arguments.
+     */
+    String EXPORT_USAGE_MESSAGE = "Usage: export {view} {file} [--json] [--gzip]";
+    /**
+     * The message shown to the user once a view has been exported, with the amount of rows, the view, the file and
+     * the time taken in seconds.
+     */
+    String EXPORT_SUCCESS_MESSAGE = "Exported %d rows of %s to %s in %.2f s.";
     /**
      * Shown as the first menu when the application is started.
      */
@@ -41,8 +55,13 @@ public interface IMenu extends Strings {
             put("show -i", "show incomplete projects");
             put("show -f", "show finalized projects");
             put("show -o", "show outstanding projects");
+            put("show --page {size}", "show projects {size} at a time (combine with -i, -f or -o)");
             put("create", "Create new project");
             put("select", "Select a project");
+            put("import", "Import a CSV file: import {addresses|people|projects} {file}");
+            put("export", "Export a view to a file: export {view} {file} [--json] [--gzip]");
+            put("stats", "Show cache statistics");
+            put("missing", "List the projects without a participant in each role: missing [role]");
         }
     };
     /**
@@ -96,4 +115,13 @@ public interface IMenu extends Strings {
             put("finalize", "Set current date as date finalized.");
         }
     };
+    /**
+     * Shown when projects are shown a page at a time.
+     */
+    Menu PAGE_MENU = new Menu(PAGE_MENU_NAME) {
+        {
+            put("next", "Show the next page of projects");
+            put("prev", "Show the previous page of projects");
+        }
+    };
 }
@@ -39,6 +39,10 @@ public interface IQuery extends Strings {
      * The name of the view used to access outstanding projects.
      */
     String OUTSTANDING_PROJECTS_VIEW = "outstanding_projects";
+    /**
+     * The name of the table holding a trigger-maintained copy of the projects view, which the project views filter.
+     */
+    String PROJECT_SUMMARY_TABLE = "project_summary";
     /**
      * The Message to be displayed when a record has been created.
      */
@@ -63,8 +67,93 @@ public interface IQuery extends Strings {
      * The Message to be displayed when a record has failed to be updated.
      */
     String UPDATE_FAILURE_MESSAGE = "THE RECORD COULD NOT BE UPDATED.";
+    /**
+     * The role whose first participant names a project without a name; the same as @customer_relationship in
+     * sql/setup.sql.
+     */
+    String CUSTOMER_ROLE = "customer";
+    /**
+     * The message recorded for a participant whose role is already full in its project; the same message as the
+     * limit_relationships procedure signals.
+     */
+    String MAX_RELATIONSHIP_MESSAGE = "Max amount reached for %s. Maximum allowed: %d";
+    /**
+     * The message recorded for a participant whose project does not exist.
+     */
+    String PROJECT_NOT_FOUND_MESSAGE = "Project %d does not exist.";
+    /**
+     * The SQLSTATE of a quota violation, as signalled by the limit_relationships procedure.
+     */
+    String QUOTA_SQL_STATE = "45000";
+    /**
+     * Makes the participant triggers skip their checks for the rest of the session, for writers which enforce the
+     * checks themselves (see sql/migrations/V002__deferred_participant_checks.sql).
+     */
+    String DEFER_PARTICIPANT_CHECKS = "SET @defer_participant_checks = 1";
+    /**
+     * Restores the checks of the participant triggers for the session.
+     */
+    String RESUME_PARTICIPANT_CHECKS = "SET @defer_participant_checks = NULL";
+    /**
+     * The SQLSTATE of a duplicate key or a reference to a missing row.
+     */
+    String INTEGRITY_SQL_STATE = "23000";
+    /**
+     * The message recorded for a value which is already used by another row in a unique column, as MySQL words it.
+     */
+    String DUPLICATE_ENTRY_MESSAGE = "Duplicate entry '%s' for key '%s'";
+    /**
+     * The message recorded for a reference to a row which does not exist.
+     */
+    String MISSING_REFERENCE_MESSAGE = "Cannot add or update a child row: no %s with %s '%s' exists";
+    /**
+     * The message recorded for a missing value in a column which requires one, as MySQL words it.
+     */
+    String REQUIRED_VALUE_MESSAGE = "Column '%s' cannot be null";
+    /**
+     * The SQLSTATE of a value which is not a valid date.
+     */
+    String INVALID_DATE_SQL_STATE = "22007";
+    /**
+     * The message recorded for a value which is not a valid date, as MySQL words it.
+     */
+    String INVALID_DATE_MESSAGE = "Incorrect date value: '%s'";
+    /**
+     * The message to be displayed when a view which is not one of the project views is given.
+     */
+    String PROJECT_VIEW_INVALID_MESSAGE = "'%s' is not a project view.";
+    /**
+     * The message to be displayed when a view is exported from a storage which has no views.
+     */
+    String VIEWS_UNAVAILABLE_MESSAGE = "Views can only be exported from a database.";
     /**
      * The message to show when no types have been defined in the database.
      */
     String NO_TYPES = "No relationship or building types have been defined.";
-}
\ No newline at end of file
+    /**
+     * The type of import file containing addresses.
+     */
+    String ADDRESS_IMPORT = "addresses";
+    /**
+     * The type of import file containing people.
+     */
+    String PERSON_IMPORT = "people";
+    /**
+     * The type of import file containing projects.
+     */
+    String PROJECT_IMPORT = "projects";
+    /**
+     * The message to be displayed when an unknown type of import file is given.
+     */
+    String IMPORT_TYPE_INVALID_MESSAGE = "The import type should be one of: " + ADDRESS_IMPORT + ", " + PERSON_IMPORT
+            + ", " + PROJECT_IMPORT + ".";
+    /**
+     * The views which may be exported, as defined in {@code sql/helpers/views.sql}.
+     */
+    String[] EXPORTABLE_VIEWS = { "roles", "addresses", "people", "participants", "contacts", PROJECTS_VIEW,
+            INCOMPLETE_PROJECTS_VIEW, OUTSTANDING_PROJECTS_VIEW, FINALIZED_PROJECTS_VIEW, "types_view" };
+    /**
+     * The message to be displayed when a view which cannot be exported is given.
+     */
+    String EXPORT_VIEW_INVALID_MESSAGE = "The view should be one of: " + String.join(", ", EXPORTABLE_VIEWS) + ".";
+}
@@ -0,0 +1,19 @@
+package Interfaces;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Consumes a whole {@link ResultSet}, moving its cursor itself.
+ * 
+ * @param <T> the type of value produced from the results.
+ */
+@FunctionalInterface
+public interface ResultsHandler<T> {
+    /**
+     * @param results the results, positioned before the first row.
+     * @return the value produced from {@code results}.
+     * @throws SQLException if the results cannot be read.
+     */
+    T handle(ResultSet results) throws SQLException;
+}
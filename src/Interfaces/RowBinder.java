@@ -0,0 +1,19 @@
+package Interfaces;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Binds the values of a single row to the placeholders of a {@link PreparedStatement} which is executed in a batch.
+ * 
+ * @param <T> the type of object each row is read from.
+ */
+@FunctionalInterface
+public interface RowBinder<T> {
+    /**
+     * @param statement the statement whose placeholders should be set.
+     * @param row       the row whose values should be bound.
+     * @throws SQLException if a value cannot be bound.
+     */
+    void bind(PreparedStatement statement, T row) throws SQLException;
+}
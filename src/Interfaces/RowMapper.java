@@ -0,0 +1,34 @@
+package Interfaces;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a {@link ResultSet} to an object.
+ * 
+ * @param <T> the type of object each row is mapped to.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    /**
+     * Maps the row {@code results} is currently positioned on. Implementations should not move the cursor.
+     * 
+     * @param results the results positioned on the row to map.
+     * @return the object represented by the current row.
+     * @throws SQLException if a column cannot be read.
+     */
+    T map(ResultSet results) throws SQLException;
+
+    /**
+     * Called once per set of results, before any of its rows are mapped. Mappers which read columns by label may
+     * resolve the labels to column indexes here and return a mapper which reads by index.
+     * 
+     * @param metadata the metadata of the results about to be mapped.
+     * @return the mapper to use for every row of the results; this mapper by default.
+     * @throws SQLException if the metadata cannot be read or a required column is missing.
+     */
+    default RowMapper<T> bind(ResultSetMetaData metadata) throws SQLException {
+        return this;
+    }
+}
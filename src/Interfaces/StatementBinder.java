@@ -0,0 +1,22 @@
+package Interfaces;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Binds values to the placeholders of a {@link PreparedStatement}.
+ */
+@FunctionalInterface
+public interface StatementBinder {
+    /**
+     * Used for statements without any placeholders.
+     */
+    StatementBinder NO_PARAMETERS = statement -> {
+    };
+
+    /**
+     * @param statement the statement whose placeholders should be set.
+     * @throws SQLException if a value cannot be bound.
+     */
+    void bind(PreparedStatement statement) throws SQLException;
+}
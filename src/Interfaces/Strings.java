@@ -75,4 +75,40 @@ public interface Strings {
      * The message to display when a project cannot be loaded
      */
     String INVALID_PROJECT_ID_MESSAGE = "The project ID entered is invalid. Enter ";
+    /**
+     * The message to display when no projects match a {@code show} command.
+     */
+    String NO_PROJECTS_FOUND_MESSAGE = "No projects were found matching the description.";
+    /**
+     * The amount of projects shown per page when {@code show --page} is given without a size.
+     */
+    int DEFAULT_PAGE_SIZE = 50;
+    /**
+     * The message to display when the page size entered by the user is not positive.
+     */
+    String PAGE_SIZE_INVALID_MESSAGE = "The page size should be at least 1.";
+    /**
+     * The message to display when there is no page after the current page.
+     */
+    String LAST_PAGE_MESSAGE = "This is the last page.";
+    /**
+     * The message to display when there is no page before the current page.
+     */
+    String FIRST_PAGE_MESSAGE = "This is the first page.";
+    /**
+     * The message to display when no project is missing a participant in the reported roles.
+     */
+    String NO_MISSING_ROLES_MESSAGE = "Every project has a participant in each role.";
+    /**
+     * The message to display when the role entered by the user is not a relationship type.
+     */
+    String ROLE_INVALID_MESSAGE = "'%s' is not a role.";
+    /**
+     * The message to display when the email address entered for a new person already belongs to someone else.
+     */
+    String EMAIL_ADDRESS_TAKEN_MESSAGE = "That email address is already registered to another person.";
+    /**
+     * The message to display when no person is registered with the phone number entered for a participant.
+     */
+    String PARTICIPANT_NOT_FOUND_MESSAGE = "No person is registered with the phone number %s; the %s was not assigned.";
 }
@@ -14,10 +14,15 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
 import java.sql.SQLException;
 import java.time.format.DateTimeParseException;
 
 import Components.Input;
+import Components.Import.ImportSummary;
 import Components.Menu.Menu;
 import Controllers.EntityController;
 import Controllers.InputController;
@@ -25,6 +30,9 @@ import Controllers.MenuController;
 import Interfaces.IMenu;
 import Models.DatabaseConnectionModel;
 import Models.EntityModel.EntityModel;
+import Models.EntityModel.EntityStorage;
+import Models.EntityModel.InMemoryStorage;
+import Models.EntityModel.WriteBehindStorage;
 import Utilities.OutputUtils;
 
 /**
@@ -36,6 +44,11 @@ public class Main implements IMenu {
     private static Menu currentMenu;
     private static InputController interactionManager;
 
+    /**
+     * The option used to import a file without starting the menus: {@code --import <type> <file>}.
+     */
+    private static final String IMPORT_OPTION = "--import";
+
     /**
      * @param mainArgs the arguments supplied by the main function.
      * @throws SQLException if a database connection error occurs.
@@ -48,8 +61,16 @@ public class Main implements IMenu {
             } else {
                 configFileStream = new FileInputStream(mainArgs[0]);
             }
-            entityController = EntityController.getInstance(
-                    EntityModel.getInstance(DatabaseConnectionModel.loadFromFile(configFileStream)));
+            Properties configuration = DatabaseConnectionModel.loadProperties(configFileStream);
+            EntityStorage storage = DatabaseConnectionModel.usesInMemoryStorage(configuration)
+                    ? new InMemoryStorage()
+                    : EntityModel.getInstance(DatabaseConnectionModel.getConnection(configuration));
+            long writeBehindInterval = DatabaseConnectionModel.getWriteBehindInterval(configuration);
+            if (writeBehindInterval > 0) {
+                storage = new WriteBehindStorage(storage, writeBehindInterval,
+                        DatabaseConnectionModel.getWriteBehindJournal(configuration));
+            }
+            entityController = EntityController.getInstance(storage);
             menuController = MenuController.getInstance();
             menuController.addMenu(MAIN_MENU);
             interactionManager = InputController.getInstance(entityController, menuController);
@@ -73,8 +94,21 @@ public class Main implements IMenu {
      * @param args runtime arguments.
      */
     public static void main(String[] args) {
+        List<String> configArgs = new ArrayList<>();
+        String importType = null, importFile = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(IMPORT_OPTION) && i + 2 < args.length) {
+                importType = args[++i];
+                importFile = args[++i];
+            } else {
+                configArgs.add(args[i]);
+            }
+        }
         Input.getInstance(new BufferedReader(new InputStreamReader(System.in)));
-        initializeEntityManager(args);
+        initializeEntityManager(configArgs.toArray(new String[0]));
+        if (importType != null) {
+            System.exit(runImport(importType, importFile));
+        }
         OutputUtils.printDoubleLine();
         OutputUtils.printHeading(COMPANY_NAME);
         OutputUtils.printLine();
@@ -103,6 +137,31 @@ public class Main implements IMenu {
         System.out.println(GOOD_BYE_MESSAGE);
     }
 
+    /**
+     * Imports {@code file} without showing any menus.
+     * 
+     * @param type the type of records in {@code file}.
+     * @param file the path of the CSV file to import.
+     * @return the exit status of the application: 0 if every record was imported.
+     */
+    private static int runImport(String type, String file) {
+        try {
+            ImportSummary summary = entityController.importFile(type.toLowerCase(), Path.of(file));
+            System.out.println(summary);
+            return summary.getRejected() + summary.getFailed() == 0 ? 0 : 2;
+        } catch (SQLException error) {
+            error.printStackTrace();
+            System.out.println(DB_ERROR_MESSAGE);
+        } catch (IOException error) {
+            System.out.println(error.getLocalizedMessage());
+        } catch (IllegalArgumentException error) {
+            System.out.println(error.getLocalizedMessage());
+        } catch (InterruptedException error) {
+            System.out.println(USER_FORCEFULLY_ABORTED_MESSAGE);
+        }
+        return 1;
+    }
+
     /**
      * Handles all user interactions.
      * 
@@ -124,9 +183,11 @@ public class Main implements IMenu {
                     entityController.popFromStack();
                 }
                 menuController.popTop();
+                entityController.flushWrites();
                 return;
             case MenuController.QUIT_COMMAND:
                 menuController.clearStack();
+                entityController.flushWrites();
                 return;
         }
 
@@ -153,6 +214,9 @@ public class Main implements IMenu {
             case PERSON_MENU_NAME:
                 interactionManager.personMenuInteraction();
                 break;
+            case PAGE_MENU_NAME:
+                interactionManager.pageMenuInteraction();
+                break;
         }
     }
 }
@@ -0,0 +1,450 @@
+package Models;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of {@link Connection} objects to the application database.
+ *
+ * Connections handed out by {@link #borrow()} are proxies: calling
+ * {@link Connection#close()} on them returns the underlying connection to the
+ * pool instead of closing it, so they are meant to be used with
+ * try-with-resources.
+ */
+class ConnectionPool implements AutoCloseable {
+    /**
+     * The message used when no connection becomes available in time.
+     */
+    private static final String BORROW_TIMEOUT_MESSAGE = "Timed out after %d ms waiting for a database connection.";
+    /**
+     * The message used when the pool is used after being closed.
+     */
+    private static final String POOL_CLOSED_MESSAGE = "The connection pool has been closed.";
+
+    /**
+     * A physical connection managed by this pool.
+     */
+    private static class PooledEntry {
+        /**
+         * The physical connection to the database.
+         */
+        final Connection connection;
+        /**
+         * The time (in milliseconds) at which this entry was last returned to
+         * the pool.
+         */
+        long idleSince;
+        /**
+         * The time (in milliseconds) at which this entry was last borrowed.
+         */
+        long borrowedAt;
+        /**
+         * The stack trace of the borrower, captured only if leak detection is
+         * enabled.
+         */
+        Throwable borrowSite;
+        /**
+         * Whether a leak warning has already been printed for the current
+         * borrow.
+         */
+        boolean leakReported;
+        /**
+         * The statements prepared on this entry's connection; {@code null} if
+         * statement caching is disabled.
+         */
+        final StatementCache statements;
+
+        PooledEntry(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+            this.idleSince = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Wraps a borrowed {@link PooledEntry} so that {@link Connection#close()}
+     * returns it to the pool.
+     */
+    private class BorrowedConnection implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean closed;
+
+        BorrowedConnection(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.connection.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(entry.connection)) {
+                        return entry.connection;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + entry.connection;
+            }
+            if (closed) {
+                throw new SQLException("This connection has already been returned to the pool.");
+            }
+            if (entry.statements != null && method.getName().equals("prepareStatement")) {
+                if (args.length == 1) {
+                    return entry.statements.prepare((String) args[0], null);
+                } else if (args.length == 2 && args[1] instanceof String[]) {
+                    return entry.statements.prepare((String) args[0], (String[]) args[1]);
+                }
+            }
+            try {
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException error) {
+                throw error.getCause();
+            }
+        }
+    }
+
+    private final String url, user, password;
+    private final int minSize, maxSize, validationTimeout, statementCacheSize;
+    private final long idleTimeout, borrowTimeout, leakThreshold;
+    private final boolean validateOnBorrow;
+    /**
+     * The lookup counters shared by the statement caches of all connections.
+     */
+    private final StatementCache.Statistics statementCacheStatistics = new StatementCache.Statistics();
+
+    /**
+     * The connections which are not currently borrowed, most recently returned
+     * first.
+     */
+    private final Deque<PooledEntry> idle = new ArrayDeque<>();
+    /**
+     * The connections which are currently borrowed.
+     */
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    /**
+     * The amount of physical connections open or being opened.
+     */
+    private int total;
+    private boolean closed;
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * The constructor for ConnectionPool.
+     *
+     * @param url               the JDBC url of the database.
+     * @param user              the database user.
+     * @param password          the database user's password.
+     * @param minSize           the amount of connections kept open while idle.
+     * @param maxSize           the maximum amount of open connections.
+     * @param idleTimeout       the time (ms) after which idle connections above
+     *                          {@code minSize} are closed.
+     * @param borrowTimeout     the time (ms) to wait for a free connection.
+     * @param validationTimeout the time (s) allowed to validate a connection.
+     * @param validateOnBorrow  whether connections are validated before being
+     *                          handed out.
+     * @param leakThreshold     the time (ms) after which a borrowed connection is
+     *                          reported as leaked; {@code 0} disables detection.
+     * @param evictionInterval  the time (ms) between housekeeping runs.
+     * @param statementCacheSize the amount of prepared statements cached per
+     *                          connection; {@code 0} disables caching.
+     * @throws SQLException if the initial connections cannot be opened.
+     */
+    ConnectionPool(String url, String user, String password, int minSize, int maxSize, long idleTimeout,
+            long borrowTimeout, int validationTimeout, boolean validateOnBorrow, long leakThreshold,
+            long evictionInterval, int statementCacheSize) throws SQLException {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("The pool size must satisfy 0 <= min-size <= max-size and max-size >= 1.");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.borrowTimeout = borrowTimeout;
+        this.validationTimeout = validationTimeout;
+        this.validateOnBorrow = validateOnBorrow;
+        this.leakThreshold = leakThreshold;
+        this.statementCacheSize = statementCacheSize;
+        for (int i = 0; i < minSize; i++) {
+            idle.push(open());
+            total++;
+        }
+        housekeeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, evictionInterval, evictionInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return a new entry holding a physical connection to the database.
+     * @throws SQLException if the connection fails.
+     */
+    private PooledEntry open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, user, password);
+        return new PooledEntry(connection, statementCacheSize > 0
+                ? new StatementCache(connection, statementCacheSize, statementCacheStatistics)
+                : null);
+    }
+
+    /**
+     * @return a summary of the prepared statement cache lookups made through this
+     *         pool.
+     */
+    StatementCache.Statistics getStatementCacheStatistics() {
+        return statementCacheStatistics;
+    }
+
+    /**
+     * Borrows a connection from this pool, opening a new one if none are idle and
+     * the pool is not full, or waiting for one to be returned otherwise.
+     *
+     * @return a validated connection which is returned to the pool when closed.
+     * @throws SQLTransientConnectionException if no connection becomes available
+     *                                         within the borrow timeout.
+     * @throws SQLException                    if a new connection cannot be
+     *                                         opened.
+     */
+    Connection borrow() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(borrowTimeout);
+        while (true) {
+            PooledEntry entry = null;
+            boolean mayOpen = false;
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException(POOL_CLOSED_MESSAGE);
+                    }
+                    entry = idle.poll();
+                    if (entry != null) {
+                        break;
+                    }
+                    if (total < maxSize) {
+                        total++;
+                        mayOpen = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLTransientConnectionException(String.format(BORROW_TIMEOUT_MESSAGE, borrowTimeout));
+                    }
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLTransientConnectionException(String.format(BORROW_TIMEOUT_MESSAGE, borrowTimeout),
+                                interrupted);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (mayOpen) {
+                try {
+                    entry = open();
+                } catch (SQLException error) {
+                    discard(null);
+                    throw error;
+                }
+            } else if (validateOnBorrow && !isValid(entry)) {
+                discard(entry);
+                continue;
+            }
+            return lend(entry);
+        }
+    }
+
+    /**
+     * @param entry the entry to check.
+     * @return {@code true} if the entry's connection is still usable.
+     */
+    private boolean isValid(PooledEntry entry) {
+        try {
+            return entry.connection.isValid(validationTimeout);
+        } catch (SQLException error) {
+            return false;
+        }
+    }
+
+    /**
+     * Marks {@code entry} as borrowed and wraps it in a proxy.
+     *
+     * @param entry the entry being borrowed.
+     * @return the proxied connection.
+     */
+    private Connection lend(PooledEntry entry) {
+        entry.borrowedAt = System.currentTimeMillis();
+        entry.leakReported = false;
+        entry.borrowSite = leakThreshold > 0 ? new Throwable("Connection borrowed here") : null;
+        borrowed.add(entry);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new BorrowedConnection(entry));
+    }
+
+    /**
+     * Returns {@code entry} to the idle connections, resetting any state a
+     * borrower may have changed.
+     *
+     * @param entry the entry being returned.
+     */
+    private void release(PooledEntry entry) {
+        borrowed.remove(entry);
+        try {
+            if (!entry.connection.getAutoCommit()) {
+                entry.connection.rollback();
+                entry.connection.setAutoCommit(true);
+            }
+        } catch (SQLException error) {
+            discard(entry);
+            return;
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                total--;
+                closeQuietly(entry.connection);
+                return;
+            }
+            entry.idleSince = System.currentTimeMillis();
+            idle.push(entry);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes {@code entry} and frees its slot in the pool.
+     *
+     * @param entry the entry to close; {@code null} if the slot was reserved for
+     *              a connection that failed to open.
+     */
+    private void discard(PooledEntry entry) {
+        if (entry != null) {
+            closeQuietly(entry.connection);
+        }
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes idle connections which have exceeded the idle timeout, tops the pool
+     * back up to its minimum size, and reports leaked connections.
+     */
+    private void houseKeep() {
+        long now = System.currentTimeMillis();
+        Deque<PooledEntry> expired = new ArrayDeque<>();
+        int missing;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            Iterator<PooledEntry> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && total - expired.size() > minSize) {
+                PooledEntry entry = oldestFirst.next();
+                if (now - entry.idleSince < idleTimeout) {
+                    break;
+                }
+                oldestFirst.remove();
+                expired.add(entry);
+            }
+            total -= expired.size();
+            missing = Math.max(0, minSize - total);
+            total += missing;
+        } finally {
+            lock.unlock();
+        }
+        expired.forEach(entry -> closeQuietly(entry.connection));
+        for (int i = 0; i < missing; i++) {
+            try {
+                release(open());
+            } catch (SQLException error) {
+                discard(null);
+            }
+        }
+
+        if (leakThreshold > 0) {
+            for (PooledEntry entry : borrowed) {
+                if (!entry.leakReported && now - entry.borrowedAt > leakThreshold) {
+                    entry.leakReported = true;
+                    System.err.printf("A database connection has been borrowed for more than %d ms without being returned.%n",
+                            leakThreshold);
+                    if (entry.borrowSite != null) {
+                        entry.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param connection the connection to close, ignoring any errors.
+     */
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops handing out new ones. Borrowed
+     * connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        housekeeper.shutdownNow();
+        lock.lock();
+        try {
+            closed = true;
+            total -= idle.size();
+            idle.forEach(entry -> closeQuietly(entry.connection));
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
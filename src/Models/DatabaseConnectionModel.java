@@ -2,9 +2,9 @@ package Models;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Properties;
 
@@ -15,7 +15,14 @@ interface DatabaseConnectionProperties {
     /**
      * The template used for the url to establish the Database connection.
      */
-    String URL_TEMPLATE = "jdbc:mysql://%s:%d/%s?allowPublicKeyRetrieval=%s&useSSL=%s";
+    String URL_TEMPLATE = "jdbc:mysql://%s:%d/%s?allowPublicKeyRetrieval=%s&useSSL=%s&useServerPrepStmts=%s&useCursorFetch=%s&rewriteBatchedStatements=%s";
+    /**
+     * The template used for the url of the embedded database, stored in the
+     * file at the given absolute path. MySQL mode and lower case identifiers
+     * match the dialect of the MySQL schema; unlike MySQL, text is compared
+     * case-sensitively.
+     */
+    String EMBEDDED_URL_TEMPLATE = "jdbc:h2:file:%s;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
     /**
      * The key containing the database's url.
      */
@@ -48,16 +55,155 @@ interface DatabaseConnectionProperties {
      * Retrieved at: https://stackoverflow.com/a/50438872/2850190
      */
     String DB_ALLOW_PUBLIC_KEY = "db.allow-public-key";
+    /**
+     * The key containing the amount of connections the pool keeps open while
+     * idle (Default: 1).
+     */
+    String DB_POOL_MIN_SIZE = "db.pool.min-size";
+    /**
+     * The key containing the maximum amount of connections the pool may open
+     * (Default: 8).
+     */
+    String DB_POOL_MAX_SIZE = "db.pool.max-size";
+    /**
+     * The key containing the time, in milliseconds, after which idle connections
+     * above the minimum pool size are closed (Default: 600000).
+     */
+    String DB_POOL_IDLE_TIMEOUT = "db.pool.idle-timeout";
+    /**
+     * The key containing the time, in milliseconds, to wait for a free connection
+     * before failing (Default: 30000).
+     */
+    String DB_POOL_BORROW_TIMEOUT = "db.pool.borrow-timeout";
+    /**
+     * The key indicating whether connections should be validated before being
+     * borrowed (Default: true).
+     */
+    String DB_POOL_VALIDATE_ON_BORROW = "db.pool.validate-on-borrow";
+    /**
+     * The key containing the time, in seconds, allowed to validate a connection
+     * (Default: 2).
+     */
+    String DB_POOL_VALIDATION_TIMEOUT = "db.pool.validation-timeout";
+    /**
+     * The key containing the time, in milliseconds, after which a borrowed
+     * connection is reported as leaked - 0 disables leak detection (Default:
+     * 60000).
+     */
+    String DB_POOL_LEAK_THRESHOLD = "db.pool.leak-threshold";
+    /**
+     * The key containing the time, in milliseconds, between idle eviction and
+     * leak detection runs (Default: 30000).
+     */
+    String DB_POOL_EVICTION_INTERVAL = "db.pool.eviction-interval";
+    /**
+     * The key containing the amount of prepared statements cached per pooled
+     * connection - 0 disables statement caching (Default: 64).
+     */
+    String DB_STATEMENT_CACHE_SIZE = "db.statement-cache.size";
+    /**
+     * The key indicating whether statements should be prepared on the server, so
+     * that cached statements skip parsing on each execution (Default: true).
+     */
+    String DB_SERVER_PREPARED_STATEMENTS = "db.server-prepared-statements";
+    /**
+     * The key indicating whether streamed results should be read through a
+     * server-side cursor instead of being buffered by the driver (Default: true).
+     */
+    String DB_CURSOR_FETCH = "db.cursor-fetch";
+    /**
+     * The key containing the amount of rows fetched per round trip when results
+     * are streamed (Default: 500).
+     */
+    String DB_FETCH_SIZE = "db.fetch-size";
+    /**
+     * The key indicating whether batched inserts should be rewritten by the
+     * driver into multi-row inserts (Default: true).
+     */
+    String DB_REWRITE_BATCHED_STATEMENTS = "db.rewrite-batched-statements";
+    /**
+     * The key containing the amount of rows sent to the database per batch
+     * (Default: 500).
+     */
+    String DB_BATCH_SIZE = "db.batch-size";
+    /**
+     * The key containing the amount of people kept in memory after being read
+     * - 0 disables the cache (Default: 1024).
+     */
+    String DB_PERSON_CACHE_SIZE = "db.cache.person.size";
+    /**
+     * The key containing the amount of projects kept in memory after being read
+     * - 0 disables the cache (Default: 256).
+     */
+    String DB_PROJECT_CACHE_SIZE = "db.cache.project.size";
+    /**
+     * The key containing the time, in milliseconds, after which a cached project
+     * is read from the database again (Default: 300000).
+     */
+    String DB_PROJECT_CACHE_TTL = "db.cache.project.ttl";
+    /**
+     * The key indicating whether the existing ERF numbers, phone numbers and
+     * email addresses should be loaded into memory, so that lookups of new ones
+     * skip the database (Default: true).
+     */
+    String DB_KEY_FILTERS = "db.key-filters";
+    /**
+     * The prefix of the keys containing the isolation level of each type of
+     * unit of work, e.g. {@code db.isolation.account=READ_COMMITTED}; one of
+     * READ_UNCOMMITTED, READ_COMMITTED, REPEATABLE_READ or SERIALIZABLE.
+     */
+    String DB_ISOLATION = "db.isolation.";
+    /**
+     * The key containing where the entities are stored: {@code mysql} for the
+     * database described by the other keys, {@code embedded} for a database in
+     * the local file at {@link #DB_FILE}, or {@code memory} to keep them in
+     * memory only (Default: mysql).
+     */
+    String DB_STORAGE = "db.storage";
+    /**
+     * The {@link #DB_STORAGE} value which stores the entities in a local file.
+     */
+    String EMBEDDED_STORAGE = "embedded";
+    /**
+     * The key containing the path of the embedded database's file, without its
+     * {@code .mv.db} extension; created with the schema of
+     * sql/embedded/schema.sql if it does not exist (Default: poisepms).
+     */
+    String DB_FILE = "db.file";
+    /**
+     * The {@link #DB_STORAGE} value which keeps the entities in memory.
+     */
+    String IN_MEMORY_STORAGE = "memory";
+    /**
+     * The key containing the time, in milliseconds, between flushes of the
+     * progress, account and contact detail changes held back by the
+     * write-behind layer - 0 writes them immediately (Default: 0).
+     */
+    String DB_WRITE_BEHIND_INTERVAL = "db.write-behind.interval";
+    /**
+     * The key containing the path of the file in which the changes held back by
+     * the write-behind layer are recorded until they are written, so that they
+     * survive a crash (Default: poisepms-writes.journal).
+     */
+    String DB_WRITE_BEHIND_JOURNAL = "db.write-behind.journal";
 }
 
 /**
- * Represents a connection to the application database.
+ * Represents the pool of connections to the application database.
  */
 public class DatabaseConnectionModel implements DatabaseConnectionProperties {
     /**
-     * The database connection object for this class.
+     * The pool from which connections to the database are borrowed.
      */
-    private Connection connection;
+    private ConnectionPool pool;
+    /**
+     * The configuration used to establish the database connections.
+     */
+    private Properties configuration;
+    /**
+     * Whether the database is the embedded one rather than a MySQL server.
+     */
+    private boolean embedded;
     /**
      * The single instance of a DatabaseConnection object.
      */
@@ -66,10 +212,14 @@ public class DatabaseConnectionModel implements DatabaseConnectionProperties {
     /**
      * The constructor for DatabaseConnection.
      * 
-     * @param connection the established connection.
+     * @param pool          the established connection pool.
+     * @param configuration the configuration used to establish {@code pool}.
+     * @param embedded      whether {@code pool} connects to the embedded database.
      */
-    private DatabaseConnectionModel(Connection connection) {
-        this.connection = connection;
+    private DatabaseConnectionModel(ConnectionPool pool, Properties configuration, boolean embedded) {
+        this.pool = pool;
+        this.configuration = configuration;
+        this.embedded = embedded;
     }
 
     /**
@@ -86,67 +236,262 @@ public class DatabaseConnectionModel implements DatabaseConnectionProperties {
      * @throws SQLException If the database connection fails
      */
     public static DatabaseConnectionModel loadFromFile(InputStream configFileStream) throws IOException, SQLException {
+        return getConnection(loadProperties(configFileStream));
+    }
+
+    /**
+     * Reads the text in {@code configFileStream} into a {@link Properties} object.
+     * 
+     * @param configFileStream stream to a textfile containing the required
+     *                         properties.
+     * @return The properties read from {@code configFileStream}.
+     * @throws IOException If an error occured while reading from
+     *                     {@code configFileStream}.
+     */
+    public static Properties loadProperties(InputStream configFileStream) throws IOException {
         Properties config = new Properties();
         if (configFileStream == null) {
             throw new IOException("The configuration file could not be accessed");
         }
         config.load(configFileStream);
-        return getConnection(config);
+        return config;
+    }
+
+    /**
+     * @param configuration the configuration read by {@link #loadProperties(InputStream)}.
+     * @return Whether {@code configuration} selects the in-memory storage instead
+     *         of a database.
+     */
+    public static boolean usesInMemoryStorage(Properties configuration) {
+        return IN_MEMORY_STORAGE.equalsIgnoreCase(configuration.getProperty(DB_STORAGE, "mysql").trim());
+    }
+
+    /**
+     * @param configuration the configuration read by {@link #loadProperties(InputStream)}.
+     * @return The time, in milliseconds, between flushes of the changes held
+     *         back by the write-behind layer; 0 if it is disabled.
+     * @throws NumberFormatException If the value is not a number.
+     */
+    public static long getWriteBehindInterval(Properties configuration) throws NumberFormatException {
+        return Math.max(0, Long.parseLong(configuration.getProperty(DB_WRITE_BEHIND_INTERVAL, "0").trim()));
+    }
+
+    /**
+     * @param configuration the configuration read by {@link #loadProperties(InputStream)}.
+     * @return The file in which the changes held back by the write-behind layer
+     *         are recorded.
+     */
+    public static Path getWriteBehindJournal(Properties configuration) {
+        return Path.of(configuration.getProperty(DB_WRITE_BEHIND_JOURNAL, "poisepms-writes.journal").trim());
+    }
+
+    /**
+     * @param configuration the configuration read by {@link #loadProperties(InputStream)}.
+     * @return Whether {@code configuration} selects the embedded database.
+     */
+    private static boolean usesEmbeddedStorage(Properties configuration) {
+        return EMBEDDED_STORAGE.equalsIgnoreCase(configuration.getProperty(DB_STORAGE, "mysql").trim());
     }
 
     /**
      * <p>
-     * Uses the properties defined as shown at {@link DatabaseConnectionProperties} in {@code configuration} to establish a single connection with the
-     * {@link DriverManager}.
+     * Uses the properties defined as shown at {@link DatabaseConnectionProperties} in {@code configuration} to establish a
+     * pool of connections with the {@link DriverManager}.
      * 
-     * This method will not establish a new connection even if the properties are
+     * This method will not establish a new pool even if the properties are
      * changed.
      * 
      * @param configuration the configuration to use for the connection
-     * @return The instance of {@link #DatabaseConnectionModel(Connection)} for this java
+     * @return The instance of {@link #DatabaseConnectionModel(ConnectionPool, Properties, boolean)} for this java
      *         application.
-     * @throws NumberFormatException If the {@code db.port} value is not a number
+     * @throws NumberFormatException If the {@code db.port} value or any of the {@code db.pool.*} values is not a number
      * @throws SQLException          If the database connection fails
      */
     public static DatabaseConnectionModel getConnection(Properties configuration)
             throws NullPointerException, NumberFormatException, SQLException {
         if (instance == null) {
-            String name = configuration.getProperty(DB_NAME),
-                    user = configuration.getProperty(DB_USER),
-                    url = configuration.getProperty(DB_URL),
-                    portString = configuration.getProperty(DB_PORT);
-            if (name == null || user == null || portString == null || url == null) {
-                throw new NullPointerException(
-                        "The database configuration file does not contain all of the required keys.");
+            boolean embedded = usesEmbeddedStorage(configuration);
+            String connectionUrl, user;
+            if (embedded) {
+                connectionUrl = String.format(EMBEDDED_URL_TEMPLATE,
+                        Path.of(configuration.getProperty(DB_FILE, "poisepms").trim()).toAbsolutePath());
+                user = configuration.getProperty(DB_USER, "sa");
+            } else {
+                connectionUrl = getServerUrl(configuration);
+                user = configuration.getProperty(DB_USER);
             }
-            int port = Integer.parseInt(portString);
-            String connectionUrl = String.format(URL_TEMPLATE, url, port, name, configuration.getProperty(DB_ALLOW_PUBLIC_KEY, "true"), configuration.getProperty(DB_USE_SSL, "false"));
-            instance = new DatabaseConnectionModel(
-                    DriverManager.getConnection(connectionUrl, user, configuration.getProperty(DB_PASSWORD, "")));
+            ConnectionPool pool = new ConnectionPool(
+                    connectionUrl, user, configuration.getProperty(DB_PASSWORD, ""),
+                    Integer.parseInt(configuration.getProperty(DB_POOL_MIN_SIZE, "1")),
+                    Integer.parseInt(configuration.getProperty(DB_POOL_MAX_SIZE, "8")),
+                    Long.parseLong(configuration.getProperty(DB_POOL_IDLE_TIMEOUT, "600000")),
+                    Long.parseLong(configuration.getProperty(DB_POOL_BORROW_TIMEOUT, "30000")),
+                    Integer.parseInt(configuration.getProperty(DB_POOL_VALIDATION_TIMEOUT, "2")),
+                    Boolean.parseBoolean(configuration.getProperty(DB_POOL_VALIDATE_ON_BORROW, "true")),
+                    Long.parseLong(configuration.getProperty(DB_POOL_LEAK_THRESHOLD, "60000")),
+                    Long.parseLong(configuration.getProperty(DB_POOL_EVICTION_INTERVAL, "30000")),
+                    Integer.parseInt(configuration.getProperty(DB_STATEMENT_CACHE_SIZE, "64")));
+            if (embedded) {
+                try (Connection connection = pool.borrow()) {
+                    EmbeddedDatabase.initialize(connection);
+                } catch (SQLException error) {
+                    pool.close();
+                    throw error;
+                }
+            }
+            instance = new DatabaseConnectionModel(pool, configuration, embedded);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close));
         }
         return instance;
     }
 
     /**
-     * Creates a {@link PreparedStatement} from the given {@code query}.
-     * 
-     * @param query a valid SQL statement.
-     * @return the created {@link PreparedStatement}.
-     * @throws SQLException if a database access error occurs.
+     * @param configuration the configuration to use for the connection
+     * @return The url of the MySQL server database described by {@code configuration}.
+     * @throws NullPointerException  If a required key is missing
+     * @throws NumberFormatException If the {@code db.port} value is not a number
      */
-    public PreparedStatement prepare(String query) throws SQLException {
-        return connection.prepareStatement(query);
+    private static String getServerUrl(Properties configuration)
+            throws NullPointerException, NumberFormatException {
+        String name = configuration.getProperty(DB_NAME),
+                user = configuration.getProperty(DB_USER),
+                url = configuration.getProperty(DB_URL),
+                portString = configuration.getProperty(DB_PORT);
+        if (name == null || user == null || portString == null || url == null) {
+            throw new NullPointerException(
+                    "The database configuration file does not contain all of the required keys.");
+        }
+        int port = Integer.parseInt(portString);
+        return String.format(URL_TEMPLATE, url, port, name, configuration.getProperty(DB_ALLOW_PUBLIC_KEY, "true"), configuration.getProperty(DB_USE_SSL, "false"),
+                configuration.getProperty(DB_SERVER_PREPARED_STATEMENTS, "true"),
+                configuration.getProperty(DB_CURSOR_FETCH, "true"),
+                configuration.getProperty(DB_REWRITE_BATCHED_STATEMENTS, "true"));
     }
-    
+
     /**
-     * Creates a {@link PreparedStatement} from the given {@code query}.
+     * Borrows a {@link Connection} from the pool. The connection is returned to
+     * the pool when it is closed, so it should be used with try-with-resources.
      * 
-     * @param query a valid SQL statement.
-     * @param generatedKeys the keys generated for insert and update statements.
-     * @return the created {@link PreparedStatement}.
-     * @throws SQLException if a database access error occurs.
+     * @return a validated connection to the database.
+     * @throws SQLException if no connection could be obtained in time or a
+     *                      database access error occurs.
+     */
+    public Connection borrow() throws SQLException {
+        return pool.borrow();
+    }
+
+    /**
+     * @return whether the database is the embedded one, which runs in this
+     *         process, rather than a MySQL server.
+     */
+    public boolean isEmbedded() {
+        return embedded;
+    }
+
+    /**
+     * @return a summary of the hits, misses and evictions of the prepared
+     *         statement caches of all pooled connections.
+     */
+    public String getStatementCacheStatistics() {
+        return pool.getStatementCacheStatistics().toString();
+    }
+
+    /**
+     * @return the amount of rows to fetch per round trip when streaming results.
+     * @throws NumberFormatException if the configured value is not a number.
+     */
+    public int getFetchSize() throws NumberFormatException {
+        return getIntProperty(DB_FETCH_SIZE, 500);
+    }
+
+    /**
+     * @return the amount of rows to send to the database per batch.
+     * @throws NumberFormatException if the configured value is not a number.
+     */
+    public int getBatchSize() throws NumberFormatException {
+        return getIntProperty(DB_BATCH_SIZE, 500);
+    }
+
+    /**
+     * @return the maximum amount of connections the pool may open.
+     * @throws NumberFormatException if the configured value is not a number.
+     */
+    public int getMaxConnections() throws NumberFormatException {
+        return getIntProperty(DB_POOL_MAX_SIZE, 8);
+    }
+
+    /**
+     * @return the amount of people to keep in memory after being read.
+     * @throws NumberFormatException if the configured value is not a number.
+     */
+    public int getPersonCacheSize() throws NumberFormatException {
+        return getIntProperty(DB_PERSON_CACHE_SIZE, 1024);
+    }
+
+    /**
+     * @return the amount of projects to keep in memory after being read.
+     * @throws NumberFormatException if the configured value is not a number.
+     */
+    public int getProjectCacheSize() throws NumberFormatException {
+        return getIntProperty(DB_PROJECT_CACHE_SIZE, 256);
+    }
+
+    /**
+     * @return the time, in milliseconds, after which a cached project is read from the database again.
+     * @throws NumberFormatException if the configured value is not a number.
+     */
+    public int getProjectCacheTimeToLive() throws NumberFormatException {
+        return getIntProperty(DB_PROJECT_CACHE_TTL, 300000);
+    }
+
+    /**
+     * @return whether lookups of ERF numbers, phone numbers and email addresses should be filtered in memory.
      */
-    public PreparedStatement prepare(String query, String... generatedKeys) throws SQLException {
-        return connection.prepareStatement(query, generatedKeys);
+    public boolean isKeyFilteringEnabled() {
+        return Boolean.parseBoolean(configuration.getProperty(DB_KEY_FILTERS, "true").trim());
     }
-}
\ No newline at end of file
+
+    /**
+     * @param operation    the type of unit of work, as named in its {@link #DB_ISOLATION} key.
+     * @param defaultLevel the isolation level to use if none is configured for {@code operation}.
+     * @return the configured isolation level of {@code operation}, as one of the {@code TRANSACTION_*} constants of
+     *         {@link Connection}.
+     * @throws IllegalArgumentException if the configured value is not an isolation level.
+     */
+    public int getIsolationLevel(String operation, int defaultLevel) throws IllegalArgumentException {
+        String value = configuration.getProperty(DB_ISOLATION + operation);
+        if (value == null) {
+            return defaultLevel;
+        }
+        switch (value.trim().toUpperCase().replace(' ', '_')) {
+            case "READ_UNCOMMITTED":
+                return Connection.TRANSACTION_READ_UNCOMMITTED;
+            case "READ_COMMITTED":
+                return Connection.TRANSACTION_READ_COMMITTED;
+            case "REPEATABLE_READ":
+                return Connection.TRANSACTION_REPEATABLE_READ;
+            case "SERIALIZABLE":
+                return Connection.TRANSACTION_SERIALIZABLE;
+            default:
+                throw new IllegalArgumentException("Unknown isolation level for " + operation + ": " + value);
+        }
+    }
+
+    /**
+     * @param key          the configuration key to look up.
+     * @param defaultValue the value to use if {@code key} is not configured.
+     * @return the configured value of {@code key} as an integer.
+     * @throws NumberFormatException if the configured value is not a number.
+     */
+    public int getIntProperty(String key, int defaultValue) throws NumberFormatException {
+        String value = configuration.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Closes all connections in the pool.
+     */
+    public void close() {
+        pool.close();
+    }
+}
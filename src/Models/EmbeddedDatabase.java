@@ -0,0 +1,426 @@
+package Models;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.h2.api.Trigger;
+import org.h2.tools.RunScript;
+import org.h2.tools.SimpleResultSet;
+
+import Interfaces.IQuery;
+
+/**
+ * The triggers and procedures of the embedded database, which H2 runs as Java classes and methods.
+ *
+ * Each one does what its namesake in sql/helpers, sql/migrations or sql/helpers/summary.sql does in MySQL, and is
+ * declared in sql/embedded/schema.sql. The statements they run are executed on the connection of the statement which
+ * fired them, so they are part of its transaction.
+ */
+public final class EmbeddedDatabase implements IQuery {
+    /**
+     * The schema run on a new database file.
+     */
+    private static final String SCHEMA_RESOURCE = "sql/embedded/schema.sql";
+    /**
+     * The url H2 gives the connection passed to a function when it only needs the columns of its result.
+     */
+    private static final String COLUMN_LIST_URL = "jdbc:columnlist:connection";
+    /**
+     * The participants of a create_project roster, as written by {@code EntityUpdater}.
+     */
+    private static final Pattern ROSTER_MEMBER = Pattern
+            .compile("\\{\"person_id\":(\\d+),\"relationship\":\"((?:[^\"\\\\]|\\\\.)*)\"\\}");
+    /**
+     * The parameters of create_project, in order (see sql/migrations/V003__create_project.sql).
+     */
+    private static final String[] CREATE_PROJECT_PARAMETERS = { "project_name", "project_type", "erf_number",
+            "street_address", "suburb", "city", "province", "post_code", "date_due", "customer_role", "customer_id",
+            "first_name", "last_name", "phone_number", "email_address", "physical_address", "customer_street_address",
+            "customer_suburb", "customer_city", "customer_province", "customer_post_code", "roster", "project_id" };
+
+    private static final String SELECT_QUOTA = "SELECT max_allowed FROM relationship WHERE relationship_type = ?";
+    private static final String COUNT_REGISTERED = "SELECT COUNT(relationship) FROM participant "
+            + "WHERE relationship = ? AND project_id = ?";
+    private static final String SELECT_PROJECT = "SELECT project_name, project_type FROM project WHERE project_id = ?";
+    private static final String SELECT_LAST_NAME = "SELECT last_name FROM person WHERE person_id = ?";
+    private static final String NAME_PROJECT = "UPDATE project SET project_name = ? WHERE project_id = ?";
+    private static final String INSERT_ACCOUNT = "INSERT INTO account(project, amount_due, amount_paid) "
+            + "VALUES (?, 0, 0)";
+    private static final String REFRESH_SUMMARY = "MERGE INTO project_summary KEY(project_id) "
+            + "SELECT project.project_id, project.project_name, project.project_type, address.erf_number, "
+            + "CONCAT_WS(', ', street_address, suburb, city, province, post_code), "
+            + "(SELECT amount_due FROM account WHERE account.project = project.project_id "
+            + "ORDER BY account_id DESC LIMIT 1), "
+            + "(SELECT amount_paid FROM account WHERE account.project = project.project_id "
+            + "ORDER BY account_id DESC LIMIT 1), "
+            + "(SELECT date_due FROM progress WHERE progress.project = project.project_id "
+            + "ORDER BY tracker_id DESC LIMIT 1), "
+            + "(SELECT date_finalized FROM progress WHERE progress.project = project.project_id "
+            + "ORDER BY tracker_id DESC LIMIT 1) "
+            + "FROM project LEFT JOIN address ON project.project_address = address.erf_number "
+            + "WHERE project.project_id = ?";
+    private static final String DELETE_SUMMARY = "DELETE FROM project_summary WHERE project_id = ?";
+    private static final String SUMMARIZE_ADDRESS = "UPDATE project_summary SET erf_number = ?, "
+            + "project_address = CONCAT_WS(', ', ?, ?, ?, ?, ?) WHERE erf_number = ?";
+    private static final String INSERT_ADDRESS = "INSERT INTO address(erf_number, street_address, suburb, city, "
+            + "province, post_code) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PERSON = "INSERT INTO person(first_name, last_name, phone_number, "
+            + "email_address, physical_address) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_PROJECT = "INSERT INTO project(project_name, project_type, project_address) "
+            + "VALUES (?, ?, ?)";
+    private static final String INSERT_PROGRESS = "INSERT INTO progress(project, date_due) VALUES (?, ?)";
+    private static final String INSERT_PARTICIPANT = "INSERT INTO participant(project_id, person_id, relationship) "
+            + "VALUES (?, ?, ?)";
+    private static final String SELECT_DEFERRED = "SELECT @defer_participant_checks";
+    private static final String SELECT_SCHEMA = "SELECT COUNT(*) FROM information_schema.tables "
+            + "WHERE LOWER(table_name) = 'schema_migration'";
+    private static final String DROP_ALL_OBJECTS = "DROP ALL OBJECTS";
+
+    /*
+     * The positions of the columns in the rows passed to the triggers, as declared in sql/embedded/schema.sql.
+     */
+    private static final int PARTICIPANT_PERSON = 1, PARTICIPANT_PROJECT = 2, PARTICIPANT_RELATIONSHIP = 3;
+    private static final int PROJECT_ID = 0;
+    private static final int ACCOUNT_PROJECT = 1;
+    private static final int PROGRESS_PROJECT = 1;
+    private static final int ADDRESS_ERF_NUMBER = 0, ADDRESS_POST_CODE = 5;
+
+    private EmbeddedDatabase() {
+    }
+
+    /**
+     * Creates the schema of sql/embedded/schema.sql on {@code connection} if the database does not have it yet.
+     *
+     * The schema records itself in schema_migration last, so a database without that table is new or was not set up
+     * completely; anything in it is dropped before the schema is created.
+     *
+     * @param connection a connection to the embedded database.
+     * @throws SQLException if the schema could not be created.
+     */
+    public static void initialize(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet schema = statement.executeQuery(SELECT_SCHEMA)) {
+            if (schema.next() && schema.getInt(1) > 0) {
+                return;
+            }
+            statement.execute(DROP_ALL_OBJECTS);
+        }
+        try (InputStream script = EmbeddedDatabase.class.getClassLoader().getResourceAsStream(SCHEMA_RESOURCE)) {
+            if (script == null) {
+                throw new SQLException("The embedded database schema " + SCHEMA_RESOURCE + " could not be found.");
+            }
+            try (Reader reader = new InputStreamReader(script, StandardCharsets.UTF_8)) {
+                RunScript.execute(connection, reader);
+            }
+        } catch (IOException error) {
+            throw new SQLException("The embedded database schema could not be read.", error);
+        }
+    }
+
+    /**
+     * @return whether the session of {@code connection} has deferred the checks of the participant triggers (see
+     *         sql/migrations/V002__deferred_participant_checks.sql).
+     */
+    private static boolean areParticipantChecksDeferred(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet deferred = statement.executeQuery(SELECT_DEFERRED)) {
+            return deferred.next() && deferred.getObject(1) != null;
+        }
+    }
+
+    /**
+     * Rejects a participant in {@code newRelationship} if the role is already full in the project with
+     * {@code newId}.
+     *
+     * @throws SQLException with the {@link #QUOTA_SQL_STATE} if the role is full.
+     */
+    public static void limitRelationships(Connection connection, String newRelationship, Integer newId)
+            throws SQLException {
+        Integer quota = null;
+        try (PreparedStatement select = connection.prepareStatement(SELECT_QUOTA)) {
+            select.setString(1, newRelationship);
+            try (ResultSet results = select.executeQuery()) {
+                if (results.next()) {
+                    quota = (Integer) results.getObject(1);
+                }
+            }
+        }
+        if (quota == null) {
+            return;
+        }
+        try (PreparedStatement count = connection.prepareStatement(COUNT_REGISTERED)) {
+            count.setString(1, newRelationship);
+            count.setObject(2, newId);
+            try (ResultSet results = count.executeQuery()) {
+                if (results.next() && results.getInt(1) == quota) {
+                    throw new SQLException(String.format(MAX_RELATIONSHIP_MESSAGE, newRelationship, quota),
+                            QUOTA_SQL_STATE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Names the project with {@code projectId} after the last name of its customer.
+     */
+    public static void setDefaultProjectName(Connection connection, Integer projectId, String projectType,
+            Integer customerId) throws SQLException {
+        String lastName = null;
+        try (PreparedStatement select = connection.prepareStatement(SELECT_LAST_NAME)) {
+            select.setObject(1, customerId);
+            try (ResultSet results = select.executeQuery()) {
+                if (results.next()) {
+                    lastName = results.getString(1);
+                }
+            }
+        }
+        try (PreparedStatement update = connection.prepareStatement(NAME_PROJECT)) {
+            update.setString(1, lastName == null ? projectType : projectType + ' ' + lastName);
+            update.setObject(2, projectId);
+            update.executeUpdate();
+        }
+    }
+
+    /**
+     * Replaces the summary of the project with {@code summarizedId} with its current details.
+     */
+    public static void refreshProjectSummary(Connection connection, Integer summarizedId) throws SQLException {
+        try (PreparedStatement refresh = connection.prepareStatement(REFRESH_SUMMARY)) {
+            refresh.setObject(1, summarizedId);
+            refresh.executeUpdate();
+        }
+    }
+
+    /**
+     * Creates a project with its new addresses, its customer (if they are new), its progress and its participants.
+     *
+     * H2 has no OUT parameters: it reads the value of the OUT parameter at each position from the column at the same
+     * position of the result. The result is therefore a single row holding the final value of every parameter, in
+     * which project_name, customer_id and project_id are set as the procedure sets them in MySQL.
+     *
+     * @return the final value of each parameter.
+     * @throws SQLException if any of the rows could not be inserted; the call is then undone as a whole.
+     */
+    public static ResultSet createProject(Connection connection, String projectName, String projectType,
+            Integer erfNumber, String streetAddress, String suburb, String city, String province, String postCode,
+            Date dateDue, String customerRole, Integer customerId, String firstName, String lastName,
+            String phoneNumber, String emailAddress, Integer customerErfNumber, String customerStreetAddress,
+            String customerSuburb, String customerCity, String customerProvince, String customerPostCode,
+            String roster, Integer projectId) throws SQLException {
+        SimpleResultSet result = new SimpleResultSet();
+        for (String parameter : CREATE_PROJECT_PARAMETERS) {
+            result.addColumn(parameter, Types.VARCHAR, 240, 0);
+        }
+        if (COLUMN_LIST_URL.equals(connection.getMetaData().getURL())) {
+            return result;
+        }
+
+        // H2 does not undo the statements of a function which fails, so the call undoes its own, as the procedure's
+        // exit handler does in MySQL.
+        Savepoint start = connection.setSavepoint();
+        try {
+            if (streetAddress != null) {
+                insertAddress(connection, erfNumber, streetAddress, suburb, city, province, postCode);
+            }
+            if (customerStreetAddress != null) {
+                insertAddress(connection, customerErfNumber, customerStreetAddress, customerSuburb, customerCity,
+                        customerProvince, customerPostCode);
+            }
+            if (customerId == null) {
+                customerId = insert(connection, INSERT_PERSON, firstName, lastName, phoneNumber, emailAddress,
+                        customerErfNumber);
+            }
+            if (projectName == null || projectName.isEmpty()) {
+                try (PreparedStatement select = connection.prepareStatement(SELECT_LAST_NAME)) {
+                    select.setInt(1, customerId);
+                    try (ResultSet customer = select.executeQuery()) {
+                        projectName = customer.next() ? projectType + ' ' + customer.getString(1) : projectType;
+                    }
+                }
+            }
+            // The account of the project is created by the create_account trigger.
+            projectId = insert(connection, INSERT_PROJECT, projectName, projectType, erfNumber);
+            insert(connection, INSERT_PROGRESS, projectId, dateDue);
+            insert(connection, INSERT_PARTICIPANT, projectId, customerId, customerRole);
+            if (roster != null) {
+                Matcher member = ROSTER_MEMBER.matcher(roster);
+                while (member.find()) {
+                    String relationship = member.group(2).replace("\\\"", "\"").replace("\\\\", "\\");
+                    insert(connection, INSERT_PARTICIPANT, projectId, Integer.parseInt(member.group(1)),
+                            relationship);
+                }
+            }
+        } catch (SQLException | RuntimeException error) {
+            connection.rollback(start);
+            throw error;
+        }
+
+        result.addRow(projectName, projectType, erfNumber, streetAddress, suburb, city, province, postCode, dateDue,
+                customerRole, customerId, firstName, lastName, phoneNumber, emailAddress, customerErfNumber,
+                customerStreetAddress, customerSuburb, customerCity, customerProvince, customerPostCode, roster,
+                projectId);
+        return result;
+    }
+
+    private static void insertAddress(Connection connection, Integer erfNumber, String streetAddress, String suburb,
+            String city, String province, String postCode) throws SQLException {
+        insert(connection, INSERT_ADDRESS, erfNumber, streetAddress, suburb, city, province, postCode);
+    }
+
+    /**
+     * Runs {@code sql} with {@code parameters} on {@code connection}.
+     *
+     * @return the key generated for the inserted row; {@code 0} if none was generated.
+     */
+    private static int insert(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                return keys.next() ? keys.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Names the project after its customer when the first customer of a project without a name is assigned, unless
+     * the checks are deferred (check_project_name).
+     */
+    public static class CheckProjectName implements Trigger {
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+            if (!CUSTOMER_ROLE.equals(newRow[PARTICIPANT_RELATIONSHIP]) || areParticipantChecksDeferred(connection)) {
+                return;
+            }
+            Integer projectId = (Integer) newRow[PARTICIPANT_PROJECT];
+            try (PreparedStatement select = connection.prepareStatement(SELECT_PROJECT)) {
+                select.setObject(1, projectId);
+                try (ResultSet project = select.executeQuery()) {
+                    if (project.next() && "".equals(project.getString(1))) {
+                        setDefaultProjectName(connection, projectId, project.getString(2),
+                                (Integer) newRow[PARTICIPANT_PERSON]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rejects a participant whose role is already full in its project, unless the checks are deferred
+     * (check_relationship_on_insert).
+     */
+    public static class CheckRelationshipOnInsert implements Trigger {
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+            if (!areParticipantChecksDeferred(connection)) {
+                limitRelationships(connection, (String) newRow[PARTICIPANT_RELATIONSHIP],
+                        (Integer) newRow[PARTICIPANT_PROJECT]);
+            }
+        }
+    }
+
+    /**
+     * Rejects a change of role to one which is already full in the project (check_relationship_on_update).
+     */
+    public static class CheckRelationshipOnUpdate implements Trigger {
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+            Object relationship = newRow[PARTICIPANT_RELATIONSHIP];
+            if (relationship != null && !relationship.equals(oldRow[PARTICIPANT_RELATIONSHIP])) {
+                limitRelationships(connection, (String) relationship, (Integer) newRow[PARTICIPANT_PROJECT]);
+            }
+        }
+    }
+
+    /**
+     * Gives every new project an account with nothing due or paid (create_account).
+     */
+    public static class CreateAccount implements Trigger {
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+            insert(connection, INSERT_ACCOUNT, newRow[PROJECT_ID]);
+        }
+    }
+
+    /**
+     * Keeps the summary of a project up to date as it is inserted, updated or deleted (summarize_project_on_*).
+     */
+    public static class SummarizeProject implements Trigger {
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+            if (oldRow != null && (newRow == null || !oldRow[PROJECT_ID].equals(newRow[PROJECT_ID]))) {
+                try (PreparedStatement delete = connection.prepareStatement(DELETE_SUMMARY)) {
+                    delete.setObject(1, oldRow[PROJECT_ID]);
+                    delete.executeUpdate();
+                }
+            }
+            if (newRow != null) {
+                refreshProjectSummary(connection, (Integer) newRow[PROJECT_ID]);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the summaries of the projects of an account as it is inserted, updated or deleted
+     * (summarize_account_on_*).
+     */
+    public static class SummarizeAccount implements Trigger {
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+            if (newRow != null) {
+                refreshProjectSummary(connection, (Integer) newRow[ACCOUNT_PROJECT]);
+            }
+            if (oldRow != null && (newRow == null || !oldRow[ACCOUNT_PROJECT].equals(newRow[ACCOUNT_PROJECT]))) {
+                refreshProjectSummary(connection, (Integer) oldRow[ACCOUNT_PROJECT]);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the summaries of the projects of a progress row as it is inserted, updated or deleted
+     * (summarize_progress_on_*).
+     */
+    public static class SummarizeProgress implements Trigger {
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+            if (newRow != null) {
+                refreshProjectSummary(connection, (Integer) newRow[PROGRESS_PROJECT]);
+            }
+            if (oldRow != null && (newRow == null || !oldRow[PROGRESS_PROJECT].equals(newRow[PROGRESS_PROJECT]))) {
+                refreshProjectSummary(connection, (Integer) oldRow[PROGRESS_PROJECT]);
+            }
+        }
+    }
+
+    /**
+     * Updates the address columns of the summaries in place as an address is updated (summarize_address_on_update).
+     */
+    public static class SummarizeAddress implements Trigger {
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+            try (PreparedStatement update = connection.prepareStatement(SUMMARIZE_ADDRESS)) {
+                update.setObject(1, newRow[ADDRESS_ERF_NUMBER]);
+                for (int column = ADDRESS_ERF_NUMBER + 1; column <= ADDRESS_POST_CODE; column++) {
+                    update.setObject(column + 1, newRow[column]);
+                }
+                update.setObject(7, oldRow[ADDRESS_ERF_NUMBER]);
+                update.executeUpdate();
+            }
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package Models.EntityModel;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import Components.TypeRegistry;
+import Entities.Address;
+import Entities.Participant;
+import Entities.Person;
+import Entities.Project;
+import Entities.RoleCoverage;
+
+/**
+ * Runs the operations of an {@link EntityStorage} in the background so that independent lookups can overlap instead
+ * of each blocking the calling thread for a round trip.
+ * 
+ * Each operation runs on its own virtual thread when the runtime supports them (Java 21 and later) and on a cached
+ * pool of daemon threads otherwise. At most {@link EntityStorage#getMaxConnections()} operations run at once; further
+ * operations wait for a permit rather than queueing on the connection pool's borrow timeout.
+ */
+public class AsyncEntityModel {
+    /**
+     * An operation of an {@link EntityStorage}.
+     * 
+     * @param <T> the type of value the operation produces.
+     */
+    @FunctionalInterface
+    public interface Operation<T> {
+        /**
+         * @param model the model to run the operation against.
+         * @return the value produced by the operation.
+         * @throws SQLException if a database access error occurs.
+         */
+        T run(EntityStorage model) throws SQLException;
+    }
+
+    private static AsyncEntityModel modelInstance;
+    private final EntityStorage model;
+    private final ExecutorService executor;
+    /**
+     * Limits the amount of operations running at once to {@link EntityStorage#getMaxConnections()}.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Creates a new AsyncEntityModel instance if no instance exists in this application; gets the existing instance
+     * if it already exists.
+     * 
+     * @param model the model whose operations should be run in the background.
+     * @return the AsyncEntityModel instance for the application.
+     */
+    public static AsyncEntityModel getInstance(EntityStorage model) {
+        if (modelInstance == null) {
+            modelInstance = new AsyncEntityModel(model);
+        }
+        return modelInstance;
+    }
+
+    /**
+     * The constructor for this class.
+     * 
+     * @param model the model whose operations should be run in the background.
+     */
+    private AsyncEntityModel(EntityStorage model) {
+        this.model = model;
+        this.executor = newExecutor();
+        this.permits = new Semaphore(Math.max(1, model.getMaxConnections()), true);
+    }
+
+    /**
+     * @return a virtual-thread-per-task executor if the runtime supports virtual threads; otherwise a cached pool of
+     *         daemon threads.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException unsupported) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "entity-model-async");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Runs {@code operation} in the background once a connection permit is available.
+     * 
+     * @param <T>       the type of value the operation produces.
+     * @param operation the operation to run.
+     * @return a future completed with the value produced by {@code operation}, or completed exceptionally with the
+     *         {@link SQLException} it threw.
+     */
+    public <T> CompletableFuture<T> submit(Operation<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+                try {
+                    future.complete(operation.run(model));
+                } finally {
+                    permits.release();
+                }
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(error);
+            } catch (Throwable error) {
+                future.completeExceptionally(error);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Waits for {@code future} to complete, rethrowing the {@link SQLException} it failed with.
+     * 
+     * @param <T>    the type of value produced by the future.
+     * @param future the future to wait for.
+     * @return the value produced by the future.
+     * @throws SQLException if the operation failed with a database access error or the wait was interrupted.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(error.getLocalizedMessage(), error);
+        } catch (ExecutionException | CompletionException error) {
+            Throwable cause = error.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException(cause);
+        }
+    }
+
+    /**
+     * @see EntityQuerier#getProjects(String)
+     */
+    public CompletableFuture<List<Project>> getProjects(String view) {
+        return submit(model -> model.getProjects(view));
+    }
+
+    /**
+     * @see EntityQuerier#getProjectPage(String, int, int, boolean)
+     */
+    public CompletableFuture<List<Project>> getProjectPage(String view, int projectId, int pageSize,
+            boolean forward) {
+        return submit(model -> model.getProjectPage(view, projectId, pageSize, forward));
+    }
+
+    /**
+     * @see EntityQuerier#selectProject(int)
+     */
+    public CompletableFuture<Project> selectProject(int projectId) {
+        return submit(model -> model.selectProject(projectId));
+    }
+
+    /**
+     * @see EntityQuerier#selectProject(String)
+     */
+    public CompletableFuture<Project> selectProject(String projectName) {
+        return submit(model -> model.selectProject(projectName));
+    }
+
+    /**
+     * @see EntityQuerier#getParticipants(int)
+     */
+    public CompletableFuture<HashMap<String, Person>> getParticipants(int projectId) {
+        return submit(model -> model.getParticipants(projectId));
+    }
+
+    /**
+     * @see EntityQuerier#getRoleCoverage(TypeRegistry)
+     */
+    public CompletableFuture<List<RoleCoverage>> getRoleCoverage(TypeRegistry types) {
+        return submit(model -> model.getRoleCoverage(types));
+    }
+
+    /**
+     * @see EntityQuerier#loadTypes(long)
+     */
+    public CompletableFuture<TypeRegistry> loadTypes(long version) {
+        return submit(model -> model.loadTypes(version));
+    }
+
+    /**
+     * @see EntityQuerier#selectPerson(String)
+     */
+    public CompletableFuture<Person> selectPerson(String phoneNumber) {
+        return submit(model -> model.selectPerson(phoneNumber));
+    }
+
+    /**
+     * @see EntityQuerier#selectPerson(int)
+     */
+    public CompletableFuture<Person> selectPerson(int personId) {
+        return submit(model -> model.selectPerson(personId));
+    }
+
+    /**
+     * @see EntityQuerier#getAddress(int)
+     */
+    public CompletableFuture<String> getAddress(int erfNumber) {
+        return submit(model -> model.getAddress(erfNumber));
+    }
+
+    /**
+     * @see EntityUpdater#registerPerson(String, String, String, String, int, String)
+     */
+    public CompletableFuture<Person> registerPerson(String firstName, String lastName, String emailAddress,
+            String phoneNumber, int erfNumber, String physicalAddress) {
+        return submit(model -> model.registerPerson(firstName, lastName, emailAddress, phoneNumber, erfNumber,
+                physicalAddress));
+    }
+
+    /**
+     * @see EntityUpdater#registerPeople(List)
+     */
+    public CompletableFuture<BatchResult<Person>> registerPeople(List<Person> people) {
+        return submit(model -> model.registerPeople(people));
+    }
+
+    /**
+     * @see EntityUpdater#registerParticipant(int, int, String)
+     */
+    public CompletableFuture<Integer> registerParticipant(int projectId, int personId, String role) {
+        return submit(model -> model.registerParticipant(projectId, personId, role));
+    }
+
+    /**
+     * @see EntityUpdater#registerParticipants(List, TypeRegistry)
+     */
+    public CompletableFuture<BatchResult<Participant>> registerParticipants(List<Participant> participants,
+            TypeRegistry types) {
+        return submit(model -> model.registerParticipants(participants, types));
+    }
+
+    /**
+     * @see EntityUpdater#registerProject(String, String, int, String)
+     */
+    public CompletableFuture<Project> registerProject(String projectName, String projectType, int erfNumber,
+            String projectAddress) {
+        return submit(model -> model.registerProject(projectName, projectType, erfNumber, projectAddress));
+    }
+
+    /**
+     * @see EntityUpdater#createProject(String, String, int, String, String, Person, Map, Collection)
+     */
+    public CompletableFuture<Project> createProject(String projectName, String projectType, int erfNumber,
+            String projectAddress, String dueDate, Person customer, Map<String, Person> roster,
+            Collection<Address> newAddresses) {
+        return submit(model -> model.createProject(projectName, projectType, erfNumber, projectAddress, dueDate,
+                customer, roster, newAddresses));
+    }
+
+    /**
+     * @see EntityUpdater#registerProjects(List)
+     */
+    public CompletableFuture<BatchResult<Project>> registerProjects(List<Project> projects) {
+        return submit(model -> model.registerProjects(projects));
+    }
+
+    /**
+     * @see EntityUpdater#registerAddress(int, String, String, String, String, int)
+     */
+    public CompletableFuture<Integer> registerAddress(int erfNumber, String streetAddress, String suburb,
+            String city, String province, int postCode) {
+        return submit(model -> model.registerAddress(erfNumber, streetAddress, suburb, city, province, postCode));
+    }
+
+    /**
+     * @see EntityUpdater#registerAddresses(List)
+     */
+    public CompletableFuture<BatchResult<Address>> registerAddresses(List<Address> addresses) {
+        return submit(model -> model.registerAddresses(addresses));
+    }
+
+    /**
+     * @see EntityUpdater#updateProgress(int, String, String)
+     */
+    public CompletableFuture<Boolean> updateProgress(int projectId, String dueDate, String dateFinalized) {
+        return submit(model -> model.updateProgress(projectId, dueDate, dateFinalized));
+    }
+
+    /**
+     * @see EntityUpdater#updateAccount(int, int, int)
+     */
+    public CompletableFuture<Boolean> updateAccount(int projectId, int amountDue, int amountPaid) {
+        return submit(model -> model.updateAccount(projectId, amountDue, amountPaid));
+    }
+
+    /**
+     * @see EntityUpdater#updateContactDetails(int, String, String)
+     */
+    public CompletableFuture<Boolean> updateContactDetails(int personId, String phoneNumber, String emailAddress) {
+        return submit(model -> model.updateContactDetails(personId, phoneNumber, emailAddress));
+    }
+
+    /**
+     * Stops accepting operations; operations already submitted still complete.
+     */
+    public void close() {
+        executor.shutdown();
+    }
+}
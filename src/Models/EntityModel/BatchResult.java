@@ -0,0 +1,136 @@
+package Models.EntityModel;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of each row written by {@link QueryModel#batch(Components.CompiledQuery, List, Interfaces.RowBinder)}.
+ * 
+ * @param <T> the type of object each row was read from.
+ */
+public class BatchResult<T> {
+    /**
+     * The rows in the order they were written.
+     */
+    private final List<T> rows;
+    /**
+     * The key generated for each row, or the amount of rows it affected if the statement does not return generated
+     * keys; {@code null} if the row failed.
+     */
+    private final Integer[] keys;
+    /**
+     * The error raised by each row; {@code null} if the row succeeded.
+     */
+    private final SQLException[] errors;
+
+    /**
+     * The constructor for BatchResult.
+     * 
+     * @param rows the rows being written.
+     */
+    BatchResult(List<T> rows) {
+        this.rows = rows;
+        this.keys = new Integer[rows.size()];
+        this.errors = new SQLException[rows.size()];
+    }
+
+    /**
+     * @param index the index of the row.
+     * @param key   the key generated for the row, or the amount of rows it affected.
+     */
+    void succeeded(int index, int key) {
+        keys[index] = key;
+        errors[index] = null;
+    }
+
+    /**
+     * @param index the index of the row.
+     * @param error the reason the row could not be written.
+     */
+    void failed(int index, SQLException error) {
+        keys[index] = null;
+        errors[index] = error;
+    }
+
+    /**
+     * @return the amount of rows in the batch.
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * @param index the index of the row.
+     * @return the row at {@code index}.
+     */
+    public T getRow(int index) {
+        return rows.get(index);
+    }
+
+    /**
+     * @param index the index of the row.
+     * @return the key generated for the row, or the amount of rows it affected if the statement does not return
+     *         generated keys; {@code null} if the row failed.
+     */
+    public Integer getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @param index the index of the row.
+     * @return the reason the row could not be written; {@code null} if it was written.
+     */
+    public SQLException getError(int index) {
+        return errors[index];
+    }
+
+    /**
+     * @param index the index of the row.
+     * @return {@code true} if the row was written.
+     */
+    public boolean isSuccessful(int index) {
+        return keys[index] != null;
+    }
+
+    /**
+     * @return the indices of the rows which could not be written, in ascending order.
+     */
+    public List<Integer> getFailedIndices() {
+        List<Integer> failed = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                failed.add(i);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * @return the amount of rows which were written.
+     */
+    public int getSuccessCount() {
+        return size() - getFailedIndices().size();
+    }
+
+    /**
+     * @return {@code true} if every row was written.
+     */
+    public boolean isComplete() {
+        return getFailedIndices().isEmpty();
+    }
+
+    /**
+     * Lists each failed row with its error.
+     */
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder()
+                .append(getSuccessCount()).append(" of ").append(size()).append(" rows written.");
+        for (int index : getFailedIndices()) {
+            summary.append("\n  row ").append(index).append(" (").append(rows.get(index)).append("): ")
+                    .append(errors[index] == null ? "not written" : errors[index].getLocalizedMessage());
+        }
+        return summary.toString();
+    }
+}
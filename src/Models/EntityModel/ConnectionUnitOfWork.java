@@ -0,0 +1,242 @@
+package Models.EntityModel;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import Components.CompiledQuery;
+import Interfaces.IQuery;
+import Interfaces.StatementBinder;
+import Models.DatabaseConnectionModel;
+
+/**
+ * A {@link UnitOfWork} which groups the statements of a single user action into one transaction on one connection.
+ *
+ * While a unit of work is open, every statement the {@link EntityModel} executes on the thread which began it uses
+ * the unit's connection. Single-row writes are deferred and sent as batches (one per run of writes with the same
+ * statement) when the unit is flushed, which happens before any other statement is executed so that reads see the
+ * unit's own writes, and when it is committed. A unit which is closed without being committed is rolled back.
+ *
+ * A unit of work must be used with try-with-resources on the thread which began it; statements executed by other
+ * threads (e.g. through {@link AsyncEntityModel}) are not part of it.
+ */
+class ConnectionUnitOfWork implements UnitOfWork {
+    /**
+     * The unit of work open on each thread.
+     */
+    private static final ThreadLocal<ConnectionUnitOfWork> CURRENT = new ThreadLocal<>();
+    private static final String ROLLBACK_ONLY_MESSAGE = "A write of the unit of work failed, so it can only be rolled back.";
+
+    private final Operation operation;
+    private final Connection connection;
+    /**
+     * A view of {@link #connection} whose {@code close()} does nothing, handed to the statements of this unit.
+     */
+    private final Connection sharedConnection;
+    private final boolean autoCommit;
+    private final int isolation;
+    /**
+     * The writes which have not been sent to the database yet, in order.
+     */
+    private final List<DeferredWrite> writes = new ArrayList<>();
+    private final List<Runnable> rollbackActions = new ArrayList<>();
+    private final List<Runnable> commitActions = new ArrayList<>();
+    private boolean committed;
+    /**
+     * Whether a flush failed, leaving some of the deferred writes applied and others not.
+     */
+    private boolean rollbackOnly;
+
+    /**
+     * A single-row write waiting to be flushed.
+     */
+    private static class DeferredWrite {
+        final CompiledQuery query;
+        final StatementBinder binder;
+
+        DeferredWrite(CompiledQuery query, StatementBinder binder) {
+            this.query = query;
+            this.binder = binder;
+        }
+    }
+
+    /**
+     * Begins a unit of work on the current thread.
+     *
+     * @param database  the database from which to borrow the unit's connection.
+     * @param operation the type of unit of work.
+     * @throws IllegalStateException if a unit of work is already open on the current thread.
+     * @throws SQLException          if the connection cannot be borrowed or prepared.
+     */
+    ConnectionUnitOfWork(DatabaseConnectionModel database, Operation operation) throws SQLException {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("A unit of work is already open on this thread.");
+        }
+        this.operation = operation;
+        this.connection = database.borrow();
+        try {
+            this.autoCommit = connection.getAutoCommit();
+            this.isolation = connection.getTransactionIsolation();
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(
+                    database.getIsolationLevel(operation.getKey(), operation.getDefaultIsolation()));
+        } catch (SQLException | RuntimeException error) {
+            try {
+                connection.close();
+            } catch (SQLException closeError) {
+                error.addSuppressed(closeError);
+            }
+            throw error;
+        }
+        this.sharedConnection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, arguments) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, arguments);
+                    } catch (InvocationTargetException error) {
+                        throw error.getCause();
+                    }
+                });
+        CURRENT.set(this);
+    }
+
+    /**
+     * @return the unit of work open on the current thread; {@code null} if there is none.
+     */
+    static ConnectionUnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Flushes the deferred writes and returns the connection of this unit, for a statement which must be executed
+     * now. Closing the returned connection does not close the unit's connection.
+     *
+     * @throws SQLException if a deferred write fails.
+     */
+    Connection borrow() throws SQLException {
+        flush();
+        return sharedConnection;
+    }
+
+    /**
+     * Defers a write of exactly one row until this unit is flushed.
+     *
+     * @param query  the insert, update or delete statement.
+     * @param binder sets the values of the placeholders in {@code query}.
+     */
+    void defer(CompiledQuery query, StatementBinder binder) {
+        writes.add(new DeferredWrite(query, binder));
+    }
+
+    /**
+     * @param action run if this unit is rolled back, e.g. to discard cached values written by the unit.
+     */
+    void onRollback(Runnable action) {
+        rollbackActions.add(action);
+    }
+
+    /**
+     * @param action run once this unit is committed, e.g. to discard cached values read before its writes were.
+     */
+    void onCommit(Runnable action) {
+        commitActions.add(action);
+    }
+
+    /**
+     * Sends the deferred writes to the database, batching each run of writes with the same statement.
+     *
+     * @throws SQLException if a write fails or does not write exactly one row.
+     */
+    @Override
+    public void flush() throws SQLException {
+        if (rollbackOnly) {
+            throw new SQLException(ROLLBACK_ONLY_MESSAGE);
+        }
+        try {
+            sendWrites();
+        } catch (SQLException | RuntimeException error) {
+            rollbackOnly = true;
+            throw error;
+        } finally {
+            writes.clear();
+        }
+    }
+
+    /**
+     * @see #flush()
+     */
+    private void sendWrites() throws SQLException {
+        int start = 0;
+        while (start < writes.size()) {
+            CompiledQuery query = writes.get(start).query;
+            int end = start + 1;
+            while (end < writes.size() && writes.get(end).query == query) {
+                end++;
+            }
+            try (PreparedStatement statement = query.prepare(connection)) {
+                for (int i = start; i < end; i++) {
+                    writes.get(i).binder.bind(statement);
+                    statement.addBatch();
+                }
+                for (int updateCount : statement.executeBatch()) {
+                    // Rewritten multi-row inserts report SUCCESS_NO_INFO for each row.
+                    if (updateCount != 1 && updateCount != PreparedStatement.SUCCESS_NO_INFO) {
+                        throw new SQLException(IQuery.UPDATE_FAILURE_MESSAGE);
+                    }
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Flushes the deferred writes and commits this unit.
+     *
+     * @throws IllegalStateException if this unit was already committed.
+     * @throws SQLException          if a write or the commit fails, or an earlier flush failed; the unit is rolled
+     *                               back when closed.
+     */
+    @Override
+    public void commit() throws SQLException {
+        if (committed) {
+            throw new IllegalStateException("The unit of work was already committed.");
+        }
+        flush();
+        connection.commit();
+        committed = true;
+        commitActions.forEach(Runnable::run);
+    }
+
+    /**
+     * Rolls this unit back unless it was committed, and returns its connection to the pool.
+     *
+     * @throws SQLException if the connection cannot be rolled back or restored.
+     */
+    @Override
+    public void close() throws SQLException {
+        CURRENT.remove();
+        try (connection) {
+            if (!committed) {
+                writes.clear();
+                try {
+                    connection.rollback();
+                } finally {
+                    rollbackActions.forEach(Runnable::run);
+                }
+            }
+            connection.setTransactionIsolation(isolation);
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
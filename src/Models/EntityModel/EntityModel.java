@@ -2,11 +2,12 @@ package Models.EntityModel;
 
 import java.sql.SQLException;
 
-import Components.QueryBuilder;
 import Models.DatabaseConnectionModel;
 
-
-public class EntityModel extends EntityUpdater {
+/**
+ * The {@link EntityStorage} backed by the MySQL database.
+ */
+public class EntityModel extends EntityUpdater implements EntityStorage {
     private static EntityModel modelInstance;
 
     /** 
@@ -19,8 +20,7 @@ public class EntityModel extends EntityUpdater {
      */
     public static EntityModel getInstance(DatabaseConnectionModel dbInstance) throws SQLException {
         if (modelInstance == null) {
-            QueryBuilder qb = QueryBuilder.getInstance(dbInstance);
-            modelInstance = new EntityModel(qb);
+            modelInstance = new EntityModel(dbInstance);
         }
         return modelInstance;
     }
@@ -28,9 +28,9 @@ public class EntityModel extends EntityUpdater {
     /**
      * The constructor for this class.
      * 
-     * @param queryBuilder to be used to create and execute queries.
+     * @param database from which connections are borrowed to execute queries.
      */
-    private EntityModel(QueryBuilder queryBuilder) {
-        super(queryBuilder);
+    private EntityModel(DatabaseConnectionModel database) {
+        super(database);
     }
 }
@@ -1,175 +1,466 @@
 package Models.EntityModel;
 
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import Components.ColumnMapper;
+import Components.CompiledQuery;
 import Components.QueryBuilder;
+import Components.TypeRegistry;
+import Entities.Person;
+import Entities.Project;
+import Entities.RoleCoverage;
+import Factories.PersonFactory;
+import Factories.ProjectFactory;
+import Interfaces.ResultsHandler;
+import Interfaces.RowMapper;
+import Interfaces.StatementBinder;
+import Models.DatabaseConnectionModel;
 
 public abstract class EntityQuerier extends QueryModel {
-    public EntityQuerier(QueryBuilder queryBuilder) {
-        super(queryBuilder);
+    /**
+     * The columns selected from the {@code people} view.
+     */
+    private static final String[] PERSON_COLUMNS = {
+            "person_id",
+            "erf_number",
+            "first_name",
+            "last_name",
+            "email_address",
+            "phone_number",
+            "physical_address" };
+    /**
+     * Maps each row of the {@code participants} view to its relationship type and person.
+     */
+    private static final RowMapper<Map.Entry<String, Person>> PARTICIPANT_MAPPER = new ColumnMapper<>(
+            Stream.concat(Arrays.stream(PersonFactory.ROW_COLUMNS), Stream.of("relationship_type"))
+                    .toArray(String[]::new)) {
+        @Override
+        protected Map.Entry<String, Person> map(ResultSet results, int[] columns) throws SQLException {
+            String role = results.getString(columns[PersonFactory.ROW_COLUMNS.length]);
+            return new AbstractMap.SimpleImmutableEntry<>(role, PersonFactory.fromColumns(results, columns));
+        }
+    };
+    /**
+     * The query listing all projects in each of the project views, keyed by view name.
+     */
+    private static final Map<String, CompiledQuery> SELECT_PROJECTS = forProjectViews(
+            view -> new QueryBuilder().select(view, "*").compile());
+    /**
+     * The query listing the projects after a given project_id in each of the project views, keyed by view name.
+     */
+    private static final Map<String, CompiledQuery> SELECT_NEXT_PROJECTS = forProjectViews(
+            view -> new QueryBuilder().select(view, "*")
+                    .where("project_id", ">")
+                    .orderBy("project_id", false)
+                    .limit().compile());
+    /**
+     * The query listing the projects before a given project_id in each of the project views, keyed by view name.
+     */
+    private static final Map<String, CompiledQuery> SELECT_PREVIOUS_PROJECTS = forProjectViews(
+            view -> new QueryBuilder().select(view, "*")
+                    .where("project_id", "<")
+                    .orderBy("project_id", true)
+                    .limit().compile());
+    /**
+     * The query selecting every row of each of the exportable views, keyed by view name.
+     */
+    private static final Map<String, CompiledQuery> SELECT_VIEWS = Arrays.stream(EXPORTABLE_VIEWS)
+            .collect(Collectors.toUnmodifiableMap(Function.identity(),
+                    view -> new QueryBuilder().select(view, "*").compile()));
+    private static final CompiledQuery SELECT_PROJECT_BY_ID = new QueryBuilder()
+            .select(PROJECT_SUMMARY_TABLE, "*")
+            .where("project_id")
+            .compile();
+    private static final CompiledQuery SELECT_PROJECT_BY_NAME = new QueryBuilder()
+            .select(PROJECT_SUMMARY_TABLE, "*")
+            .where("project_name")
+            .compile();
+    private static final CompiledQuery SELECT_PARTICIPANTS = new QueryBuilder()
+            .select("participants", "*")
+            .where("project_id")
+            .compile();
+    private static final CompiledQuery SELECT_ROLE_COVERAGE = new QueryBuilder()
+            .select("role_coverage", "project_id", "project_name", "relationships")
+            .compile();
+    private static final CompiledQuery SELECT_BUILDING_TYPES = new QueryBuilder()
+            .select("building", "building_type")
+            .orderBy("t_id", false)
+            .compile();
+    private static final CompiledQuery SELECT_RELATIONSHIP_TYPES = new QueryBuilder()
+            .select("relationship", "relationship_type", "max_allowed")
+            .orderBy("t_id", false)
+            .compile();
+    private static final CompiledQuery SELECT_PERSON_BY_PHONE = new QueryBuilder()
+            .select("people", PERSON_COLUMNS)
+            .where("phone_number")
+            .compile();
+    private static final CompiledQuery SELECT_PERSON_BY_ID = new QueryBuilder()
+            .select("people", PERSON_COLUMNS)
+            .where("person_id")
+            .compile();
+    private static final CompiledQuery SELECT_ADDRESS = new QueryBuilder()
+            .select("addresses", "full_address")
+            .where("erf_number")
+            .compile();
+    private static final CompiledQuery SELECT_PERSON_ID_BY_EMAIL = new QueryBuilder()
+            .select("person", "person_id")
+            .where("email_address")
+            .compile();
+    private static final CompiledQuery COUNT_ADDRESSES = new QueryBuilder()
+            .select("address", "COUNT(*)")
+            .compile();
+    private static final CompiledQuery COUNT_PEOPLE = new QueryBuilder()
+            .select("person", "COUNT(*)")
+            .compile();
+    private static final CompiledQuery SELECT_ERF_NUMBERS = new QueryBuilder()
+            .select("address", "erf_number")
+            .compile();
+    private static final CompiledQuery SELECT_CONTACT_DETAILS = new QueryBuilder()
+            .select("person", "phone_number", "email_address")
+            .compile();
+
+    /**
+     * The people read from the database; {@code null} if caching is disabled.
+     */
+    protected final PersonCache people;
+    /**
+     * The projects read from the database; {@code null} if caching is disabled.
+     */
+    protected final ProjectCache projects;
+    /**
+     * The ERF numbers, phone numbers and email addresses in the database; {@code null} if filtering is disabled.
+     */
+    protected final KeyFilters keys;
+
+    public EntityQuerier(DatabaseConnectionModel database) {
+        super(database);
+        int personCacheSize = database.getPersonCacheSize(),
+                projectCacheSize = database.getProjectCacheSize();
+        people = personCacheSize > 0 ? new PersonCache(personCacheSize) : null;
+        projects = projectCacheSize > 0
+                ? new ProjectCache(projectCacheSize, database.getProjectCacheTimeToLive())
+                : null;
+        keys = database.isKeyFilteringEnabled() ? new KeyFilters() : null;
     }
 
     /**
-     * Retrieves the last inserted ID from the database.
+     * The project views are mergeable filters over {@link #PROJECT_SUMMARY_TABLE} (see sql/helpers/summary.sql), so
+     * each query on them is resolved against the indexes of that table.
      * 
-     * @return the id of the last item insert into the database.
-     * @throws SQLException if a database access error occurs.
+     * @param compiler creates the query for a project view.
+     * @return the query created by {@code compiler} for each project view, keyed by view name.
+     */
+    private static Map<String, CompiledQuery> forProjectViews(Function<String, CompiledQuery> compiler) {
+        return Map.of(
+                PROJECTS_VIEW, compiler.apply(PROJECTS_VIEW),
+                INCOMPLETE_PROJECTS_VIEW, compiler.apply(INCOMPLETE_PROJECTS_VIEW),
+                OUTSTANDING_PROJECTS_VIEW, compiler.apply(OUTSTANDING_PROJECTS_VIEW),
+                FINALIZED_PROJECTS_VIEW, compiler.apply(FINALIZED_PROJECTS_VIEW));
+    }
+
+    /**
+     * @param queries the queries keyed by project view.
+     * @param view    the view to get the query for.
+     * @return the query for {@code view}.
+     * @throws IllegalArgumentException if {@code view} is not a project view.
      */
-    public Integer getLastInsertId() throws SQLException {
-        ResultSet results = queryBuilder.select("LAST_INSERT_ID() as last_insert_id").prepare().executeQuery();
-        if (results.next()) {
-            return results.getInt("last_insert_id");
+    private static CompiledQuery forProjectView(Map<String, CompiledQuery> queries, String view)
+            throws IllegalArgumentException {
+        CompiledQuery query = queries.get(view);
+        if (query == null) {
+            throw new IllegalArgumentException(String.format(PROJECT_VIEW_INVALID_MESSAGE, view));
         }
-        return null;
+        return query;
     }
 
     /** 
-     * @param view
-     * @return ResultSet
-     * @throws SQLException
-     */
-    public ResultSet getProjects(String view) throws SQLException {
-        PreparedStatement statement = queryBuilder.select(view, "*").prepare();
-        ResultSet results = statement.executeQuery();
-        if (!results.next()) {
-            return null;
-        }
-        return results;
+     * @param view one of the project views defined in {@link Interfaces.IQuery}.
+     * @return all the projects in {@code view}.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if {@code view} is not a project view.
+     */
+    public List<Project> getProjects(String view) throws SQLException, IllegalArgumentException {
+        return query(forProjectView(SELECT_PROJECTS, view), StatementBinder.NO_PARAMETERS,
+                ProjectFactory.ROW_MAPPER);
     }
 
+    /** 
+     * Streams the projects in {@code view} from a server-side cursor, mapping each row only when it is consumed.
+     * 
+     * @param view one of the project views defined in {@link Interfaces.IQuery}.
+     * @return the projects in {@code view}; must be closed once consumed.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if {@code view} is not a project view.
+     */
+    public Stream<Project> streamProjects(String view) throws SQLException, IllegalArgumentException {
+        return stream(forProjectView(SELECT_PROJECTS, view), StatementBinder.NO_PARAMETERS,
+                ProjectFactory.ROW_MAPPER);
+    }
+
+    /** 
+     * Gets a page of the projects in {@code view} using the project_id of the adjacent page as the key, so that each
+     * page is a single index range scan regardless of how deep into the listing it is.
+     * 
+     * @param view      one of the project views defined in {@link Interfaces.IQuery}.
+     * @param projectId the last project_id of the previous page if {@code forward}; otherwise the first project_id of
+     *                  the next page.
+     * @param pageSize  the maximum amount of projects in the page.
+     * @param forward   whether to get the page after {@code projectId} rather than the page before it.
+     * @return the projects in the page, in ascending order of project_id.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if {@code view} is not a project view.
+     */
+    public List<Project> getProjectPage(String view, int projectId, int pageSize, boolean forward)
+            throws SQLException, IllegalArgumentException {
+        List<Project> page = query(forProjectView(forward ? SELECT_NEXT_PROJECTS : SELECT_PREVIOUS_PROJECTS, view),
+                selection -> {
+                    selection.setInt(1, projectId);
+                    selection.setInt(2, pageSize);
+                }, ProjectFactory.ROW_MAPPER);
+        if (!forward) {
+            Collections.reverse(page);
+        }
+        return page;
+    }
 
+    /** 
+     * Reads every row of {@code view} from a server-side cursor, passing the results to {@code handler}.
+     * 
+     * @param <T>     the type of value produced from the results.
+     * @param view    one of {@link Interfaces.IQuery#EXPORTABLE_VIEWS}.
+     * @param handler consumes the results.
+     * @return the value produced by {@code handler}.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if {@code view} cannot be exported.
+     */
+    public <T> T scanView(String view, ResultsHandler<T> handler) throws SQLException, IllegalArgumentException {
+        CompiledQuery selection = SELECT_VIEWS.get(view);
+        if (selection == null) {
+            throw new IllegalArgumentException(EXPORT_VIEW_INVALID_MESSAGE);
+        }
+        return scan(selection, StatementBinder.NO_PARAMETERS, handler);
+    }
 
     /** 
      * @param projectId the id of the project being selected
-     * @return a {@link ResultSet} if the project exists;{@null} if the project does not exist.
+     * @return the {@link Project} if the project exists; {@code null} if the project does not exist.
      * @throws SQLException if a database access error occurs.
      */
-    public ResultSet selectProject(int projectId) throws SQLException {
-        PreparedStatement query = queryBuilder
-                .select("projects", "*")
-                .where("project_id")
-                .prepare();
-        query.setInt(1, projectId);
-        ResultSet results = query.executeQuery();
-        if (results.next()) {
-            return results;
+    public Project selectProject(int projectId) throws SQLException {
+        if (projects == null) {
+            return queryOne(SELECT_PROJECT_BY_ID, query -> query.setInt(1, projectId), ProjectFactory.ROW_MAPPER);
         }
-        return null;
+        Project project = projects.get(projectId);
+        if (project != null) {
+            return project;
+        }
+        long loadVersion = projects.beginLoad();
+        project = queryOne(SELECT_PROJECT_BY_ID, query -> query.setInt(1, projectId), ProjectFactory.ROW_MAPPER);
+        projects.putLoaded(project, loadVersion);
+        return project;
     }
 
     /** 
-     * @param projectId the id of the project being selected
-     * @return a {@link ResultSet} if the project exists;{@null} if the project does not exist.
+     * @param projectName the name of the project being selected
+     * @return the {@link Project} if the project exists; {@code null} if the project does not exist.
      * @throws SQLException if a database access error occurs.
      */
-    public ResultSet selectProject(String projectName) throws SQLException {
-        PreparedStatement query = queryBuilder
-                .select("projects", "*")
-                .where("project_name")
-                .prepare();
-        query.setString(1, projectName);
-        ResultSet results = query.executeQuery();
-        if (results.next()) {
-            return results;
+    public Project selectProject(String projectName) throws SQLException {
+        if (projects == null) {
+            return queryOne(SELECT_PROJECT_BY_NAME, query -> query.setString(1, projectName),
+                    ProjectFactory.ROW_MAPPER);
+        }
+        Project project = projects.getByName(projectName);
+        if (project != null) {
+            return project;
         }
-        return null;
+        long loadVersion = projects.beginLoad();
+        project = queryOne(SELECT_PROJECT_BY_NAME, query -> query.setString(1, projectName),
+                ProjectFactory.ROW_MAPPER);
+        projects.putLoaded(project, loadVersion);
+        return project;
     }
 
     /** 
      * @param projectId the id of the project in which the participants are involved.
-     * @return the ResultSet of participants if they exist; otherwise null.
+     * @return the participants of the project keyed by their role; empty if there are none.
      * @throws SQLException if a database communication error occurs.
      */
-    public ResultSet getParticipants(int projectId) throws SQLException {
-        PreparedStatement selection = queryBuilder
-                .select("participants", "*")
-                .where("project_id").prepare();
-        selection.setInt(1, projectId);
-        ResultSet results = selection.executeQuery();
-        if (results.next()) {
-            return results;
+    public HashMap<String, Person> getParticipants(int projectId) throws SQLException {
+        HashMap<String, Person> participants = new HashMap<>();
+        for (Map.Entry<String, Person> participant : query(SELECT_PARTICIPANTS,
+                selection -> selection.setInt(1, projectId), PARTICIPANT_MAPPER)) {
+            participants.put(participant.getKey(), participant.getValue());
         }
-        return null;
+        if (people != null) {
+            // Participants are likely to be looked up again while the project is selected.
+            participants.values().forEach(people::put);
+        }
+        return participants;
+    }
+
+    /**
+     * Reads the roles filled in every project with a single aggregated query.
+     * 
+     * @param types the relationship types to map the roles to; roles not in {@code types} are ignored.
+     * @return the role coverage of each project.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<RoleCoverage> getRoleCoverage(TypeRegistry types) throws SQLException {
+        return query(SELECT_ROLE_COVERAGE, StatementBinder.NO_PARAMETERS, results -> {
+            String relationships = results.getString("relationships");
+            return new RoleCoverage(results.getInt("project_id"), results.getString("project_name"),
+                    relationships == null ? 0 : types.getRoleMask(Arrays.asList(relationships.split(","))));
+        });
     }
 
-    
     /** 
-     * @return ResultSet
-     * @throws SQLException
+     * @param version the version to give the loaded registry.
+     * @return the building and relationship types, each in the order they were defined, with the quota of each
+     *         relationship type.
+     * @throws SQLException if a database access error occurs.
      */
-    public ResultSet loadTypes() throws SQLException {
-        ResultSet results = queryBuilder.select("types_view", "relationship_type", "building_type")
-                .prepare().executeQuery();
+    public TypeRegistry loadTypes(long version) throws SQLException {
+        List<String> buildingTypes = query(SELECT_BUILDING_TYPES, StatementBinder.NO_PARAMETERS,
+                results -> results.getString("building_type"));
+        List<String> roleTypes = new ArrayList<>();
+        List<Integer> quotas = new ArrayList<>();
+        scan(SELECT_RELATIONSHIP_TYPES, StatementBinder.NO_PARAMETERS, results -> {
+            while (results.next()) {
+                roleTypes.add(results.getString("relationship_type"));
+                int maxAllowed = results.getInt("max_allowed");
+                // A NULL quota never matches the participant count in limit_relationships.
+                quotas.add(results.wasNull() ? Integer.MAX_VALUE : maxAllowed);
+            }
+            return null;
+        });
+        return new TypeRegistry(version, buildingTypes, roleTypes,
+                quotas.stream().mapToInt(Integer::intValue).toArray());
+    }
 
-        if (results.next()) {
-            return results;
+    /**
+     * Loads every ERF number, phone number and email address in the database into memory, so that lookups of keys
+     * which do not exist yet are answered without a query. Does nothing if filtering is disabled.
+     * 
+     * @throws SQLException if a database access error occurs.
+     */
+    public void loadKeyFilters() throws SQLException {
+        if (keys == null) {
+            return;
         }
-        return null;
+        keys.reset(queryOne(COUNT_ADDRESSES, StatementBinder.NO_PARAMETERS, results -> results.getLong(1)),
+                queryOne(COUNT_PEOPLE, StatementBinder.NO_PARAMETERS, results -> results.getLong(1)));
+        scan(SELECT_ERF_NUMBERS, StatementBinder.NO_PARAMETERS, results -> {
+            while (results.next()) {
+                keys.addErfNumber(results.getInt(1));
+            }
+            return null;
+        });
+        scan(SELECT_CONTACT_DETAILS, StatementBinder.NO_PARAMETERS, results -> {
+            while (results.next()) {
+                keys.addPhoneNumber(results.getString(1));
+                keys.addEmailAddress(results.getString(2));
+            }
+            return null;
+        });
+        keys.ready();
     }
 
-    
     /** 
-     * @param phoneNumber
-     * @return ResultSet
-     * @throws SQLException
-     */
-    public ResultSet selectPerson(String phoneNumber) throws SQLException {
-        PreparedStatement query = queryBuilder.select("people",
-                "person_id",
-                "erf_number",
-                "first_name",
-                "last_name",
-                "email_address",
-                "phone_number",
-                "physical_address").where("phone_number")
-                .prepare();
-        query.setString(1, phoneNumber);
-        ResultSet results = query.executeQuery();
-        if (results.next()) {
-            return results;
-        }
-        return null;
-    }
-
-    
+     * @param phoneNumber the phone number of the person.
+     * @return the {@link Person} if found; otherwise {@code null}.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Person selectPerson(String phoneNumber) throws SQLException {
+        if (keys != null && !keys.mayHavePhoneNumber(phoneNumber)) {
+            return null;
+        }
+        Person person = people == null ? null : people.getByPhone(phoneNumber);
+        if (person != null) {
+            return person;
+        }
+        long loadVersion = people == null ? 0 : people.beginLoad();
+        person = queryOne(SELECT_PERSON_BY_PHONE, query -> query.setString(1, phoneNumber),
+                PersonFactory.ROW_MAPPER);
+        if (people != null) {
+            people.putLoaded(person, loadVersion);
+        }
+        return person;
+    }
+
     /** 
-     * @param personId
-     * @return ResultSet
-     * @throws SQLException
-     */
-    public ResultSet selectPerson(int personId) throws SQLException {
-        PreparedStatement query = queryBuilder.select("people",
-                "person_id",
-                "erf_number",
-                "first_name",
-                "last_name",
-                "email_address",
-                "phone_number",
-                "physical_address").where("person_id")
-                .prepare();
-        query.setInt(1, personId);
-        ResultSet results = query.executeQuery();
-        if (results.next()) {
-            return results;
-        }
-        return null;
-    }
-
-    
+     * @param personId the id of the person.
+     * @return the {@link Person} if found; otherwise {@code null}.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Person selectPerson(int personId) throws SQLException {
+        Person person = people == null ? null : people.get(personId);
+        if (person != null) {
+            return person;
+        }
+        long loadVersion = people == null ? 0 : people.beginLoad();
+        person = queryOne(SELECT_PERSON_BY_ID, query -> query.setInt(1, personId), PersonFactory.ROW_MAPPER);
+        if (people != null) {
+            people.putLoaded(person, loadVersion);
+        }
+        return person;
+    }
+
+    /**
+     * @return a summary of the hits, misses and evictions of the person cache.
+     */
+    public String getPersonCacheStatistics() {
+        return people == null ? "disabled" : people.getStatistics().toString();
+    }
+
+    /**
+     * @param emailAddress the email address to look for.
+     * @return whether a person with {@code emailAddress} exists.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean isEmailAddressRegistered(String emailAddress) throws SQLException {
+        if (keys != null && !keys.mayHaveEmailAddress(emailAddress)) {
+            return false;
+        }
+        return queryOne(SELECT_PERSON_ID_BY_EMAIL, query -> query.setString(1, emailAddress),
+                results -> results.getInt(1)) != null;
+    }
+
+    /**
+     * @return a summary of the lookups answered by the key filters.
+     */
+    public String getKeyFilterStatistics() {
+        return keys == null ? "disabled" : keys.toString();
+    }
+
+    /**
+     * @return a summary of the hits, misses, evictions and expirations of the project cache.
+     */
+    public String getProjectCacheStatistics() {
+        return projects == null ? "disabled" : projects.getStatistics().toString();
+    }
+
     /** 
-     * @param erfNumber
-     * @return ResultSet
-     * @throws SQLException
-     */
-    public ResultSet getAddress(int erfNumber) throws SQLException {
-        PreparedStatement query = queryBuilder.select("addresses", "full_address")
-                .where("erf_number").prepare();
-        query.setInt(1, erfNumber);
-        ResultSet results = query.executeQuery();
-        if (results.next()) {
-            return results;
-        }
-        return null;
+     * @param erfNumber the ERF number of the address.
+     * @return the full address if found; otherwise {@code null}.
+     * @throws SQLException if a database access error occurs.
+     */
+    public String getAddress(int erfNumber) throws SQLException {
+        if (keys != null && !keys.mayHaveErfNumber(erfNumber)) {
+            return null;
+        }
+        return queryOne(SELECT_ADDRESS, query -> query.setInt(1, erfNumber),
+                results -> results.getString("full_address"));
     }
 }
@@ -0,0 +1,318 @@
+package Models.EntityModel;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import Components.TypeRegistry;
+import Entities.Address;
+import Entities.Participant;
+import Entities.Person;
+import Entities.Project;
+import Entities.RoleCoverage;
+import Interfaces.ResultsHandler;
+
+/**
+ * The operations through which the controllers read and write projects, people, addresses and participants,
+ * independently of where they are stored.
+ *
+ * {@link EntityModel} stores them in the MySQL database, where the triggers and procedures in {@code sql/helpers}
+ * enforce the quotas of the relationship types, create the account of each project and name projects after their
+ * customer. {@link InMemoryStorage} keeps them in memory and enforces the same rules itself.
+ * {@link WriteBehindStorage} holds back the progress, account and contact detail updates of either, and writes them
+ * in batches.
+ */
+public interface EntityStorage {
+    /**
+     * @param view one of the project views defined in {@link Interfaces.IQuery}.
+     * @return all the projects in {@code view}, in ascending order of project_id.
+     * @throws SQLException             if a storage access error occurs.
+     * @throws IllegalArgumentException if {@code view} is not a project view.
+     */
+    List<Project> getProjects(String view) throws SQLException, IllegalArgumentException;
+
+    /**
+     * @param view one of the project views defined in {@link Interfaces.IQuery}.
+     * @return the projects in {@code view}, read as they are consumed; must be closed once consumed.
+     * @throws SQLException             if a storage access error occurs.
+     * @throws IllegalArgumentException if {@code view} is not a project view.
+     */
+    Stream<Project> streamProjects(String view) throws SQLException, IllegalArgumentException;
+
+    /**
+     * @param view      one of the project views defined in {@link Interfaces.IQuery}.
+     * @param projectId the last project_id of the previous page if {@code forward}; otherwise the first project_id of
+     *                  the next page.
+     * @param pageSize  the maximum amount of projects in the page.
+     * @param forward   whether to get the page after {@code projectId} rather than the page before it.
+     * @return the projects in the page, in ascending order of project_id.
+     * @throws SQLException             if a storage access error occurs.
+     * @throws IllegalArgumentException if {@code view} is not a project view.
+     */
+    List<Project> getProjectPage(String view, int projectId, int pageSize, boolean forward)
+            throws SQLException, IllegalArgumentException;
+
+    /**
+     * Reads every row of {@code view}, passing the results to {@code handler}.
+     *
+     * @param <T>     the type of value produced from the results.
+     * @param view    one of {@link Interfaces.IQuery#EXPORTABLE_VIEWS}.
+     * @param handler consumes the results.
+     * @return the value produced by {@code handler}.
+     * @throws SQLException             if a storage access error occurs, or the storage has no views.
+     * @throws IllegalArgumentException if {@code view} cannot be exported.
+     */
+    <T> T scanView(String view, ResultsHandler<T> handler) throws SQLException, IllegalArgumentException;
+
+    /**
+     * @param projectId the id of the project.
+     * @return the {@link Project} if it exists; otherwise {@code null}.
+     * @throws SQLException if a storage access error occurs.
+     */
+    Project selectProject(int projectId) throws SQLException;
+
+    /**
+     * @param projectName the name of the project.
+     * @return the {@link Project} if it exists; otherwise {@code null}.
+     * @throws SQLException if a storage access error occurs.
+     */
+    Project selectProject(String projectName) throws SQLException;
+
+    /**
+     * @param projectId the id of the project in which the participants are involved.
+     * @return the participants of the project keyed by their role; empty if there are none.
+     * @throws SQLException if a storage access error occurs.
+     */
+    HashMap<String, Person> getParticipants(int projectId) throws SQLException;
+
+    /**
+     * @param types the relationship types to map the roles to; roles not in {@code types} are ignored.
+     * @return the role coverage of each project.
+     * @throws SQLException if a storage access error occurs.
+     */
+    List<RoleCoverage> getRoleCoverage(TypeRegistry types) throws SQLException;
+
+    /**
+     * @param version the version to give the loaded registry.
+     * @return the building and relationship types, each in the order they were defined, with the quota of each
+     *         relationship type.
+     * @throws SQLException if a storage access error occurs.
+     */
+    TypeRegistry loadTypes(long version) throws SQLException;
+
+    /**
+     * Prepares the in-memory filters of the keys in the storage, if it uses any.
+     *
+     * @throws SQLException if a storage access error occurs.
+     */
+    void loadKeyFilters() throws SQLException;
+
+    /**
+     * @param phoneNumber the phone number of the person.
+     * @return the {@link Person} if found; otherwise {@code null}.
+     * @throws SQLException if a storage access error occurs.
+     */
+    Person selectPerson(String phoneNumber) throws SQLException;
+
+    /**
+     * @param personId the id of the person.
+     * @return the {@link Person} if found; otherwise {@code null}.
+     * @throws SQLException if a storage access error occurs.
+     */
+    Person selectPerson(int personId) throws SQLException;
+
+    /**
+     * @param emailAddress the email address to look for.
+     * @return whether a person with {@code emailAddress} exists.
+     * @throws SQLException if a storage access error occurs.
+     */
+    boolean isEmailAddressRegistered(String emailAddress) throws SQLException;
+
+    /**
+     * @param erfNumber the ERF number of the address.
+     * @return the full address if found; otherwise {@code null}.
+     * @throws SQLException if a storage access error occurs.
+     */
+    String getAddress(int erfNumber) throws SQLException;
+
+    /**
+     * @param firstName       of the person.
+     * @param lastName        of the person.
+     * @param emailAddress    of the person.
+     * @param phoneNumber     of the person.
+     * @param erfNumber       of the person's address.
+     * @param physicalAddress the full address linked to {@code erfNumber}.
+     * @return the registered {@link Person}, numbered with the person_id generated for it.
+     * @throws SQLException if the registration fails.
+     */
+    Person registerPerson(String firstName, String lastName, String emailAddress, String phoneNumber, int erfNumber,
+            String physicalAddress) throws SQLException;
+
+    /**
+     * @param people the people to insert; each person's ERF number must refer to an existing address.
+     * @return the person_id generated for each person, or the reason the person could not be inserted.
+     * @throws SQLException if a storage access error occurs.
+     */
+    BatchResult<Person> registerPeople(List<Person> people) throws SQLException;
+
+    /**
+     * @param projectId of the project.
+     * @param personId  of the person.
+     * @param role      for which the person should be registered.
+     * @return the participant_id generated for the participant.
+     * @throws SQLException if the registration fails, e.g. because {@code role} is already full in the project.
+     */
+    int registerParticipant(int projectId, int personId, String role) throws SQLException;
+
+    /**
+     * @param participants the participants to insert.
+     * @param types        the relationship types and their quotas.
+     * @return the participant_id generated for each participant, or the reason the participant could not be
+     *         inserted.
+     * @throws SQLException if a storage access error occurs.
+     */
+    BatchResult<Participant> registerParticipants(List<Participant> participants, TypeRegistry types)
+            throws SQLException;
+
+    /**
+     * @param projectName    the name of the project; {@code null} to name it after its customer once one is
+     *                       assigned.
+     * @param projectType    the building type of the project.
+     * @param erfNumber      of the project's address.
+     * @param projectAddress the full address linked to {@code erfNumber}.
+     * @return the registered {@link Project}, numbered with the project_id generated for it.
+     * @throws SQLException if the registration fails.
+     */
+    Project registerProject(String projectName, String projectType, int erfNumber, String projectAddress)
+            throws SQLException;
+
+    /**
+     * Creates a project with its new addresses, its customer (if they are new), its progress and its participants,
+     * all or nothing.
+     *
+     * @param projectName    the name of the project; {@code null} or empty to name it after its customer.
+     * @param projectType    the building type of the project.
+     * @param erfNumber      of the project's address.
+     * @param projectAddress the full address linked to {@code erfNumber}.
+     * @param dueDate        the date the project is due, formatted as yyyy-mm-dd.
+     * @param customer       the customer of the project; a customer numbered {@code 0} is inserted and numbered with
+     *                       the person_id generated for them.
+     * @param roster         the other participants of the project, keyed by role; each must be numbered.
+     * @param newAddresses   the addresses which are not stored yet: the project's and/or the new customer's.
+     * @return the created {@link Project}, numbered with the project_id generated for it.
+     * @throws IllegalArgumentException if an address in {@code newAddresses} is neither the project's nor the
+     *                                  customer's, or a participant in {@code roster} is not numbered.
+     * @throws SQLException             if the project could not be created; nothing is stored.
+     */
+    Project createProject(String projectName, String projectType, int erfNumber, String projectAddress,
+            String dueDate, Person customer, Map<String, Person> roster, Collection<Address> newAddresses)
+            throws SQLException;
+
+    /**
+     * @param projects the projects to insert, with their due dates; each project's ERF number must refer to an
+     *                 existing address.
+     * @return the project_id generated for each project, or the reason the project could not be inserted.
+     * @throws SQLException if a storage access error occurs.
+     */
+    BatchResult<Project> registerProjects(List<Project> projects) throws SQLException;
+
+    /**
+     * @param erfNumber     of the address.
+     * @param streetAddress of the address.
+     * @param suburb        of the address.
+     * @param city          of the address.
+     * @param province      of the address.
+     * @param postCode      of the address.
+     * @return the amount of addresses inserted.
+     * @throws SQLException if the registration fails.
+     */
+    int registerAddress(int erfNumber, String streetAddress, String suburb, String city, String province,
+            int postCode) throws SQLException;
+
+    /**
+     * @param addresses the addresses to insert.
+     * @return the amount of addresses inserted for each address, or the reason it could not be inserted.
+     * @throws SQLException if a storage access error occurs.
+     */
+    BatchResult<Address> registerAddresses(List<Address> addresses) throws SQLException;
+
+    /**
+     * @param projectId     the id of the project to update.
+     * @param dueDate       the new due date of the project.
+     * @param dateFinalized the new date finalized of the project; ignored unless it is formatted as yyyy-mm-dd.
+     * @return whether the progress of the project was updated.
+     * @throws SQLException if the update fails.
+     */
+    boolean updateProgress(int projectId, String dueDate, String dateFinalized) throws SQLException;
+
+    /**
+     * @param projectId  of the project.
+     * @param amountDue  the new cost of the project, in cents.
+     * @param amountPaid the new amount paid for the project, in cents.
+     * @return whether the account of the project was updated.
+     * @throws SQLException if the update fails.
+     */
+    boolean updateAccount(int projectId, int amountDue, int amountPaid) throws SQLException;
+
+    /**
+     * @param personId     of the person.
+     * @param phoneNumber  the new phone number of the person; {@code null} to leave it unchanged.
+     * @param emailAddress the new email address of the person; {@code null} to leave it unchanged.
+     * @return whether the person was updated.
+     * @throws SQLException if the update fails.
+     */
+    boolean updateContactDetails(int personId, String phoneNumber, String emailAddress) throws SQLException;
+
+    /**
+     * Begins a unit of work on the current thread, which the operations of this storage join until it is closed.
+     *
+     * @param operation the type of unit of work.
+     * @return the unit of work, to be used with try-with-resources.
+     * @throws IllegalStateException if a unit of work is already open on the current thread.
+     * @throws SQLException          if a storage access error occurs.
+     */
+    UnitOfWork beginWork(UnitOfWork.Operation operation) throws SQLException;
+
+    /**
+     * Writes the updates which the storage has accepted but is still holding back; storages which write every
+     * update when it is made have nothing to write.
+     *
+     * @throws IllegalStateException if a unit of work is open on the current thread.
+     * @throws SQLException          if some updates could not be written.
+     */
+    default void flushWrites() throws SQLException {
+    }
+
+    /**
+     * @return the amount of records to write at a time when importing.
+     */
+    int getBatchSize();
+
+    /**
+     * @return the maximum amount of operations which may use the storage at once.
+     */
+    int getMaxConnections();
+
+    /**
+     * @return a summary of the prepared statement cache statistics.
+     */
+    String getStatementCacheStatistics();
+
+    /**
+     * @return a summary of the person cache statistics.
+     */
+    String getPersonCacheStatistics();
+
+    /**
+     * @return a summary of the project cache statistics.
+     */
+    String getProjectCacheStatistics();
+
+    /**
+     * @return a summary of the lookups answered by the key filters.
+     */
+    String getKeyFilterStatistics();
+}
@@ -1,81 +1,605 @@
 package Models.EntityModel;
 
+import java.sql.BatchUpdateException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
+import Components.CompiledQuery;
 import Components.QueryBuilder;
+import Components.TypeRegistry;
+import Entities.Address;
+import Entities.Participant;
+import Entities.Person;
+import Entities.Project;
+import Factories.PersonFactory;
+import Interfaces.RowBinder;
+import Models.DatabaseConnectionModel;
 
+/**
+ * Writes entities to the database.
+ * 
+ * The single-row updates (of progress, accounts and contact details) and address registrations are deferred while a
+ * {@link UnitOfWork} is open on the calling thread, and are then reported as successful; the unit fails when flushed
+ * if any of them does not write its row.
+ */
 public abstract class EntityUpdater extends EntityQuerier {
-    public EntityUpdater(QueryBuilder queryBuilder) {
-        super(queryBuilder);
+    private static final CompiledQuery INSERT_PERSON = new QueryBuilder().insertInto("person")
+            .group("first_name", "last_name", "phone_number", "email_address", "physical_address")
+            .values(5).compile("person_id");
+    private static final CompiledQuery INSERT_PARTICIPANT = new QueryBuilder().insertInto("participant")
+            .group("project_id", "person_id", "relationship")
+            .values(3).compile("participant_id");
+    private static final RowBinder<Participant> PARTICIPANT_BINDER = (statement, participant) -> {
+        statement.setInt(1, participant.getProjectId());
+        statement.setInt(2, participant.getPersonId());
+        statement.setString(3, participant.getRole());
+    };
+    /**
+     * Locks a project until the end of the transaction, so that no other batch can assign participants to it.
+     */
+    private static final CompiledQuery LOCK_PROJECT = new QueryBuilder()
+            .select("project", "project_name", "project_type")
+            .where("project_id").forUpdate().compile();
+    /**
+     * Counts the participants of a project in each role, locking the range of participant_project_relationship they
+     * occupy so that no participant can be added to the project until the end of the transaction.
+     */
+    private static final CompiledQuery COUNT_PARTICIPANTS = new QueryBuilder()
+            .select("participant", "relationship", "COUNT(*) AS registered")
+            .where("project_id").groupBy("relationship").forUpdate().compile();
+    /**
+     * Counts the participants of a project in each role in the embedded database, which cannot lock the rows of a
+     * grouped select; the project locked by {@link #LOCK_PROJECT} keeps other batches from adding to it instead.
+     */
+    private static final CompiledQuery COUNT_EMBEDDED_PARTICIPANTS = new QueryBuilder()
+            .select("participant", "relationship", "COUNT(*) AS registered")
+            .where("project_id").groupBy("relationship").compile();
+    /**
+     * Names a project which has no name yet.
+     */
+    private static final CompiledQuery NAME_PROJECT = new QueryBuilder().update("project")
+            .set("project_name").where("project_id").and("project_name").compile();
+    /**
+     * Creates a project with its addresses, customer, progress and participants in one call of the create_project
+     * procedure (see sql/migrations/V003__create_project.sql).
+     */
+    private static final CompiledQuery CREATE_PROJECT = new QueryBuilder().call("create_project",
+            "project_name", "project_type", "erf_number",
+            "street_address", "suburb", "city", "province", "post_code", "date_due",
+            "customer_role", "customer_id", "first_name", "last_name", "phone_number", "email_address",
+            "physical_address", "customer_street_address", "customer_suburb", "customer_city", "customer_province",
+            "customer_post_code", "roster", "project_id").compile();
+    /**
+     * Inserts a project without a name, leaving the name to be set by the {@code check_project_name} trigger.
+     */
+    private static final CompiledQuery INSERT_PROJECT = new QueryBuilder().insertInto("project")
+            .group("project_type", "project_address")
+            .values(2).compile("project_id");
+    private static final CompiledQuery INSERT_NAMED_PROJECT = new QueryBuilder().insertInto("project")
+            .group("project_type", "project_address", "project_name")
+            .values(3).compile("project_id");
+    private static final CompiledQuery INSERT_PROGRESS = new QueryBuilder().insertInto("progress")
+            .group("project", "date_due")
+            .values(2).compile();
+    private static final CompiledQuery INSERT_ADDRESS = new QueryBuilder().insertInto("address")
+            .group("erf_number", "street_address", "suburb", "city",
+                    "province", "post_code")
+            .values(6).compile();
+    private static final CompiledQuery UPDATE_PROGRESS = new QueryBuilder().update("progress")
+            .set("date_due", "date_finalized").where("project").compile();
+    private static final CompiledQuery UPDATE_DATE_FINALIZED = new QueryBuilder().update("progress")
+            .set("date_finalized").where("project").compile();
+    private static final CompiledQuery UPDATE_DATE_DUE = new QueryBuilder().update("progress")
+            .set("date_due").where("project").compile();
+    private static final CompiledQuery UPDATE_ACCOUNT = new QueryBuilder().update("account")
+            .set("amount_due", "amount_paid")
+            .where("project").compile();
+    private static final CompiledQuery UPDATE_CONTACT_DETAILS = new QueryBuilder().update("person")
+            .set("phone_number", "email_address").where("person_id").compile();
+    private static final CompiledQuery UPDATE_PHONE_NUMBER = new QueryBuilder().update("person")
+            .set("phone_number").where("person_id").compile();
+    private static final CompiledQuery UPDATE_EMAIL_ADDRESS = new QueryBuilder().update("person")
+            .set("email_address").where("person_id").compile();
+
+    public EntityUpdater(DatabaseConnectionModel database) {
+        super(database);
     }
 
     /**
      * Insert the details of a person into the database.
      * 
-     * @param firstName    of the person.
-     * @param lastName     of the person.
-     * @param emailAddress of the person.
-     * @param phoneNumber  of the person.
-     * @param erfNumber    of the person's address.
-     * @return {@value 1} if the update is successful, {@value 0} if not successful.
+     * @param firstName       of the person.
+     * @param lastName        of the person.
+     * @param emailAddress    of the person.
+     * @param phoneNumber     of the person.
+     * @param erfNumber       of the person's address.
+     * @param physicalAddress the full address linked to {@code erfNumber}.
+     * @return the registered {@link Person}, numbered with the person_id generated for it.
      * @throws SQLException if the registration fails.
      */
-    public PreparedStatement registerPerson(String firstName, String lastName, String emailAddress, String phoneNumber, int erfNumber)
-            throws SQLException {
-        PreparedStatement statement = queryBuilder.insertInto("person")
-                .group("first_name", "last_name", "phone_number", "email_address", "physical_address")
-                .values(5).prepare("person_id");
-        statement.setString(1, firstName);
-        statement.setString(2, lastName);
-        statement.setString(3, phoneNumber);
-        statement.setString(4, emailAddress);
-        statement.setInt(5, erfNumber);
-        return statement;
+    public Person registerPerson(String firstName, String lastName, String emailAddress, String phoneNumber,
+            int erfNumber, String physicalAddress) throws SQLException {
+        if (people != null) {
+            people.invalidate(phoneNumber);
+        }
+        if (keys != null) {
+            keys.addPhoneNumber(phoneNumber);
+            keys.addEmailAddress(emailAddress);
+        }
+        int personId = insert(INSERT_PERSON, statement -> {
+            statement.setString(1, firstName);
+            statement.setString(2, lastName);
+            statement.setString(3, phoneNumber);
+            statement.setString(4, emailAddress);
+            statement.setInt(5, erfNumber);
+        });
+        Person person = PersonFactory.fromDetails(personId, firstName, lastName, emailAddress, phoneNumber,
+                physicalAddress, erfNumber);
+        if (people != null) {
+            people.put(person);
+            onRollback(() -> people.invalidate(personId));
+        }
+        return person;
+    }
+
+    /**
+     * Inserts the details of each of {@code people} into the database in batches, setting the number of each person
+     * which was inserted to the person_id generated for it.
+     * 
+     * @param people the people to insert; each person's ERF number must refer to an existing address.
+     * @return the person_id generated for each person, or the reason the person could not be inserted.
+     * @throws SQLException if a database access error occurs.
+     */
+    public BatchResult<Person> registerPeople(List<Person> people) throws SQLException {
+        if (this.people != null) {
+            people.forEach(person -> this.people.invalidate(person.getPhoneNumber()));
+        }
+        if (keys != null) {
+            people.forEach(person -> {
+                keys.addPhoneNumber(person.getPhoneNumber());
+                keys.addEmailAddress(person.getEmailAddress());
+            });
+        }
+        BatchResult<Person> result = batch(INSERT_PERSON, people, (statement, person) -> {
+            statement.setString(1, person.getFirstName());
+            statement.setString(2, person.getLastName());
+            statement.setString(3, person.getPhoneNumber());
+            statement.setString(4, person.getEmailAddress());
+            statement.setInt(5, person.getErfNumber());
+        });
+        for (int i = 0; i < result.size(); i++) {
+            if (result.isSuccessful(i)) {
+                result.getRow(i).setNumber(result.getKey(i));
+            }
+        }
+        return result;
     }
 
     /**
      * @param projectId of the project.
      * @param personId  of the person.
      * @param role      for which the person should be registered.
-     * @return {@value 1} if the update is successful, {@value 0} if not successful.
+     * @return the participant_id generated for the participant.
      * @throws SQLException if the registration fails.
      */
-    public PreparedStatement registerParticipant(int projectId, int personId, String role) throws SQLException {
-        PreparedStatement statement = queryBuilder.insertInto("participant")
-                .group("project_id", "person_id", "relationship")
-                .values(3).prepare("participant_id");
-        statement.setInt(1, projectId);
-        statement.setInt(2, personId);
-        statement.setString(3, role);
-        return statement;
+    public int registerParticipant(int projectId, int personId, String role) throws SQLException {
+        try {
+            return insert(INSERT_PARTICIPANT, statement -> {
+                statement.setInt(1, projectId);
+                statement.setInt(2, personId);
+                statement.setString(3, role);
+            });
+        } finally {
+            // Assigning a customer may rename the project (see the check_project_name trigger).
+            if (projects != null) {
+                projects.invalidate(projectId);
+            }
+        }
     }
 
     /**
-     * @param projectName the name of the project.
-     * @param projectType the building type of the project.
-     * @param erfNumber   of the project's address.
-     * @return {@value 1} if the update is successful, {@value 0} if not successful.
+     * Assigns each of {@code participants} to their project in a single transaction.
+     * 
+     * Rather than leaving the checks to the participant triggers, which look up the quota, count the participants and
+     * read the project for every row, the projects are locked and their participants counted once, and the quota of
+     * each participant's role is checked against {@code types}. The rows are then inserted with the triggers' checks
+     * deferred (see {@link #DEFER_PARTICIPANT_CHECKS}), and projects without a name are named after their customer
+     * the way the {@code check_project_name} trigger would.
+     * 
+     * A participant whose project does not exist, or whose role is unknown or already full, is not sent to the
+     * database. If the database rejects any of the others, the transaction is rolled back and they are written by
+     * {@link #batch(CompiledQuery, List, RowBinder)} with the triggers' checks instead, so that the participant at
+     * fault is recorded with its error.
+     * 
+     * @param participants the participants to insert.
+     * @param types        the relationship types and their quotas.
+     * @return the participant_id generated for each participant, or the reason the participant could not be
+     *         inserted.
+     * @throws SQLException if a database access error occurs.
+     */
+    public BatchResult<Participant> registerParticipants(List<Participant> participants, TypeRegistry types)
+            throws SQLException {
+        BatchResult<Participant> result = new BatchResult<>(participants);
+        try {
+            transaction(connection -> writeParticipants(connection, participants, types, result));
+        } catch (BatchUpdateException error) {
+            List<Participant> remaining = new ArrayList<>();
+            List<Integer> remainingIndices = new ArrayList<>();
+            for (int i = 0; i < result.size(); i++) {
+                if (result.getError(i) == null) {
+                    remaining.add(participants.get(i));
+                    remainingIndices.add(i);
+                }
+            }
+            BatchResult<Participant> retried = batch(INSERT_PARTICIPANT, remaining, PARTICIPANT_BINDER);
+            for (int i = 0; i < retried.size(); i++) {
+                if (retried.isSuccessful(i)) {
+                    result.succeeded(remainingIndices.get(i), retried.getKey(i));
+                } else {
+                    result.failed(remainingIndices.get(i), retried.getError(i));
+                }
+            }
+        } finally {
+            if (projects != null) {
+                participants.forEach(participant -> projects.invalidate(participant.getProjectId()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes {@code participants} as part of the transaction on {@code connection}, recording the participants which
+     * fail the checks in {@code result} as they are found and the keys of the others once they are all written.
+     * 
+     * @see #registerParticipants(List, TypeRegistry)
+     * @return {@code null}.
+     * @throws BatchUpdateException if the database rejects a participant.
+     */
+    private Void writeParticipants(Connection connection, List<Participant> participants, TypeRegistry types,
+            BatchResult<Participant> result) throws SQLException {
+        // The participants in each role of each project, or null if the project does not exist. The projects are
+        // locked in ascending order so that concurrent batches cannot deadlock on each other's projects.
+        Map<Integer, int[]> registered = new TreeMap<>();
+        participants.forEach(participant -> registered.put(participant.getProjectId(), null));
+        Map<Integer, String> unnamedProjectTypes = new HashMap<>();
+        try (PreparedStatement lock = LOCK_PROJECT.prepare(connection);
+                PreparedStatement count = (database.isEmbedded() ? COUNT_EMBEDDED_PARTICIPANTS : COUNT_PARTICIPANTS)
+                        .prepare(connection)) {
+            for (Map.Entry<Integer, int[]> entry : registered.entrySet()) {
+                int projectId = entry.getKey();
+                lock.setInt(1, projectId);
+                try (ResultSet project = lock.executeQuery()) {
+                    if (!project.next()) {
+                        continue;
+                    }
+                    if ("".equals(project.getString("project_name"))) {
+                        unnamedProjectTypes.put(projectId, project.getString("project_type"));
+                    }
+                }
+                int[] counts = new int[types.getRoleTypes().size()];
+                count.setInt(1, projectId);
+                try (ResultSet roles = count.executeQuery()) {
+                    while (roles.next()) {
+                        int ordinal = types.getRoleOrdinal(roles.getString("relationship"));
+                        if (ordinal != TypeRegistry.UNKNOWN) {
+                            counts[ordinal] = roles.getInt("registered");
+                        }
+                    }
+                }
+                entry.setValue(counts);
+            }
+        }
+
+        List<Participant> accepted = new ArrayList<>();
+        List<Integer> acceptedIndices = new ArrayList<>();
+        Map<Integer, Integer> customers = new HashMap<>();
+        for (int i = 0; i < participants.size(); i++) {
+            Participant participant = participants.get(i);
+            int projectId = participant.getProjectId();
+            String role = participant.getRole();
+            int[] counts = registered.get(projectId);
+            int ordinal = types.getRoleOrdinal(role);
+            if (counts == null) {
+                result.failed(i, new SQLException(String.format(PROJECT_NOT_FOUND_MESSAGE, projectId)));
+            } else if (ordinal == TypeRegistry.UNKNOWN) {
+                result.failed(i, new SQLException(String.format(ROLE_INVALID_MESSAGE, role)));
+            } else if (counts[ordinal] >= types.getMaxAllowed(ordinal)) {
+                result.failed(i, new SQLException(
+                        String.format(MAX_RELATIONSHIP_MESSAGE, role, types.getMaxAllowed(ordinal)), QUOTA_SQL_STATE));
+            } else {
+                counts[ordinal]++;
+                accepted.add(participant);
+                acceptedIndices.add(i);
+                if (CUSTOMER_ROLE.equals(role) && unnamedProjectTypes.containsKey(projectId)) {
+                    // Like the trigger, only the first customer assigned names the project.
+                    customers.putIfAbsent(projectId, participant.getPersonId());
+                }
+            }
+        }
+
+        List<Project> named = new ArrayList<>();
+        Map<Integer, String> lastNames = selectLastNames(connection, customers.values());
+        for (Map.Entry<Integer, Integer> customer : customers.entrySet()) {
+            String lastName = lastNames.get(customer.getValue());
+            if (lastName != null) {
+                String projectType = unnamedProjectTypes.get(customer.getKey());
+                named.add(new Project(customer.getKey(), projectType + ' ' + lastName, null, projectType));
+            }
+        }
+
+        try (Statement session = connection.createStatement()) {
+            session.execute(DEFER_PARTICIPANT_CHECKS);
+            try {
+                BatchResult<Participant> inserted = batch(connection, INSERT_PARTICIPANT, accepted, PARTICIPANT_BINDER);
+                batch(connection, NAME_PROJECT, named, (statement, project) -> {
+                    statement.setString(1, project.getName());
+                    statement.setInt(2, project.getNumber());
+                    statement.setString(3, "");
+                });
+                for (int i = 0; i < inserted.size(); i++) {
+                    result.succeeded(acceptedIndices.get(i), inserted.getKey(i));
+                }
+            } finally {
+                // The connection goes back to the pool, where the next borrower relies on the triggers' checks.
+                session.execute(RESUME_PARTICIPANT_CHECKS);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the last names of {@code personIds} in one query on {@code connection}, so that they are read within its
+     * transaction rather than on another connection borrowed from the pool.
+     * 
+     * @return the last name of each of {@code personIds} which exists, keyed by person_id.
+     */
+    private static Map<Integer, String> selectLastNames(Connection connection, Collection<Integer> personIds)
+            throws SQLException {
+        Map<Integer, String> lastNames = new HashMap<>();
+        if (personIds.isEmpty()) {
+            return lastNames;
+        }
+        CompiledQuery query = new QueryBuilder().select("person", "person_id", "last_name")
+                .whereIn("person_id", personIds.size()).compile();
+        try (PreparedStatement select = query.prepare(connection)) {
+            int index = 1;
+            for (int personId : personIds) {
+                select.setInt(index++, personId);
+            }
+            try (ResultSet people = select.executeQuery()) {
+                while (people.next()) {
+                    lastNames.put(people.getInt("person_id"), people.getString("last_name"));
+                }
+            }
+        }
+        return lastNames;
+    }
+
+    /**
+     * @param projectName    the name of the project; {@code null} to let the {@code check_project_name} trigger
+     *                       name it once its customer is assigned.
+     * @param projectType    the building type of the project.
+     * @param erfNumber      of the project's address.
+     * @param projectAddress the full address linked to {@code erfNumber}.
+     * @return the registered {@link Project}, numbered with the project_id generated for it.
      * @throws SQLException if the registration fails.
      */
-    public PreparedStatement registerProject(String projectName, String projectType, int erfNumber)
+    public Project registerProject(String projectName, String projectType, int erfNumber, String projectAddress)
             throws SQLException {
-        String[] columns = new String[] { "project_type", "project_address", null };
-        int values = 2;
-        if (projectName != null) {
-            columns[values++] = "project_name";
+        int projectId = insert(projectName != null ? INSERT_NAMED_PROJECT : INSERT_PROJECT, statement -> {
+            statement.setString(1, projectType);
+            statement.setInt(2, erfNumber);
+            if (projectName != null) {
+                statement.setString(3, projectName);
+            }
+        });
+        return new Project(projectId, projectName, projectAddress, projectType).setErfNumber(erfNumber);
+    }
+
+    /**
+     * Creates a project in a single call to the database: the new addresses, the customer if they are new, the
+     * project, its progress, its customer and the rest of its participants are all inserted in one transaction by the
+     * create_project procedure. The procedure commits its own transaction, so the call is made on a connection of its
+     * own even while a {@link UnitOfWork} is open.
+     * 
+     * @param projectName    the name of the project; {@code null} or empty to name it after its customer.
+     * @param projectType    the building type of the project.
+     * @param erfNumber      of the project's address.
+     * @param projectAddress the full address linked to {@code erfNumber}.
+     * @param dueDate        the date the project is due, formatted as yyyy-mm-dd.
+     * @param customer       the customer of the project; a customer numbered {@code 0} is inserted and numbered with
+     *                       the person_id generated for them.
+     * @param roster         the other participants of the project, keyed by role; each must be numbered.
+     * @param newAddresses   the addresses which are not in the database yet: the project's and/or the new customer's.
+     * @return the created {@link Project}, numbered with the project_id generated for it.
+     * @throws IllegalArgumentException if an address in {@code newAddresses} is neither the project's nor the
+     *                                  customer's, or a participant in {@code roster} is not numbered.
+     * @throws SQLException             if the project could not be created; nothing is inserted.
+     */
+    public Project createProject(String projectName, String projectType, int erfNumber, String projectAddress,
+            String dueDate, Person customer, Map<String, Person> roster, Collection<Address> newAddresses)
+            throws SQLException {
+        Address newProjectAddress = null, newCustomerAddress = null;
+        for (Address address : newAddresses) {
+            if (address.getErfNumber() == erfNumber) {
+                newProjectAddress = address;
+            } else if (address.getErfNumber() == customer.getErfNumber()) {
+                newCustomerAddress = address;
+            } else {
+                throw new IllegalArgumentException(
+                        "Address " + address.getErfNumber() + " belongs to neither the project nor its customer.");
+            }
+        }
+        boolean newCustomer = customer.getNumber() == 0;
+        if (keys != null) {
+            newAddresses.forEach(address -> keys.addErfNumber(address.getErfNumber()));
+            if (newCustomer) {
+                keys.addPhoneNumber(customer.getPhoneNumber());
+                keys.addEmailAddress(customer.getEmailAddress());
+            }
+        }
+        if (newCustomer && people != null) {
+            people.invalidate(customer.getPhoneNumber());
+        }
+        String members = rosterToJson(roster);
+        try (Connection connection = database.borrow();
+                CallableStatement call = CREATE_PROJECT.prepareCall(connection)) {
+            call.registerOutParameter(1, Types.VARCHAR);
+            call.setString(1, projectName == null ? "" : projectName);
+            call.setString(2, projectType);
+            call.setInt(3, erfNumber);
+            bindAddress(call, 4, newProjectAddress);
+            call.setString(9, dueDate);
+            call.setString(10, CUSTOMER_ROLE);
+            call.registerOutParameter(11, Types.INTEGER);
+            if (newCustomer) {
+                call.setNull(11, Types.INTEGER);
+            } else {
+                call.setInt(11, customer.getNumber());
+            }
+            call.setString(12, customer.getFirstName());
+            call.setString(13, customer.getLastName());
+            call.setString(14, customer.getPhoneNumber());
+            call.setString(15, customer.getEmailAddress());
+            call.setInt(16, customer.getErfNumber());
+            bindAddress(call, 17, newCustomerAddress);
+            if (members == null) {
+                call.setNull(22, Types.VARCHAR);
+            } else {
+                call.setString(22, members);
+            }
+            call.registerOutParameter(23, Types.INTEGER);
+            call.execute();
+
+            if (newCustomer) {
+                customer.setNumber(call.getInt(11));
+                if (people != null) {
+                    people.put(customer);
+                }
+            }
+            return new Project(call.getInt(23), call.getString(1), projectAddress, projectType)
+                    .setErfNumber(erfNumber)
+                    .setDueDate(dueDate);
+        }
+    }
+
+    /**
+     * Binds the street address, suburb, city, province and post code of {@code address} to the five parameters of
+     * {@code call} from {@code index}, or {@code NULL} to each if {@code address} is {@code null}.
+     */
+    private static void bindAddress(CallableStatement call, int index, Address address) throws SQLException {
+        if (address == null) {
+            for (int i = 0; i < 5; i++) {
+                call.setNull(index + i, Types.VARCHAR);
+            }
+            return;
+        }
+        call.setString(index, address.getStreetAddress());
+        call.setString(index + 1, address.getSuburb());
+        call.setString(index + 2, address.getCity());
+        call.setString(index + 3, address.getProvince());
+        call.setString(index + 4, String.valueOf(address.getPostCode()));
+    }
+
+    /**
+     * @param roster participants keyed by role.
+     * @return {@code roster} as the JSON array expected by create_project; {@code null} if it is empty.
+     * @throws IllegalArgumentException if a participant is not numbered.
+     */
+    private static String rosterToJson(Map<String, Person> roster) {
+        if (roster == null || roster.isEmpty()) {
+            return null;
         }
+        StringBuilder json = new StringBuilder("[");
+        for (Map.Entry<String, Person> member : roster.entrySet()) {
+            int personId = member.getValue().getNumber();
+            if (personId == 0) {
+                throw new IllegalArgumentException("The " + member.getKey() + " must be registered first.");
+            }
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"person_id\":").append(personId).append(",\"relationship\":\"")
+                    .append(member.getKey().replace("\\", "\\\\").replace("\"", "\\\"")).append("\"}");
+        }
+        return json.append(']').toString();
+    }
 
-        PreparedStatement statement = queryBuilder
-                .insertInto("project")
-                .group(columns).values(values).prepare("project_id");
+    /**
+     * Inserts each of {@code projects}, with its due date, into the database in batches, setting the number of each
+     * project which was inserted to the project_id generated for it. Each batch of projects is inserted with its
+     * progress in one transaction; if it fails, its projects are inserted one at a time, each with its progress. Projects without a name are named by the
+     * {@code check_project_name} trigger once their customer is assigned.
+     * 
+     * @param projects the projects to insert; each project's ERF number must refer to an existing address.
+     * @return the project_id generated for each project, or the reason the project (or its due date) could not be
+     *         inserted.
+     * @throws SQLException if a database access error occurs.
+     */
+    public BatchResult<Project> registerProjects(List<Project> projects) throws SQLException {
+        BatchResult<Project> result = new BatchResult<>(projects);
+        int chunkSize = Math.max(1, getBatchSize());
+        for (int start = 0; start < projects.size(); start += chunkSize) {
+            List<Project> chunk = projects.subList(start, Math.min(start + chunkSize, projects.size()));
+            int[] numbers = chunk.stream().mapToInt(Project::getNumber).toArray();
+            try {
+                writeProjects(chunk, start, result);
+            } catch (BatchUpdateException error) {
+                if (ConnectionUnitOfWork.current() != null) {
+                    // The unit decides whether its transaction is committed, so a failed row fails the whole batch.
+                    throw error;
+                }
+                for (int i = 0; i < chunk.size(); i++) {
+                    Project project = chunk.get(i);
+                    try {
+                        writeProjects(List.of(project), start + i, result);
+                    } catch (SQLException rowError) {
+                        // The project_id it was given was rolled back.
+                        project.setNumber(numbers[i]);
+                        result.failed(start + i, rowError);
+                    }
+                }
+            }
+        }
+        return result;
+    }
 
-        statement.setString(1, projectType);
-        statement.setInt(2, erfNumber);
-        if (columns[values - 1] != null) {
-            statement.setString(values, projectName);
+    /**
+     * Inserts {@code projects} and their progress in a single transaction, so that no project is stored without its
+     * due date, numbering each project and recording its project_id in {@code result} from {@code offset} onwards.
+     * 
+     * @throws SQLException if a project or its progress cannot be inserted; none of {@code projects} are then stored.
+     */
+    private void writeProjects(List<Project> projects, int offset, BatchResult<Project> result) throws SQLException {
+        BatchResult<Project> inserted = transaction(connection -> {
+            BatchResult<Project> keys = batch(connection, INSERT_NAMED_PROJECT, projects, (statement, project) -> {
+                statement.setString(1, project.getType());
+                statement.setInt(2, project.getErfNumber());
+                statement.setString(3, project.getName() == null ? "" : project.getName());
+            });
+            for (int i = 0; i < keys.size(); i++) {
+                projects.get(i).setNumber(keys.getKey(i));
+            }
+            batch(connection, INSERT_PROGRESS, projects, (statement, project) -> {
+                statement.setInt(1, project.getNumber());
+                statement.setString(2, project.getDueDate());
+            });
+            return keys;
+        });
+        for (int i = 0; i < inserted.size(); i++) {
+            result.succeeded(offset + i, inserted.getKey(i));
         }
-        return statement;
     }
 
     /**
@@ -85,22 +609,43 @@ public abstract class EntityUpdater extends EntityQuerier {
      * @param city          of the address.
      * @param province      of the address.
      * @param postCode      of the address.
-     * @return {@value 1} if the update is successful, {@value 0} if not successful.
+     * @return the amount of rows inserted.
      * @throws SQLException if the registration fails.
      */
-    public PreparedStatement registerAddress(int erfNumber, String streetAddress, String suburb, String city, String province,
+    public int registerAddress(int erfNumber, String streetAddress, String suburb, String city, String province,
             int postCode) throws SQLException {
-        PreparedStatement statement = queryBuilder.insertInto("address")
-                .group("erf_number", "street_address", "suburb", "city",
-                        "province", "post_code")
-                .values(6).prepare("address_id");
-        statement.setInt(1, erfNumber);
-        statement.setString(2, streetAddress);
-        statement.setString(3, suburb);
-        statement.setString(4, city);
-        statement.setString(5, province);
-        statement.setString(6, String.valueOf(postCode));
-        return statement;
+        if (keys != null) {
+            keys.addErfNumber(erfNumber);
+        }
+        return write(INSERT_ADDRESS, statement -> {
+            statement.setInt(1, erfNumber);
+            statement.setString(2, streetAddress);
+            statement.setString(3, suburb);
+            statement.setString(4, city);
+            statement.setString(5, province);
+            statement.setString(6, String.valueOf(postCode));
+        }) ? 1 : 0;
+    }
+
+    /**
+     * Inserts each of {@code addresses} into the database in batches.
+     * 
+     * @param addresses the addresses to insert.
+     * @return the amount of rows inserted for each address, or the reason the address could not be inserted.
+     * @throws SQLException if a database access error occurs.
+     */
+    public BatchResult<Address> registerAddresses(List<Address> addresses) throws SQLException {
+        if (keys != null) {
+            addresses.forEach(address -> keys.addErfNumber(address.getErfNumber()));
+        }
+        return batch(INSERT_ADDRESS, addresses, (statement, address) -> {
+            statement.setInt(1, address.getErfNumber());
+            statement.setString(2, address.getStreetAddress());
+            statement.setString(3, address.getSuburb());
+            statement.setString(4, address.getCity());
+            statement.setString(5, address.getProvince());
+            statement.setString(6, String.valueOf(address.getPostCode()));
+        });
     }
 
     /**
@@ -113,28 +658,51 @@ public abstract class EntityUpdater extends EntityQuerier {
      * @throws SQLException if the update fails.
      */
     public boolean updateProgress(int projectId, String dueDate, String dateFinalized) throws SQLException {
-        QueryBuilder query = queryBuilder.update("progress");
+        boolean updated = false;
+        try {
+            updated = writeProgress(projectId, dueDate, dateFinalized);
+        } finally {
+            if (projects != null) {
+                if (updated) {
+                    projects.writeThrough(projectId, project -> {
+                        if (dueDate.matches(DATE_FORMAT_REGEX)) {
+                            project.setDueDate(dueDate);
+                        }
+                        if (dateFinalized.matches(DATE_FORMAT_REGEX)) {
+                            project.setDateFinalized(dateFinalized);
+                        }
+                    });
+                    onRollback(() -> projects.invalidate(projectId));
+                } else {
+                    projects.invalidate(projectId);
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * @see #updateProgress(int, String, String)
+     */
+    private boolean writeProgress(int projectId, String dueDate, String dateFinalized) throws SQLException {
         boolean dateDueIsDate = dueDate.matches(DATE_FORMAT_REGEX),
                 dateFinalizedIsDate = dateFinalized.matches(DATE_FORMAT_REGEX);
-        int queryIndex = 1;
         if (dateDueIsDate && dateFinalizedIsDate) {
-            query.set("date_due", "date_finalized");
+            return write(UPDATE_PROGRESS, update -> {
+                update.setString(1, dueDate);
+                update.setString(2, dateFinalized);
+                update.setInt(3, projectId);
+            });
         } else if (dateFinalizedIsDate) {
-            query.set("date_finalized");
-        } else {
-            query.set("date_due");
+            return write(UPDATE_DATE_FINALIZED, update -> {
+                update.setString(1, dateFinalized);
+                update.setInt(2, projectId);
+            });
         }
-        PreparedStatement update = query.where("project").prepare();
-        if (dateDueIsDate && dateFinalizedIsDate) {
-            update.setString(queryIndex++, dueDate);
-            update.setString(queryIndex++, dateFinalized);
-        } else if (dateFinalizedIsDate) {
-            update.setString(queryIndex++, dateFinalized);
-        } else {
-            update.setString(queryIndex++, dueDate);
-        }
-        update.setInt(queryIndex, projectId);
-        return update.executeUpdate() == 1;
+        return write(UPDATE_DATE_DUE, update -> {
+            update.setString(1, dueDate);
+            update.setInt(2, projectId);
+        });
     }
 
     /**
@@ -147,13 +715,24 @@ public abstract class EntityUpdater extends EntityQuerier {
      * @throws SQLException if the update fails.
      */
     public boolean updateAccount(int projectId, int amountDue, int amountPaid) throws SQLException {
-        PreparedStatement update = queryBuilder.update("account")
-                .set("amount_due", "amount_paid")
-                .where("project").prepare();
-        update.setInt(1, amountDue);
-        update.setInt(2, amountPaid);
-        update.setInt(3, projectId);
-        return update.executeUpdate() == 1;
+        boolean updated = false;
+        try {
+            updated = write(UPDATE_ACCOUNT, update -> {
+                update.setInt(1, amountDue);
+                update.setInt(2, amountPaid);
+                update.setInt(3, projectId);
+            });
+        } finally {
+            if (projects != null) {
+                if (updated) {
+                    projects.writeThrough(projectId, project -> project.setCost(amountDue).setPaid(amountPaid));
+                    onRollback(() -> projects.invalidate(projectId));
+                } else {
+                    projects.invalidate(projectId);
+                }
+            }
+        }
+        return updated;
     }
 
     /**
@@ -166,35 +745,44 @@ public abstract class EntityUpdater extends EntityQuerier {
      * @throws SQLException if the update fails.
      */
     public boolean updateContactDetails(int personId, String phoneNumber, String emailAddress) throws SQLException {
-        boolean updatePhone = false;
-        QueryBuilder query = queryBuilder.update("person");
-        int updates;
+        if (keys != null) {
+            keys.addPhoneNumber(phoneNumber);
+            keys.addEmailAddress(emailAddress);
+        }
+        try {
+            return writeContactDetails(personId, phoneNumber, emailAddress);
+        } finally {
+            // The cached person may already hold the new details (or stale ones if the update failed).
+            if (people != null) {
+                people.invalidate(personId);
+                // A read between now and the commit of the unit would cache the person as they were before.
+                onCommit(() -> people.invalidate(personId));
+                onRollback(() -> people.invalidate(personId));
+            }
+        }
+    }
+
+    /**
+     * @see #updateContactDetails(int, String, String)
+     */
+    private boolean writeContactDetails(int personId, String phoneNumber, String emailAddress) throws SQLException {
         if (phoneNumber != null && emailAddress != null) {
-            query.set("phone_number", "email_address");
-            updatePhone = true;
-            updates = 2;
+            return write(UPDATE_CONTACT_DETAILS, statement -> {
+                statement.setString(1, phoneNumber);
+                statement.setString(2, emailAddress);
+                statement.setInt(3, personId);
+            });
         } else if (phoneNumber != null) {
-            query.set("phone_number");
-            updatePhone = true;
-            updates = 1;
-        } else if (emailAddress != null) {
-            query.set("email_address");
-            updates = 1;
-        } else {
-            return false;
-        }
-        PreparedStatement statement = query.where("person_id").prepare();
-        if (updates == 1) {
-            if (updatePhone) {
+            return write(UPDATE_PHONE_NUMBER, statement -> {
                 statement.setString(1, phoneNumber);
-            } else {
+                statement.setInt(2, personId);
+            });
+        } else if (emailAddress != null) {
+            return write(UPDATE_EMAIL_ADDRESS, statement -> {
                 statement.setString(1, emailAddress);
-            }
-        } else {
-            statement.setString(1, phoneNumber);
-            statement.setString(2, emailAddress);
+                statement.setInt(2, personId);
+            });
         }
-        statement.setInt(updates + 1, personId);
-        return statement.executeUpdate() == 1;
+        return false;
     }
 }
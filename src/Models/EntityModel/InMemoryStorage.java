@@ -0,0 +1,911 @@
+package Models.EntityModel;
+
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import Components.TypeRegistry;
+import Entities.Address;
+import Entities.Participant;
+import Entities.Person;
+import Entities.Project;
+import Entities.RoleCoverage;
+import Factories.PersonFactory;
+import Interfaces.IQuery;
+import Interfaces.ResultsHandler;
+
+/**
+ * An {@link EntityStorage} which keeps everything in memory, for test runs, demonstrations and load-test baselines
+ * which should not depend on a database.
+ *
+ * Each table is a concurrent map keyed by its primary key, with concurrent hash indexes on the columns the controllers
+ * look rows up by: projects by name, people by phone number and email address, and participants by project. Projects
+ * are kept in a sorted map so that they can be listed and paged by project_id. Rows are immutable and replaced as a
+ * whole, so reads never lock and never see a half-written row.
+ *
+ * Writes are serialized by a single lock, under which the constraints of {@code sql/helpers/tables.sql} are checked
+ * and the rules the database enforces with triggers and procedures are applied the same way:
+ * <ul>
+ * <li>every project is given an account with nothing due or paid when it is inserted (create_account);</li>
+ * <li>a participant cannot be assigned to a role which is already full in their project (limit_relationships);</li>
+ * <li>a project without a name is named after the first customer assigned to it (set_default_project_name).</li>
+ * </ul>
+ * Each write is atomic. A {@link UnitOfWork} holds the write lock from when it is begun until it is closed, and undoes
+ * its writes if it is not committed; reads on other threads see its writes before it is committed.
+ */
+public class InMemoryStorage implements EntityStorage, IQuery {
+    /**
+     * The building types, as inserted by sql/setup.sql.
+     */
+    private static final List<String> BUILDING_TYPES = List.of("house", "villa", "mansion", "apartment", "rdp",
+            "shack");
+    /**
+     * The relationship types, as inserted by sql/setup.sql; each allows one participant per project.
+     */
+    private static final List<String> RELATIONSHIP_TYPES = List.of(CUSTOMER_ROLE, "project manager", "contractor",
+            "architect", "structural engineer");
+    /**
+     * The amount of records to write at a time when importing; the same as the default db.batch-size.
+     */
+    private static final int BATCH_SIZE = 500;
+    /**
+     * The statistics reported for the caches and filters, which the in-memory storage does not need.
+     */
+    private static final String NOT_USED = "not used by the in-memory storage";
+
+    /**
+     * A row of the person table.
+     */
+    private static final class PersonRow {
+        final int personId;
+        final String firstName, lastName, phoneNumber, emailAddress;
+        final int erfNumber;
+
+        PersonRow(int personId, String firstName, String lastName, String phoneNumber, String emailAddress,
+                int erfNumber) {
+            this.personId = personId;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.phoneNumber = phoneNumber;
+            this.emailAddress = emailAddress;
+            this.erfNumber = erfNumber;
+        }
+
+        PersonRow withContactDetails(String phoneNumber, String emailAddress) {
+            return new PersonRow(personId, firstName, lastName, phoneNumber, emailAddress, erfNumber);
+        }
+    }
+
+    /**
+     * A row of the project table, with its account and progress.
+     */
+    private static final class ProjectRow {
+        final int projectId;
+        final String name, type;
+        final int erfNumber, amountDue, amountPaid;
+        /**
+         * Whether the project has a progress row; its dates are {@code null} until it does.
+         */
+        final boolean hasProgress;
+        final LocalDate dateDue, dateFinalized;
+
+        ProjectRow(int projectId, String name, String type, int erfNumber, int amountDue, int amountPaid,
+                boolean hasProgress, LocalDate dateDue, LocalDate dateFinalized) {
+            this.projectId = projectId;
+            this.name = name;
+            this.type = type;
+            this.erfNumber = erfNumber;
+            this.amountDue = amountDue;
+            this.amountPaid = amountPaid;
+            this.hasProgress = hasProgress;
+            this.dateDue = dateDue;
+            this.dateFinalized = dateFinalized;
+        }
+
+        ProjectRow withName(String name) {
+            return new ProjectRow(projectId, name, type, erfNumber, amountDue, amountPaid, hasProgress, dateDue,
+                    dateFinalized);
+        }
+
+        ProjectRow withAccount(int amountDue, int amountPaid) {
+            return new ProjectRow(projectId, name, type, erfNumber, amountDue, amountPaid, hasProgress, dateDue,
+                    dateFinalized);
+        }
+
+        ProjectRow withProgress(LocalDate dateDue, LocalDate dateFinalized) {
+            return new ProjectRow(projectId, name, type, erfNumber, amountDue, amountPaid, true, dateDue,
+                    dateFinalized);
+        }
+    }
+
+    /**
+     * A row of the participant table, kept in the list of its project.
+     */
+    private static final class ParticipantRow {
+        final int participantId, personId;
+        final String role;
+
+        ParticipantRow(int participantId, int personId, String role) {
+            this.participantId = participantId;
+            this.personId = personId;
+            this.role = role;
+        }
+    }
+
+    /**
+     * A write of one or more rows, which is undone as a whole if it fails.
+     */
+    @FunctionalInterface
+    private interface Write<T> {
+        T apply() throws SQLException;
+    }
+
+    private final ConcurrentMap<Integer, Address> addresses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, PersonRow> people = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> peopleByPhone = new ConcurrentHashMap<>();
+    /**
+     * The person_id of the person with each email address, keyed by {@link #emailKey(String)}: like the unique key on
+     * person.email_address, whose collation ignores case, addresses differing only in case are the same.
+     */
+    private final ConcurrentMap<String, Integer> peopleByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Integer, ProjectRow> projects = new ConcurrentSkipListMap<>();
+    /**
+     * The project_ids of the projects with each name, in ascending order; project names are not unique.
+     */
+    private final ConcurrentMap<String, List<Integer>> projectsByName = new ConcurrentHashMap<>();
+    /**
+     * The participants of each project, in the order they were assigned.
+     */
+    private final ConcurrentMap<Integer, List<ParticipantRow>> participantsByProject = new ConcurrentHashMap<>();
+    /**
+     * The maximum amount of participants of each relationship type in a project.
+     */
+    private final Map<String, Integer> quotas;
+    private final AtomicInteger personIds = new AtomicInteger(),
+            projectIds = new AtomicInteger(),
+            participantIds = new AtomicInteger();
+    /**
+     * Serializes writes, so that the checks and indexes of each write see the rows as the write leaves them.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    /**
+     * Undoes the writes made on each thread since its current write or unit of work began, most recent first;
+     * {@code null} if neither is in progress.
+     */
+    private final ThreadLocal<Deque<Runnable>> undoLog = new ThreadLocal<>();
+
+    /**
+     * Creates an empty storage with the building and relationship types of sql/setup.sql.
+     */
+    public InMemoryStorage() {
+        Map<String, Integer> quotas = new HashMap<>();
+        RELATIONSHIP_TYPES.forEach(role -> quotas.put(role, 1));
+        this.quotas = Map.copyOf(quotas);
+    }
+
+    /**
+     * A {@link UnitOfWork} which undoes the writes made on its thread unless it is committed.
+     */
+    private class MemoryUnitOfWork implements UnitOfWork {
+        private final Operation operation;
+        private final Deque<Runnable> log = new ArrayDeque<>();
+        private boolean committed, closed;
+
+        MemoryUnitOfWork(Operation operation) {
+            this.operation = operation;
+            writeLock.lock();
+            undoLog.set(log);
+        }
+
+        @Override
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * Does nothing, as every write is applied when it is made.
+         */
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void commit() {
+            if (committed) {
+                throw new IllegalStateException("The unit of work was already committed.");
+            }
+            log.clear();
+            committed = true;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            undoLog.remove();
+            try {
+                log.forEach(Runnable::run);
+                log.clear();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public UnitOfWork beginWork(UnitOfWork.Operation operation) {
+        if (undoLog.get() != null) {
+            throw new IllegalStateException("A unit of work is already open on this thread.");
+        }
+        return new MemoryUnitOfWork(operation);
+    }
+
+    /**
+     * Makes {@code write} under the write lock, undoing every row it wrote if it fails. In a unit of work, the rows
+     * are also undone if the unit is rolled back.
+     */
+    private <T> T atomically(Write<T> write) throws SQLException {
+        writeLock.lock();
+        Deque<Runnable> enclosing = undoLog.get(), log = new ArrayDeque<>();
+        undoLog.set(log);
+        try {
+            T result = write.apply();
+            if (enclosing != null) {
+                for (Iterator<Runnable> undo = log.descendingIterator(); undo.hasNext();) {
+                    enclosing.push(undo.next());
+                }
+            }
+            return result;
+        } catch (SQLException | RuntimeException error) {
+            log.forEach(Runnable::run);
+            throw error;
+        } finally {
+            undoLog.set(enclosing);
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the row of {@code table} at {@code key} with {@code row}, recording how to restore the previous row.
+     *
+     * @param row the new row; {@code null} to remove the row.
+     */
+    private <K, V> void put(Map<K, V> table, K key, V row) {
+        V previous = row == null ? table.remove(key) : table.put(key, row);
+        Deque<Runnable> log = undoLog.get();
+        if (log != null) {
+            log.push(() -> {
+                if (previous == null) {
+                    table.remove(key);
+                } else {
+                    table.put(key, previous);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return {@code values} followed by {@code value}, as a new unmodifiable list.
+     */
+    private static <T> List<T> append(List<T> values, T value) {
+        List<T> appended = new ArrayList<>(values);
+        appended.add(value);
+        return Collections.unmodifiableList(appended);
+    }
+
+    private static SQLException duplicateEntry(Object value, String key) {
+        return new SQLIntegrityConstraintViolationException(String.format(DUPLICATE_ENTRY_MESSAGE, value, key),
+                INTEGRITY_SQL_STATE);
+    }
+
+    private static SQLException missingReference(String table, String column, Object value) {
+        return new SQLIntegrityConstraintViolationException(
+                String.format(MISSING_REFERENCE_MESSAGE, table, column, value), INTEGRITY_SQL_STATE);
+    }
+
+    /**
+     * @throws SQLException if {@code value} is {@code null}.
+     */
+    private static void requireValue(Object value, String column) throws SQLException {
+        if (value == null) {
+            throw new SQLIntegrityConstraintViolationException(String.format(REQUIRED_VALUE_MESSAGE, column),
+                    INTEGRITY_SQL_STATE);
+        }
+    }
+
+    /**
+     * @return {@code date}, which must be formatted as yyyy-mm-dd.
+     * @throws SQLException if {@code date} is not a valid date.
+     */
+    private static LocalDate parseDate(String date) throws SQLException {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException error) {
+            throw new SQLDataException(String.format(INVALID_DATE_MESSAGE, date), INVALID_DATE_SQL_STATE, error);
+        }
+    }
+
+    private static String formatDate(LocalDate date) {
+        return date == null ? null : date.toString();
+    }
+
+    /**
+     * @return the projects in {@code view}, as filtered by sql/helpers/views.sql.
+     * @throws IllegalArgumentException if {@code view} is not a project view.
+     */
+    private static Predicate<ProjectRow> inProjectView(String view) throws IllegalArgumentException {
+        switch (view) {
+            case PROJECTS_VIEW:
+                return project -> true;
+            case INCOMPLETE_PROJECTS_VIEW:
+                return project -> project.dateFinalized == null;
+            case OUTSTANDING_PROJECTS_VIEW:
+                return project -> project.dateFinalized == null && project.dateDue != null
+                        && project.dateDue.isBefore(LocalDate.now());
+            case FINALIZED_PROJECTS_VIEW:
+                return project -> project.dateFinalized != null;
+            default:
+                throw new IllegalArgumentException(String.format(PROJECT_VIEW_INVALID_MESSAGE, view));
+        }
+    }
+
+    /**
+     * @return the project in {@code row}, as read from the projects view.
+     */
+    private Project toProject(ProjectRow row) {
+        return new Project(row.projectId, row.name, getAddress(row.erfNumber), row.type)
+                .setDueDate(formatDate(row.dateDue))
+                .setDateFinalized(formatDate(row.dateFinalized))
+                .setErfNumber(row.erfNumber)
+                .setCost(row.amountDue)
+                .setPaid(row.amountPaid);
+    }
+
+    /**
+     * @return the person in {@code row}, as read from the people view.
+     */
+    private Person toPerson(PersonRow row) {
+        return PersonFactory.fromDetails(row.personId, row.firstName, row.lastName, row.emailAddress,
+                row.phoneNumber, getAddress(row.erfNumber), row.erfNumber);
+    }
+
+    @Override
+    public List<Project> getProjects(String view) throws IllegalArgumentException {
+        Predicate<ProjectRow> inView = inProjectView(view);
+        return projects.values().stream().filter(inView).map(this::toProject)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @Override
+    public Stream<Project> streamProjects(String view) throws IllegalArgumentException {
+        return projects.values().stream().filter(inProjectView(view)).map(this::toProject);
+    }
+
+    @Override
+    public List<Project> getProjectPage(String view, int projectId, int pageSize, boolean forward)
+            throws IllegalArgumentException {
+        Predicate<ProjectRow> inView = inProjectView(view);
+        NavigableMap<Integer, ProjectRow> range = forward
+                ? projects.tailMap(projectId, false)
+                : projects.headMap(projectId, false).descendingMap();
+        List<Project> page = range.values().stream().filter(inView).limit(pageSize).map(this::toProject)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (!forward) {
+            Collections.reverse(page);
+        }
+        return page;
+    }
+
+    /**
+     * @throws SQLFeatureNotSupportedException always, as the views are only defined in the database.
+     */
+    @Override
+    public <T> T scanView(String view, ResultsHandler<T> handler) throws SQLException, IllegalArgumentException {
+        if (!Arrays.asList(EXPORTABLE_VIEWS).contains(view)) {
+            throw new IllegalArgumentException(EXPORT_VIEW_INVALID_MESSAGE);
+        }
+        throw new SQLFeatureNotSupportedException(VIEWS_UNAVAILABLE_MESSAGE);
+    }
+
+    @Override
+    public Project selectProject(int projectId) {
+        ProjectRow project = projects.get(projectId);
+        return project == null ? null : toProject(project);
+    }
+
+    @Override
+    public Project selectProject(String projectName) {
+        List<Integer> named = projectName == null ? null : projectsByName.get(projectName);
+        if (named == null || named.isEmpty()) {
+            return null;
+        }
+        return selectProject(named.get(0));
+    }
+
+    @Override
+    public HashMap<String, Person> getParticipants(int projectId) {
+        HashMap<String, Person> participants = new HashMap<>();
+        for (ParticipantRow participant : participantsByProject.getOrDefault(projectId, List.of())) {
+            PersonRow person = people.get(participant.personId);
+            if (person != null) {
+                participants.put(participant.role, toPerson(person));
+            }
+        }
+        return participants;
+    }
+
+    @Override
+    public List<RoleCoverage> getRoleCoverage(TypeRegistry types) {
+        List<RoleCoverage> coverage = new ArrayList<>();
+        for (ProjectRow project : projects.values()) {
+            List<String> roles = participantsByProject.getOrDefault(project.projectId, List.of()).stream()
+                    .map(participant -> participant.role).distinct().collect(Collectors.toList());
+            coverage.add(new RoleCoverage(project.projectId, project.name, types.getRoleMask(roles)));
+        }
+        return coverage;
+    }
+
+    @Override
+    public TypeRegistry loadTypes(long version) {
+        return new TypeRegistry(version, BUILDING_TYPES, RELATIONSHIP_TYPES,
+                RELATIONSHIP_TYPES.stream().mapToInt(quotas::get).toArray());
+    }
+
+    /**
+     * Does nothing, as every key is already looked up in a hash index.
+     */
+    @Override
+    public void loadKeyFilters() {
+    }
+
+    @Override
+    public Person selectPerson(String phoneNumber) {
+        Integer personId = phoneNumber == null ? null : peopleByPhone.get(phoneNumber);
+        return personId == null ? null : selectPerson(personId);
+    }
+
+    @Override
+    public Person selectPerson(int personId) {
+        PersonRow person = people.get(personId);
+        return person == null ? null : toPerson(person);
+    }
+
+    @Override
+    public boolean isEmailAddressRegistered(String emailAddress) {
+        return emailAddress != null && peopleByEmail.containsKey(emailKey(emailAddress));
+    }
+
+    /**
+     * @return the full address, formatted like the addresses view; {@code null} if there is no address with
+     *         {@code erfNumber}.
+     */
+    @Override
+    public String getAddress(int erfNumber) {
+        Address address = addresses.get(erfNumber);
+        if (address == null) {
+            return null;
+        }
+        return Stream.of(address.getStreetAddress(), address.getSuburb(), address.getCity(), address.getProvince(),
+                String.valueOf(address.getPostCode()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Inserts a row into the person table, under the write lock.
+     *
+     * @return the person_id generated for the person.
+     */
+    private int insertPerson(String firstName, String lastName, String emailAddress, String phoneNumber,
+            int erfNumber) throws SQLException {
+        requireValue(firstName, "first_name");
+        requireValue(lastName, "last_name");
+        requireValue(phoneNumber, "phone_number");
+        requireValue(emailAddress, "email_address");
+        if (peopleByPhone.containsKey(phoneNumber)) {
+            throw duplicateEntry(phoneNumber, "person.phone_number");
+        }
+        if (peopleByEmail.containsKey(emailKey(emailAddress))) {
+            throw duplicateEntry(emailAddress, "person.email_address");
+        }
+        if (!addresses.containsKey(erfNumber)) {
+            throw missingReference("address", "erf_number", erfNumber);
+        }
+        int personId = personIds.incrementAndGet();
+        put(people, personId, new PersonRow(personId, firstName, lastName, phoneNumber, emailAddress, erfNumber));
+        put(peopleByPhone, phoneNumber, personId);
+        put(peopleByEmail, emailKey(emailAddress), personId);
+        return personId;
+    }
+
+    @Override
+    public Person registerPerson(String firstName, String lastName, String emailAddress, String phoneNumber,
+            int erfNumber, String physicalAddress) throws SQLException {
+        int personId = atomically(() -> insertPerson(firstName, lastName, emailAddress, phoneNumber, erfNumber));
+        return PersonFactory.fromDetails(personId, firstName, lastName, emailAddress, phoneNumber, physicalAddress,
+                erfNumber);
+    }
+
+    @Override
+    public BatchResult<Person> registerPeople(List<Person> people) {
+        BatchResult<Person> result = new BatchResult<>(people);
+        for (int i = 0; i < people.size(); i++) {
+            Person person = people.get(i);
+            try {
+                int personId = atomically(() -> insertPerson(person.getFirstName(), person.getLastName(),
+                        person.getEmailAddress(), person.getPhoneNumber(), person.getErfNumber()));
+                person.setNumber(personId);
+                result.succeeded(i, personId);
+            } catch (SQLException error) {
+                result.failed(i, error);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the name of {@code project} and its entry in the name index, under the write lock.
+     */
+    private void renameProject(ProjectRow project, String name) {
+        unindexProjectName(project.name, project.projectId);
+        put(projects, project.projectId, project.withName(name));
+        indexProjectName(name, project.projectId);
+    }
+
+    private void indexProjectName(String name, int projectId) {
+        List<Integer> named = new ArrayList<>(projectsByName.getOrDefault(name, List.of()));
+        int index = Collections.binarySearch(named, projectId);
+        named.add(index < 0 ? -index - 1 : index, projectId);
+        put(projectsByName, name, Collections.unmodifiableList(named));
+    }
+
+    private void unindexProjectName(String name, int projectId) {
+        List<Integer> named = new ArrayList<>(projectsByName.getOrDefault(name, List.of()));
+        named.remove(Integer.valueOf(projectId));
+        put(projectsByName, name, named.isEmpty() ? null : Collections.unmodifiableList(named));
+    }
+
+    /**
+     * Inserts a row into the participant table, under the write lock, applying the checks and naming of the
+     * participant triggers.
+     *
+     * @return the participant_id generated for the participant.
+     */
+    private int insertParticipant(int projectId, int personId, String role) throws SQLException {
+        ProjectRow project = projects.get(projectId);
+        if (project == null) {
+            throw missingReference("project", "project_id", projectId);
+        }
+        PersonRow person = people.get(personId);
+        if (person == null) {
+            throw missingReference("person", "person_id", personId);
+        }
+        Integer quota = role == null ? null : quotas.get(role);
+        if (quota == null) {
+            throw missingReference("relationship", "relationship_type", role);
+        }
+        List<ParticipantRow> assigned = participantsByProject.getOrDefault(projectId, List.of());
+        long registered = assigned.stream().filter(participant -> participant.role.equals(role)).count();
+        if (registered >= quota) {
+            throw new SQLException(String.format(MAX_RELATIONSHIP_MESSAGE, role, quota), QUOTA_SQL_STATE);
+        }
+        if (project.name.isEmpty() && CUSTOMER_ROLE.equals(role)) {
+            renameProject(project, project.type + ' ' + person.lastName);
+        }
+        int participantId = participantIds.incrementAndGet();
+        put(participantsByProject, projectId, append(assigned, new ParticipantRow(participantId, personId, role)));
+        return participantId;
+    }
+
+    @Override
+    public int registerParticipant(int projectId, int personId, String role) throws SQLException {
+        return atomically(() -> insertParticipant(projectId, personId, role));
+    }
+
+    /**
+     * Assigns each of {@code participants} to their project, recording the participants which cannot be assigned
+     * with the reason they were not.
+     *
+     * @param participants the participants to insert.
+     * @param types        the relationship types known to the caller; a participant in a role which is not in
+     *                     {@code types} is not assigned.
+     */
+    @Override
+    public BatchResult<Participant> registerParticipants(List<Participant> participants, TypeRegistry types) {
+        BatchResult<Participant> result = new BatchResult<>(participants);
+        for (int i = 0; i < participants.size(); i++) {
+            Participant participant = participants.get(i);
+            if (types.getRoleOrdinal(participant.getRole()) == TypeRegistry.UNKNOWN) {
+                result.failed(i, new SQLException(String.format(ROLE_INVALID_MESSAGE, participant.getRole())));
+                continue;
+            }
+            try {
+                result.succeeded(i, registerParticipant(participant.getProjectId(), participant.getPersonId(),
+                        participant.getRole()));
+            } catch (SQLException error) {
+                result.failed(i, error);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Inserts a row into the project table, with its account, under the write lock.
+     *
+     * @return the project_id generated for the project.
+     */
+    private int insertProject(String projectName, String projectType, int erfNumber) throws SQLException {
+        requireValue(projectType, "project_type");
+        if (!BUILDING_TYPES.contains(projectType)) {
+            throw missingReference("building", "building_type", projectType);
+        }
+        if (!addresses.containsKey(erfNumber)) {
+            throw missingReference("address", "erf_number", erfNumber);
+        }
+        String name = projectName == null ? "" : projectName;
+        int projectId = projectIds.incrementAndGet();
+        // The create_account trigger gives every project an account.
+        put(projects, projectId, new ProjectRow(projectId, name, projectType, erfNumber, 0, 0, false, null, null));
+        indexProjectName(name, projectId);
+        return projectId;
+    }
+
+    /**
+     * Inserts the progress of a project, under the write lock.
+     */
+    private void insertProgress(int projectId, String dueDate) throws SQLException {
+        requireValue(dueDate, "date_due");
+        ProjectRow project = projects.get(projectId);
+        if (project == null) {
+            throw missingReference("project", "project_id", projectId);
+        }
+        put(projects, projectId, project.withProgress(parseDate(dueDate), null));
+    }
+
+    @Override
+    public Project registerProject(String projectName, String projectType, int erfNumber, String projectAddress)
+            throws SQLException {
+        int projectId = atomically(() -> insertProject(projectName, projectType, erfNumber));
+        return new Project(projectId, projectName, projectAddress, projectType).setErfNumber(erfNumber);
+    }
+
+    @Override
+    public Project createProject(String projectName, String projectType, int erfNumber, String projectAddress,
+            String dueDate, Person customer, Map<String, Person> roster, Collection<Address> newAddresses)
+            throws SQLException {
+        for (Address address : newAddresses) {
+            if (address.getErfNumber() != erfNumber && address.getErfNumber() != customer.getErfNumber()) {
+                throw new IllegalArgumentException(
+                        "Address " + address.getErfNumber() + " belongs to neither the project nor its customer.");
+            }
+        }
+        Map<String, Person> members = roster == null ? Map.of() : roster;
+        members.forEach((role, member) -> {
+            if (member.getNumber() == 0) {
+                throw new IllegalArgumentException("The " + role + " must be registered first.");
+            }
+        });
+        boolean newCustomer = customer.getNumber() == 0;
+        int[] customerId = { customer.getNumber() };
+        String[] name = { projectName };
+        int projectId = atomically(() -> {
+            for (Address address : newAddresses) {
+                insertAddress(address);
+            }
+            if (newCustomer) {
+                customerId[0] = insertPerson(customer.getFirstName(), customer.getLastName(),
+                        customer.getEmailAddress(), customer.getPhoneNumber(), customer.getErfNumber());
+            }
+            PersonRow customerRow = people.get(customerId[0]);
+            if (customerRow == null) {
+                throw missingReference("person", "person_id", customerId[0]);
+            }
+            if (name[0] == null || name[0].isEmpty()) {
+                name[0] = projectType + ' ' + customerRow.lastName;
+            }
+            int id = insertProject(name[0], projectType, erfNumber);
+            insertProgress(id, dueDate);
+            insertParticipant(id, customerId[0], CUSTOMER_ROLE);
+            for (Map.Entry<String, Person> member : members.entrySet()) {
+                insertParticipant(id, member.getValue().getNumber(), member.getKey());
+            }
+            return id;
+        });
+        if (newCustomer) {
+            customer.setNumber(customerId[0]);
+        }
+        return new Project(projectId, name[0], projectAddress, projectType)
+                .setErfNumber(erfNumber)
+                .setDueDate(dueDate);
+    }
+
+    @Override
+    public BatchResult<Project> registerProjects(List<Project> projects) {
+        BatchResult<Project> result = new BatchResult<>(projects);
+        for (int i = 0; i < projects.size(); i++) {
+            Project project = projects.get(i);
+            try {
+                int projectId = atomically(() -> {
+                    int id = insertProject(project.getName(), project.getType(), project.getErfNumber());
+                    insertProgress(id, project.getDueDate());
+                    return id;
+                });
+                project.setNumber(projectId);
+                result.succeeded(i, projectId);
+            } catch (SQLException error) {
+                result.failed(i, error);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Inserts a row into the address table, under the write lock.
+     */
+    private void insertAddress(Address address) throws SQLException {
+        if (addresses.containsKey(address.getErfNumber())) {
+            throw duplicateEntry(address.getErfNumber(), "address.PRIMARY");
+        }
+        put(addresses, address.getErfNumber(), address);
+    }
+
+    @Override
+    public int registerAddress(int erfNumber, String streetAddress, String suburb, String city, String province,
+            int postCode) throws SQLException {
+        Address address = new Address(erfNumber, streetAddress, suburb, city, province, postCode);
+        atomically(() -> {
+            insertAddress(address);
+            return null;
+        });
+        return 1;
+    }
+
+    @Override
+    public BatchResult<Address> registerAddresses(List<Address> addresses) {
+        BatchResult<Address> result = new BatchResult<>(addresses);
+        for (int i = 0; i < addresses.size(); i++) {
+            Address address = addresses.get(i);
+            try {
+                atomically(() -> {
+                    insertAddress(address);
+                    return null;
+                });
+                result.succeeded(i, 1);
+            } catch (SQLException error) {
+                result.failed(i, error);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean updateProgress(int projectId, String dueDate, String dateFinalized) throws SQLException {
+        boolean dateDueIsDate = dueDate.matches(DATE_FORMAT_REGEX),
+                dateFinalizedIsDate = dateFinalized.matches(DATE_FORMAT_REGEX);
+        return atomically(() -> {
+            ProjectRow project = projects.get(projectId);
+            if (project == null || !project.hasProgress) {
+                return false;
+            }
+            LocalDate newDateDue = project.dateDue, newDateFinalized = project.dateFinalized;
+            if (dateDueIsDate && dateFinalizedIsDate) {
+                newDateDue = parseDate(dueDate);
+                newDateFinalized = parseDate(dateFinalized);
+            } else if (dateFinalizedIsDate) {
+                newDateFinalized = parseDate(dateFinalized);
+            } else {
+                newDateDue = parseDate(dueDate);
+            }
+            put(projects, projectId, project.withProgress(newDateDue, newDateFinalized));
+            return true;
+        });
+    }
+
+    @Override
+    public boolean updateAccount(int projectId, int amountDue, int amountPaid) throws SQLException {
+        return atomically(() -> {
+            ProjectRow project = projects.get(projectId);
+            if (project == null) {
+                return false;
+            }
+            put(projects, projectId, project.withAccount(amountDue, amountPaid));
+            return true;
+        });
+    }
+
+    @Override
+    public boolean updateContactDetails(int personId, String phoneNumber, String emailAddress) throws SQLException {
+        if (phoneNumber == null && emailAddress == null) {
+            return false;
+        }
+        return atomically(() -> {
+            PersonRow person = people.get(personId);
+            if (person == null) {
+                return false;
+            }
+            String newPhoneNumber = phoneNumber == null ? person.phoneNumber : phoneNumber,
+                    newEmailAddress = emailAddress == null ? person.emailAddress : emailAddress;
+            Integer phoneOwner = peopleByPhone.get(newPhoneNumber),
+                    emailOwner = peopleByEmail.get(emailKey(newEmailAddress));
+            if (phoneOwner != null && phoneOwner != personId) {
+                throw duplicateEntry(newPhoneNumber, "person.phone_number");
+            }
+            if (emailOwner != null && emailOwner != personId) {
+                throw duplicateEntry(newEmailAddress, "person.email_address");
+            }
+            put(peopleByPhone, person.phoneNumber, null);
+            put(peopleByEmail, emailKey(person.emailAddress), null);
+            put(people, personId, person.withContactDetails(newPhoneNumber, newEmailAddress));
+            put(peopleByPhone, newPhoneNumber, personId);
+            put(peopleByEmail, emailKey(newEmailAddress), personId);
+            return true;
+        });
+    }
+
+    /**
+     * @return {@code emailAddress} as it is keyed in {@link #peopleByEmail}.
+     */
+    private static String emailKey(String emailAddress) {
+        return emailAddress.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    /**
+     * @return the amount of processors, as every operation runs on the calling thread.
+     */
+    @Override
+    public int getMaxConnections() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public String getStatementCacheStatistics() {
+        return NOT_USED;
+    }
+
+    @Override
+    public String getPersonCacheStatistics() {
+        return NOT_USED;
+    }
+
+    @Override
+    public String getProjectCacheStatistics() {
+        return NOT_USED;
+    }
+
+    @Override
+    public String getKeyFilterStatistics() {
+        return NOT_USED;
+    }
+}
@@ -0,0 +1,120 @@
+package Models.EntityModel;
+
+import java.util.Locale;
+
+import Components.Cache.BloomFilter;
+
+/**
+ * Records which ERF numbers, phone numbers and email addresses exist in the database, so that lookups of keys which
+ * definitely do not exist can be answered without a query.
+ * 
+ * Until {@link #ready()} is called every key is reported as possibly existing. Keys are added before the rows
+ * containing them are written, so a definite miss is never reported for a row which has been committed by this
+ * application. Rows written by other applications are not seen until the filters are loaded again.
+ * 
+ * Email addresses are compared case-insensitively by the database's collation, so they are recorded and looked up in
+ * lower case; otherwise a case variant of an existing address would be reported as a definite miss.
+ */
+public class KeyFilters {
+    /**
+     * The fraction of absent keys which may still be looked up in the database.
+     */
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    /**
+     * The least amount of keys each filter is sized for.
+     */
+    private static final int MINIMUM_CAPACITY = 1024;
+
+    private volatile BloomFilter erfNumbers, phoneNumbers, emailAddresses;
+    private volatile boolean ready;
+
+    /**
+     * Replaces the filters with empty ones, leaving room for the existing keys to double before falling back to
+     * exact sets. Keys added from here on are recorded, but lookups are not answered until {@link #ready()}.
+     * 
+     * @param addressCount the amount of addresses in the database.
+     * @param personCount  the amount of people in the database.
+     */
+    public void reset(long addressCount, long personCount) {
+        ready = false;
+        erfNumbers = new BloomFilter(Math.max(MINIMUM_CAPACITY, addressCount * 2), FALSE_POSITIVE_RATE);
+        phoneNumbers = new BloomFilter(Math.max(MINIMUM_CAPACITY, personCount * 2), FALSE_POSITIVE_RATE);
+        emailAddresses = new BloomFilter(Math.max(MINIMUM_CAPACITY, personCount * 2), FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Marks the filters as holding every key in the database.
+     */
+    public void ready() {
+        ready = true;
+    }
+
+    public void addErfNumber(int erfNumber) {
+        BloomFilter filter = erfNumbers;
+        if (filter != null) {
+            filter.add(String.valueOf(erfNumber));
+        }
+    }
+
+    public void addPhoneNumber(String phoneNumber) {
+        add(phoneNumbers, phoneNumber);
+    }
+
+    public void addEmailAddress(String emailAddress) {
+        add(emailAddresses, normalizeEmailAddress(emailAddress));
+    }
+
+    /**
+     * @return {@code false} if no address with {@code erfNumber} exists.
+     */
+    public boolean mayHaveErfNumber(int erfNumber) {
+        return !ready || erfNumbers.mightContain(String.valueOf(erfNumber));
+    }
+
+    /**
+     * @return {@code false} if no person with {@code phoneNumber} exists.
+     */
+    public boolean mayHavePhoneNumber(String phoneNumber) {
+        return mayHave(phoneNumbers, phoneNumber);
+    }
+
+    /**
+     * @return {@code false} if no person with {@code emailAddress} exists.
+     */
+    public boolean mayHaveEmailAddress(String emailAddress) {
+        return mayHave(emailAddresses, normalizeEmailAddress(emailAddress));
+    }
+
+    /**
+     * @return {@code emailAddress} trimmed and in lower case; {@code null} if it is {@code null}.
+     */
+    private static String normalizeEmailAddress(String emailAddress) {
+        return emailAddress == null ? null : emailAddress.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void add(BloomFilter filter, String key) {
+        if (filter != null && key != null) {
+            filter.add(key);
+        }
+    }
+
+    private boolean mayHave(BloomFilter filter, String key) {
+        if (!ready) {
+            return true;
+        }
+        // No row has a NULL key, as the columns are NOT NULL.
+        return key != null && filter.mightContain(key);
+    }
+
+    @Override
+    public String toString() {
+        if (!ready) {
+            return "loading";
+        }
+        return new StringBuilder()
+                .append("erf numbers [").append(erfNumbers).append("], ")
+                .append("phone numbers [").append(phoneNumbers).append("], ")
+                .append("email addresses [").append(emailAddresses).append(']')
+                .toString();
+    }
+}
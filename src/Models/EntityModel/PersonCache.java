@@ -0,0 +1,196 @@
+package Models.EntityModel;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import Components.Cache.LruCache;
+import Entities.Person;
+
+/**
+ * A bounded cache of the {@link Person} entities read from the {@code people} view, indexed by both person_id and
+ * phone_number. Entries are evicted least recently used first and removed whenever the person is written to.
+ * 
+ * Every write to a person bumps this cache's version and stamps their person_id or phone number with it. A person
+ * read from the database is only stored if neither was written to while they were being read, so a slow read can
+ * never put back a person which a write has just removed.
+ */
+class PersonCache {
+    /**
+     * The cached people, keyed by person_id.
+     */
+    private final LruCache<Integer, Person> people;
+    /**
+     * The phone number each cached person was indexed by, and the reverse. The phone number is kept separately
+     * because callers may change a cached {@link Person} before the change is written.
+     */
+    private final Map<String, Integer> idsByPhone = new HashMap<>();
+    private final Map<Integer, String> phonesById = new HashMap<>();
+    /**
+     * The amount of writes made to any person.
+     */
+    private long version;
+    /**
+     * The version of the last write to each recently written person_id and phone number, oldest first; each bounded
+     * by the capacity of this cache.
+     */
+    private final Map<Integer, Long> lastWrites;
+    private final Map<String, Long> lastPhoneWrites;
+    /**
+     * The latest version dropped from either {@link #lastWrites} or {@link #lastPhoneWrites}, assumed for any
+     * person_id or phone number which is not in them.
+     */
+    private long forgottenVersion;
+
+    /**
+     * The constructor for PersonCache.
+     * 
+     * @param capacity the maximum amount of people to keep.
+     */
+    PersonCache(int capacity) {
+        // Evictions only happen in put, which already holds this cache's lock.
+        this.people = new LruCache<>(capacity, (personId, person) -> unindex(personId));
+        this.lastWrites = newWriteLog(capacity);
+        this.lastPhoneWrites = newWriteLog(capacity);
+    }
+
+    /**
+     * @return a map of keys to the version of their last write which forgets its oldest key beyond
+     *         {@code capacity}, raising {@link #forgottenVersion} instead.
+     */
+    private <K> Map<K, Long> newWriteLog(int capacity) {
+        return new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Long> eldest) {
+                if (size() <= Math.max(1, capacity)) {
+                    return false;
+                }
+                forgottenVersion = Math.max(forgottenVersion, eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the current version, to be passed to {@link #putLoaded(Person, long)} once a read completes.
+     */
+    synchronized long beginLoad() {
+        return version;
+    }
+
+    /**
+     * @param personId the person_id of the person.
+     * @return the cached person; {@code null} if the person is not cached.
+     */
+    synchronized Person get(int personId) {
+        return people.get(personId);
+    }
+
+    /**
+     * @param phoneNumber the phone number of the person.
+     * @return the cached person; {@code null} if the person is not cached.
+     */
+    synchronized Person getByPhone(String phoneNumber) {
+        Integer personId = idsByPhone.get(phoneNumber);
+        if (personId == null) {
+            people.getStatistics().recordMiss();
+            return null;
+        }
+        return people.get(personId);
+    }
+
+    /**
+     * Caches {@code person}, which was read from the database, unless they were written to since
+     * {@code loadVersion}.
+     * 
+     * @param person      the person which was read; ignored if {@code null}.
+     * @param loadVersion the result of {@link #beginLoad()} before the person was read.
+     */
+    synchronized void putLoaded(Person person, long loadVersion) {
+        if (person == null || lastWrites.getOrDefault(person.getNumber(), forgottenVersion) > loadVersion) {
+            return;
+        }
+        String phoneNumber = person.getPhoneNumber();
+        if (phoneNumber == null || lastPhoneWrites.getOrDefault(phoneNumber, forgottenVersion) <= loadVersion) {
+            store(person);
+        }
+    }
+
+    /**
+     * Caches {@code person}, which this application has just written, replacing any entry with the same person_id.
+     * 
+     * @param person the person to cache; ignored if {@code null}.
+     */
+    synchronized void put(Person person) {
+        if (person == null) {
+            return;
+        }
+        stamp(person.getNumber());
+        store(person);
+    }
+
+    /**
+     * Caches {@code person}, replacing any entry with the same person_id.
+     */
+    private void store(Person person) {
+        int personId = person.getNumber();
+        people.remove(personId);
+        unindex(personId);
+        people.put(personId, person);
+        String phoneNumber = person.getPhoneNumber();
+        if (phoneNumber != null) {
+            idsByPhone.put(phoneNumber, personId);
+            phonesById.put(personId, phoneNumber);
+        }
+    }
+
+    /**
+     * Removes the person with {@code personId}.
+     * 
+     * @param personId the person_id of the person.
+     */
+    synchronized void invalidate(int personId) {
+        stamp(personId);
+        people.remove(personId);
+        unindex(personId);
+    }
+
+    /**
+     * Records a write to the person with {@code personId} at a new version.
+     */
+    private void stamp(int personId) {
+        lastWrites.remove(personId);
+        lastWrites.put(personId, ++version);
+    }
+
+    /**
+     * Removes the person with {@code phoneNumber}.
+     * 
+     * @param phoneNumber the phone number of the person.
+     */
+    synchronized void invalidate(String phoneNumber) {
+        lastPhoneWrites.remove(phoneNumber);
+        lastPhoneWrites.put(phoneNumber, ++version);
+        Integer personId = idsByPhone.get(phoneNumber);
+        if (personId != null) {
+            invalidate(personId);
+        }
+    }
+
+    /**
+     * Removes {@code personId} from the phone number index.
+     */
+    private void unindex(int personId) {
+        String phoneNumber = phonesById.remove(personId);
+        if (phoneNumber != null) {
+            idsByPhone.remove(phoneNumber);
+        }
+    }
+
+    /**
+     * @return the lookup and eviction counters of this cache.
+     */
+    LruCache.Statistics getStatistics() {
+        return people.getStatistics();
+    }
+}
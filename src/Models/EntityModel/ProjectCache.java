@@ -0,0 +1,170 @@
+package Models.EntityModel;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import Components.Cache.LruCache;
+import Entities.Project;
+
+/**
+ * A bounded cache of the {@link Project} entities read from the {@code project_summary} table, indexed by both
+ * project_id and project_name. Entries expire after a time to live and are evicted least recently used first.
+ * 
+ * Every write to a project bumps this cache's version and stamps the project with it. A project read from the
+ * database is only stored if that project was not written to while it was being read, so a slow read can never
+ * replace the result of a newer write-through with stale data, while reads of other projects are unaffected.
+ */
+class ProjectCache {
+    /**
+     * The cached projects, keyed by project_id.
+     */
+    private final LruCache<Integer, Project> projects;
+    /**
+     * The name each cached project was indexed by, and the reverse.
+     */
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final Map<Integer, String> namesById = new HashMap<>();
+    /**
+     * The amount of writes made to any project.
+     */
+    private long version;
+    /**
+     * The version of the last write to each recently written project, oldest first; bounded by the capacity of this
+     * cache.
+     */
+    private final LinkedHashMap<Integer, Long> lastWrites;
+    /**
+     * The latest version dropped from {@link #lastWrites}, assumed for any project which is not in it.
+     */
+    private long forgottenVersion;
+
+    /**
+     * The constructor for ProjectCache.
+     * 
+     * @param capacity   the maximum amount of projects to keep.
+     * @param timeToLive the time (in milliseconds) after which a cached project is read from the database again.
+     */
+    ProjectCache(int capacity, long timeToLive) {
+        // Evictions only happen while this cache's lock is held.
+        this.projects = new LruCache<>(capacity, timeToLive, (projectId, project) -> unindex(projectId));
+        this.lastWrites = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+                if (size() <= Math.max(1, capacity)) {
+                    return false;
+                }
+                forgottenVersion = Math.max(forgottenVersion, eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the current version, to be passed to {@link #putLoaded(Project, long)} once a read completes.
+     */
+    synchronized long beginLoad() {
+        return version;
+    }
+
+    /**
+     * @param projectId the project_id of the project.
+     * @return the cached project; {@code null} if the project is not cached or has expired.
+     */
+    synchronized Project get(int projectId) {
+        return projects.get(projectId);
+    }
+
+    /**
+     * @param projectName the name of the project.
+     * @return the cached project; {@code null} if the project is not cached or has expired.
+     */
+    synchronized Project getByName(String projectName) {
+        Integer projectId = idsByName.get(projectName);
+        if (projectId == null) {
+            projects.getStatistics().recordMiss();
+            return null;
+        }
+        return get(projectId);
+    }
+
+    /**
+     * Caches {@code project}, which was read from the database, unless it was written to since {@code loadVersion}.
+     * 
+     * @param project     the project which was read; ignored if {@code null}.
+     * @param loadVersion the result of {@link #beginLoad()} before the project was read.
+     */
+    synchronized void putLoaded(Project project, long loadVersion) {
+        if (project != null && lastWrites.getOrDefault(project.getNumber(), forgottenVersion) <= loadVersion) {
+            store(project);
+        }
+    }
+
+    /**
+     * Applies a successful write to the cached project with {@code projectId}, if it is cached.
+     * 
+     * @param projectId the project_id of the project which was written to.
+     * @param write     applies the written values to the cached project.
+     */
+    synchronized void writeThrough(int projectId, Consumer<Project> write) {
+        stamp(projectId);
+        Project project = projects.get(projectId);
+        if (project != null) {
+            write.accept(project);
+            store(project);
+        }
+    }
+
+    /**
+     * Removes the project with {@code projectId}, e.g. because a write to it failed or changed it in a way which
+     * cannot be applied in memory.
+     * 
+     * @param projectId the project_id of the project.
+     */
+    synchronized void invalidate(int projectId) {
+        stamp(projectId);
+        projects.remove(projectId);
+        unindex(projectId);
+    }
+
+    /**
+     * Records a write to the project with {@code projectId} at a new version.
+     */
+    private void stamp(int projectId) {
+        lastWrites.remove(projectId);
+        lastWrites.put(projectId, ++version);
+    }
+
+    /**
+     * Caches {@code project}, replacing any entry with the same project_id.
+     */
+    private void store(Project project) {
+        int projectId = project.getNumber();
+        projects.remove(projectId);
+        unindex(projectId);
+        projects.put(projectId, project);
+        String projectName = project.getName();
+        if (projectName != null) {
+            idsByName.put(projectName, projectId);
+            namesById.put(projectId, projectName);
+        }
+    }
+
+    /**
+     * Removes {@code projectId} from the name index.
+     */
+    private void unindex(int projectId) {
+        String projectName = namesById.remove(projectId);
+        if (projectName != null) {
+            idsByName.remove(projectName);
+        }
+    }
+
+    /**
+     * @return the lookup and eviction counters of this cache.
+     */
+    LruCache.Statistics getStatistics() {
+        return projects.getStatistics();
+    }
+}
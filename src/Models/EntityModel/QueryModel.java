@@ -1,11 +1,481 @@
 package Models.EntityModel;
 
-import Components.QueryBuilder;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import Components.CompiledQuery;
+import Interfaces.ConnectionHandler;
 import Interfaces.IQuery;
+import Interfaces.ResultsHandler;
+import Interfaces.RowBinder;
+import Interfaces.RowMapper;
+import Interfaces.StatementBinder;
+import Models.DatabaseConnectionModel;
 
 public abstract class QueryModel implements IQuery{
-    protected QueryBuilder queryBuilder;
-    public QueryModel(QueryBuilder qb) {
-        queryBuilder = qb;
+    /**
+     * The database from which connections are borrowed for each operation.
+     */
+    protected DatabaseConnectionModel database;
+    public QueryModel(DatabaseConnectionModel database) {
+        this.database = database;
+    }
+
+    /**
+     * @return the amount of rows {@link #batch(CompiledQuery, List, RowBinder)} sends to the database at a time.
+     */
+    public int getBatchSize() {
+        return database.getBatchSize();
+    }
+
+    /**
+     * @return the maximum amount of connections which may be borrowed from the database at once.
+     */
+    public int getMaxConnections() {
+        return database.getMaxConnections();
+    }
+
+    /**
+     * @return a summary of the hits, misses and evictions of the prepared statement caches.
+     */
+    public String getStatementCacheStatistics() {
+        return database.getStatementCacheStatistics();
+    }
+
+    /**
+     * Begins a unit of work on the current thread, which the statements of this model join until it is closed.
+     * 
+     * @param operation the type of unit of work, which determines its isolation level.
+     * @return the unit of work, to be used with try-with-resources.
+     * @throws IllegalStateException if a unit of work is already open on the current thread.
+     * @throws SQLException          if a database access error occurs.
+     */
+    public UnitOfWork beginWork(UnitOfWork.Operation operation) throws SQLException {
+        return new ConnectionUnitOfWork(database, operation);
+    }
+
+    /**
+     * @return the connection of the unit of work open on the current thread, once its deferred writes are flushed;
+     *         otherwise a connection borrowed from the pool.
+     * @throws SQLException if a deferred write fails or a database access error occurs.
+     */
+    private Connection borrow() throws SQLException {
+        ConnectionUnitOfWork unit = ConnectionUnitOfWork.current();
+        return unit != null ? unit.borrow() : database.borrow();
+    }
+
+    /**
+     * Writes exactly one row with {@code query}. In a unit of work the write is deferred until the unit is flushed,
+     * which fails if the row is not written; otherwise it is executed immediately.
+     * 
+     * @param query  the insert, update or delete statement to execute.
+     * @param binder sets the values of the placeholders in {@code query}.
+     * @return whether the row was written (always {@code true} if the write was deferred).
+     * @throws SQLException if a database access error occurs.
+     */
+    protected boolean write(CompiledQuery query, StatementBinder binder) throws SQLException {
+        ConnectionUnitOfWork unit = ConnectionUnitOfWork.current();
+        if (unit == null) {
+            return update(query, binder) == 1;
+        }
+        unit.defer(query, binder);
+        return true;
+    }
+
+    /**
+     * @param action run if the unit of work open on the current thread is rolled back; nothing is done if no unit is
+     *               open.
+     */
+    protected void onRollback(Runnable action) {
+        ConnectionUnitOfWork unit = ConnectionUnitOfWork.current();
+        if (unit != null) {
+            unit.onRollback(action);
+        }
+    }
+
+    /**
+     * @param action run once the unit of work open on the current thread is committed; nothing is done if no unit is
+     *               open, as the writes made without one are already committed.
+     */
+    protected void onCommit(Runnable action) {
+        ConnectionUnitOfWork unit = ConnectionUnitOfWork.current();
+        if (unit != null) {
+            unit.onCommit(action);
+        }
+    }
+
+    /**
+     * Executes {@code query} on a borrowed connection and maps every row of its results with {@code mapper}. The
+     * results, statement and connection are all closed before this method returns.
+     * 
+     * @param <T>    the type each row is mapped to.
+     * @param query  the query to execute.
+     * @param binder sets the values of the placeholders in {@code query}.
+     * @param mapper maps each row of the results.
+     * @return the mapped rows, in the order they were returned.
+     * @throws SQLException if a database access error occurs.
+     */
+    public <T> List<T> query(CompiledQuery query, StatementBinder binder, RowMapper<T> mapper) throws SQLException {
+        try (Connection connection = borrow();
+                PreparedStatement statement = query.prepare(connection)) {
+            binder.bind(statement);
+            try (ResultSet results = statement.executeQuery()) {
+                List<T> rows = new ArrayList<>();
+                RowMapper<T> rowMapper = mapper.bind(results.getMetaData());
+                while (results.next()) {
+                    rows.add(rowMapper.map(results));
+                }
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Executes {@code query} like {@link #query(CompiledQuery, StatementBinder, RowMapper)}, mapping only the first
+     * row.
+     * 
+     * @param <T>    the type the row is mapped to.
+     * @param query  the query to execute.
+     * @param binder sets the values of the placeholders in {@code query}.
+     * @param mapper maps the first row of the results.
+     * @return the mapped row; {@code null} if there are no results.
+     * @throws SQLException if a database access error occurs.
+     */
+    public <T> T queryOne(CompiledQuery query, StatementBinder binder, RowMapper<T> mapper) throws SQLException {
+        try (Connection connection = borrow();
+                PreparedStatement statement = query.prepare(connection)) {
+            binder.bind(statement);
+            statement.setMaxRows(1);
+            try (ResultSet results = statement.executeQuery()) {
+                return results.next() ? mapper.bind(results.getMetaData()).map(results) : null;
+            }
+        }
+    }
+
+    /**
+     * Executes {@code query} on a borrowed connection and lazily maps its rows with {@code mapper} as the returned
+     * {@link Stream} is consumed. Rows are fetched from a server-side cursor in batches of
+     * {@link DatabaseConnectionModel#getFetchSize()}, so memory use does not grow with the size of the results.
+     * 
+     * The connection stays borrowed until the stream is closed, so the stream must be used with try-with-resources. A
+     * {@link SQLException} thrown while the stream is consumed is rethrown as an {@link IllegalStateException}.
+     * 
+     * @param <T>    the type each row is mapped to.
+     * @param query  the query to execute.
+     * @param binder sets the values of the placeholders in {@code query}.
+     * @param mapper maps each row of the results.
+     * @return a stream of the mapped rows which releases its connection when closed.
+     * @throws SQLException if a database access error occurs while executing {@code query}.
+     */
+    public <T> Stream<T> stream(CompiledQuery query, StatementBinder binder, RowMapper<T> mapper) throws SQLException {
+        Connection connection = borrow();
+        PreparedStatement statement = null;
+        try {
+            statement = query.prepare(connection);
+            binder.bind(statement);
+            statement.setFetchSize(database.getFetchSize());
+            ResultSet results = statement.executeQuery();
+            PreparedStatement openStatement = statement;
+            RowMapper<T> rowMapper;
+            try {
+                rowMapper = mapper.bind(results.getMetaData());
+            } catch (SQLException | RuntimeException error) {
+                results.close();
+                throw error;
+            }
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!results.next()) {
+                            return false;
+                        }
+                        action.accept(rowMapper.map(results));
+                        return true;
+                    } catch (SQLException error) {
+                        throw new IllegalStateException(error.getLocalizedMessage(), error);
+                    }
+                }
+            };
+            return StreamSupport.stream(rows, false).onClose(() -> {
+                try (connection; openStatement; results) {
+                } catch (SQLException error) {
+                    throw new IllegalStateException(error.getLocalizedMessage(), error);
+                }
+            });
+        } catch (SQLException | RuntimeException error) {
+            try (connection) {
+                if (statement != null) {
+                    statement.close();
+                }
+            } catch (SQLException closeError) {
+                error.addSuppressed(closeError);
+            }
+            throw error;
+        }
+    }
+
+    /**
+     * Executes {@code query} on a borrowed connection and passes its results to {@code handler}. Like
+     * {@link #stream(CompiledQuery, StatementBinder, RowMapper)}, rows are fetched from a server-side cursor in
+     * batches of {@link DatabaseConnectionModel#getFetchSize()}, but the results, statement and connection are all
+     * closed before this method returns.
+     * 
+     * @param <T>     the type of value produced from the results.
+     * @param query   the query to execute.
+     * @param binder  sets the values of the placeholders in {@code query}.
+     * @param handler consumes the results.
+     * @return the value produced by {@code handler}.
+     * @throws SQLException if a database access error occurs.
+     */
+    public <T> T scan(CompiledQuery query, StatementBinder binder, ResultsHandler<T> handler) throws SQLException {
+        try (Connection connection = borrow();
+                PreparedStatement statement = query.prepare(connection)) {
+            binder.bind(statement);
+            statement.setFetchSize(database.getFetchSize());
+            try (ResultSet results = statement.executeQuery()) {
+                return handler.handle(results);
+            }
+        }
+    }
+
+    /**
+     * Executes an insert, update or delete {@code query} on a borrowed connection.
+     * 
+     * @param query  the statement to execute.
+     * @param binder sets the values of the placeholders in {@code query}.
+     * @return the amount of rows affected.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int update(CompiledQuery query, StatementBinder binder) throws SQLException {
+        try (Connection connection = borrow();
+                PreparedStatement statement = query.prepare(connection)) {
+            binder.bind(statement);
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Executes an insert {@code query} compiled with generated keys on a borrowed connection.
+     * 
+     * @param query  the insert statement to execute.
+     * @param binder sets the values of the placeholders in {@code query}.
+     * @return the key generated for the inserted row.
+     * @throws SQLException if no row was inserted, no key was generated or a database access error occurs.
+     */
+    public int insert(CompiledQuery query, StatementBinder binder) throws SQLException {
+        try (Connection connection = borrow();
+                PreparedStatement statement = query.prepare(connection)) {
+            binder.bind(statement);
+            if (statement.executeUpdate() == 0) {
+                throw new SQLException(INSERT_FAILURE_MESSAGE);
+            }
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    return generatedKeys.getInt(1);
+                }
+                throw new SQLException(INSERT_FAILURE_MESSAGE_NO_ID);
+            }
+        }
+    }
+
+    /**
+     * Executes {@code query} once for each of {@code rows} on a single borrowed connection, sending the rows to the
+     * database in chunks of {@link DatabaseConnectionModel#getBatchSize()} with
+     * {@link PreparedStatement#executeBatch()}. Each chunk is committed as a single transaction.
+     * 
+     * If a chunk fails it is rolled back and its rows are retried one at a time, so that the row (or rows) at fault
+     * is recorded in the result with its error while the other rows are still written. If anything else fails, the
+     * uncommitted rows are rolled back and every row which was not committed is recorded with that error; the rows
+     * committed before it keep their keys.
+     * 
+     * @param <T>    the type of object each row is read from.
+     * @param query  the insert, update or delete statement to execute for each row.
+     * @param rows   the rows to write.
+     * @param binder sets the values of the placeholders in {@code query} for a row.
+     * @return the key generated for each row (or the amount of rows it affected if {@code query} does not return
+     *         generated keys), or the error which prevented it from being written.
+     * @throws SQLException if a connection cannot be borrowed or prepared for the batch.
+     */
+    public <T> BatchResult<T> batch(CompiledQuery query, List<T> rows, RowBinder<T> binder) throws SQLException {
+        if (ConnectionUnitOfWork.current() != null) {
+            // The unit decides whether its transaction is committed, so a failed row fails the whole batch.
+            return batch(borrow(), query, rows, binder);
+        }
+        BatchResult<T> result = new BatchResult<>(rows);
+        int chunkSize = Math.max(1, database.getBatchSize());
+        try (Connection connection = borrow()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            int start = 0;
+            boolean singly = false;
+            try {
+                for (; start < rows.size(); start += chunkSize) {
+                    int end = Math.min(start + chunkSize, rows.size());
+                    singly = false;
+                    try {
+                        executeChunk(connection, query, rows, start, end, binder, result);
+                        connection.commit();
+                    } catch (BatchUpdateException error) {
+                        connection.rollback();
+                        singly = true;
+                        executeSingly(connection, query, rows, start, end, binder, result);
+                    }
+                }
+            } catch (SQLException | RuntimeException error) {
+                // Rolled back before auto-commit is restored, which would otherwise commit the unfinished chunk.
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    error.addSuppressed(rollbackError);
+                }
+                SQLException failure = error instanceof SQLException ? (SQLException) error : new SQLException(error);
+                for (int i = start; i < rows.size(); i++) {
+                    // Rows written one at a time before the failure were committed; the others were not.
+                    if (!singly || i >= start + chunkSize || !result.isSuccessful(i)) {
+                        result.failed(i, failure);
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Executes {@code query} once for each of {@code rows} on {@code connection}, in chunks of
+     * {@link DatabaseConnectionModel#getBatchSize()}, as part of the caller's transaction. Unlike
+     * {@link #batch(CompiledQuery, List, RowBinder)}, nothing is committed or retried; the caller decides what to do
+     * with the transaction if a row fails.
+     *
+     * @param <T>        the type of object each row is read from.
+     * @param connection the connection of the transaction, with auto-commit disabled.
+     * @param query      the insert, update or delete statement to execute for each row.
+     * @param rows       the rows to write.
+     * @param binder     sets the values of the placeholders in {@code query} for a row.
+     * @return the key generated for each row, or the amount of rows it affected.
+     * @throws BatchUpdateException if any row fails.
+     * @throws SQLException         if a database access error occurs.
+     */
+    protected <T> BatchResult<T> batch(Connection connection, CompiledQuery query, List<T> rows, RowBinder<T> binder)
+            throws SQLException {
+        BatchResult<T> result = new BatchResult<>(rows);
+        int chunkSize = Math.max(1, database.getBatchSize());
+        for (int start = 0; start < rows.size(); start += chunkSize) {
+            executeChunk(connection, query, rows, start, Math.min(start + chunkSize, rows.size()), binder, result);
+        }
+        return result;
+    }
+
+    /**
+     * Runs {@code handler} as a single transaction on a borrowed connection: it is committed if {@code handler}
+     * returns, and rolled back if it throws.
+     *
+     * @param <T>     the type of value produced by {@code handler}.
+     * @param handler the work to perform.
+     * @return the value produced by {@code handler}.
+     * @throws SQLException if {@code handler} fails or a database access error occurs.
+     */
+    protected <T> T transaction(ConnectionHandler<T> handler) throws SQLException {
+        if (ConnectionUnitOfWork.current() != null) {
+            return handler.handle(borrow());
+        }
+        try (Connection connection = borrow()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                T value = handler.handle(connection);
+                connection.commit();
+                return value;
+            } catch (SQLException | RuntimeException error) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    error.addSuppressed(rollbackError);
+                }
+                throw error;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Writes {@code rows} from {@code start} (inclusive) to {@code end} (exclusive) as a single batch, recording the
+     * key or update count of each in {@code result}. The caller is responsible for committing.
+     * 
+     * @throws BatchUpdateException if any row in the chunk fails.
+     * @throws SQLException         if a database access error occurs.
+     */
+    private <T> void executeChunk(Connection connection, CompiledQuery query, List<T> rows, int start, int end,
+            RowBinder<T> binder, BatchResult<T> result) throws SQLException {
+        try (PreparedStatement statement = query.prepare(connection)) {
+            for (int i = start; i < end; i++) {
+                binder.bind(statement, rows.get(i));
+                statement.addBatch();
+            }
+            int[] updateCounts = statement.executeBatch();
+            if (!query.returnsGeneratedKeys()) {
+                for (int i = start; i < end; i++) {
+                    int updateCount = updateCounts[i - start];
+                    // Rewritten multi-row inserts report SUCCESS_NO_INFO for each row.
+                    result.succeeded(i, updateCount == PreparedStatement.SUCCESS_NO_INFO ? 1 : updateCount);
+                }
+                return;
+            }
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                for (int i = start; i < end; i++) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException(INSERT_FAILURE_MESSAGE_NO_ID);
+                    }
+                    result.succeeded(i, generatedKeys.getInt(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes {@code rows} from {@code start} (inclusive) to {@code end} (exclusive) one at a time, committing each
+     * row which succeeds and recording the error of each row which fails in {@code result}.
+     * 
+     * @throws SQLException if a database access error occurs while committing or rolling back.
+     */
+    private <T> void executeSingly(Connection connection, CompiledQuery query, List<T> rows, int start, int end,
+            RowBinder<T> binder, BatchResult<T> result) throws SQLException {
+        try (PreparedStatement statement = query.prepare(connection)) {
+            for (int i = start; i < end; i++) {
+                try {
+                    statement.clearParameters();
+                    binder.bind(statement, rows.get(i));
+                    int updateCount = statement.executeUpdate();
+                    int key = updateCount;
+                    if (query.returnsGeneratedKeys()) {
+                        try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                            if (!generatedKeys.next()) {
+                                throw new SQLException(INSERT_FAILURE_MESSAGE_NO_ID);
+                            }
+                            key = generatedKeys.getInt(1);
+                        }
+                    }
+                    connection.commit();
+                    result.succeeded(i, key);
+                } catch (SQLException error) {
+                    connection.rollback();
+                    result.failed(i, error);
+                }
+            }
+        }
     }
 }
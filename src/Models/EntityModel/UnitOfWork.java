@@ -0,0 +1,78 @@
+package Models.EntityModel;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import Models.DatabaseConnectionModel;
+
+/**
+ * Groups the writes of a single user action so that they are committed together, or not at all.
+ *
+ * A unit of work is begun with {@link EntityStorage#beginWork(Operation)} and joined by every operation of the
+ * storage on the thread which began it, until it is closed. It must be used with try-with-resources on that thread; a
+ * unit which is closed without being committed is rolled back.
+ */
+public interface UnitOfWork extends AutoCloseable {
+    /**
+     * The types of unit of work, each with its own configurable isolation level (see
+     * {@link DatabaseConnectionModel#getIsolationLevel(String, int)}).
+     */
+    enum Operation {
+        ACCOUNT("account", Connection.TRANSACTION_READ_COMMITTED),
+        PROGRESS("progress", Connection.TRANSACTION_READ_COMMITTED),
+        CONTACT_DETAILS("contact-details", Connection.TRANSACTION_READ_COMMITTED),
+        REGISTRATION("registration", Connection.TRANSACTION_READ_COMMITTED),
+        PARTICIPANTS("participants", Connection.TRANSACTION_REPEATABLE_READ);
+
+        private final String key;
+        private final int defaultIsolation;
+
+        private Operation(String key, int defaultIsolation) {
+            this.key = key;
+            this.defaultIsolation = defaultIsolation;
+        }
+
+        /**
+         * @return the name of this operation in its isolation level key.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return the isolation level used if none is configured.
+         */
+        public int getDefaultIsolation() {
+            return defaultIsolation;
+        }
+    }
+
+    /**
+     * @return the type of this unit of work.
+     */
+    Operation getOperation();
+
+    /**
+     * Applies the writes of this unit which have been deferred, without committing them.
+     *
+     * @throws SQLException if a write fails; the unit can then only be rolled back.
+     */
+    void flush() throws SQLException;
+
+    /**
+     * Flushes and commits this unit.
+     *
+     * @throws IllegalStateException if this unit was already committed.
+     * @throws SQLException          if a write or the commit fails, or an earlier flush failed; the unit is rolled
+     *                               back when closed.
+     */
+    void commit() throws SQLException;
+
+    /**
+     * Rolls this unit back unless it was committed, and ends it.
+     *
+     * @throws SQLException if the unit cannot be rolled back.
+     */
+    @Override
+    void close() throws SQLException;
+}
@@ -0,0 +1,768 @@
+package Models.EntityModel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import Components.TypeRegistry;
+import Entities.Address;
+import Entities.Participant;
+import Entities.Person;
+import Entities.Project;
+import Entities.RoleCoverage;
+import Interfaces.IQuery;
+import Interfaces.ResultsHandler;
+import Utilities.CsvUtils;
+
+/**
+ * An {@link EntityStorage} which holds back the progress, account and contact detail updates of another storage and
+ * writes them later, all at once.
+ *
+ * Updates are accepted when the unit of work they were made in is committed, or immediately outside of one. Pending
+ * updates of the same entity are coalesced column by column, the last value written to a column winning, so that
+ * repeated edits of a project or person cost a single write. Accepted updates are appended to a journal file, which
+ * is forced to disk before the update is reported as successful; the journal is replayed when the storage is created,
+ * so that updates accepted before a crash are still written.
+ *
+ * Pending updates are flushed every {@code flushInterval} milliseconds, by {@link #flushWrites()}, and before the
+ * projects or people they change are read, unless the reading thread has a unit of work open. Each type of update is
+ * flushed in one unit of work of the other storage, so that it is sent as a batch; if the batch fails, the updates
+ * are written one at a time. An update which fails because the storage could not be reached stays pending; any other
+ * failed update is discarded and reported.
+ */
+public class WriteBehindStorage implements EntityStorage, IQuery {
+    private static final String FLUSH_IN_UNIT_MESSAGE = "Pending updates cannot be flushed inside a unit of work.";
+    private static final String DISCARDED_MESSAGE = "%d pending update(s) could not be written and were discarded.";
+    private static final String RETAINED_MESSAGE = "%d pending update(s) could not be written and will be retried.";
+
+    private final EntityStorage storage;
+    private final Path journal;
+    private FileChannel journalChannel;
+    /**
+     * The accepted updates which have not been written yet, by type and then by entity id, in the order they were
+     * first accepted.
+     */
+    private final Map<UnitOfWork.Operation, Map<Integer, Update>> pending = new EnumMap<>(UnitOfWork.Operation.class);
+    /**
+     * Guards {@link #pending} and the journal. It is never held while writing to {@link #storage}, so that updates
+     * can be accepted while a flush is waiting for the storage.
+     */
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    /**
+     * Allows one flush at a time.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    /**
+     * The unit of work open on each thread.
+     */
+    private final ThreadLocal<HeldBackUnitOfWork> currentWork = new ThreadLocal<>();
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * An update of the progress, account or contact details of one entity; a {@code null} column is left unchanged.
+     */
+    private static class Update {
+        final UnitOfWork.Operation operation;
+        final int id;
+        final String first;
+        final String second;
+
+        Update(UnitOfWork.Operation operation, int id, String first, String second) {
+            this.operation = operation;
+            this.id = id;
+            this.first = first;
+            this.second = second;
+        }
+
+        /**
+         * @param newer an update of the same entity accepted after this one.
+         * @return the columns of {@code newer}, with the columns it leaves unchanged taken from this update.
+         */
+        Update coalesce(Update newer) {
+            return new Update(operation, id, newer.first != null ? newer.first : first,
+                    newer.second != null ? newer.second : second);
+        }
+
+        /**
+         * @return this update as a journal record: operation, id, first column, second column.
+         */
+        String toRecord() {
+            StringBuilder record = new StringBuilder(operation.getKey()).append(CsvUtils.SEPARATOR).append(id);
+            CsvUtils.appendField(record.append(CsvUtils.SEPARATOR), first);
+            CsvUtils.appendField(record.append(CsvUtils.SEPARATOR), second);
+            return record.append('\n').toString();
+        }
+
+        /**
+         * @param record a line of the journal, as written by {@link #toRecord()}.
+         * @return the update recorded in {@code record}.
+         * @throws IllegalArgumentException if {@code record} is not a valid journal record.
+         */
+        static Update fromRecord(String record) throws IllegalArgumentException {
+            String[] fields = CsvUtils.parseRecord(record);
+            CsvUtils.expectFields(fields, 4);
+            for (UnitOfWork.Operation operation : UnitOfWork.Operation.values()) {
+                if (operation.getKey().equals(fields[0]) && isHeldBack(operation)) {
+                    return new Update(operation, CsvUtils.parseInteger(fields[1], "id"),
+                            fields[2].isEmpty() ? null : fields[2], fields[3].isEmpty() ? null : fields[3]);
+                }
+            }
+            throw new IllegalArgumentException(String.format("'%s' is not a type of update.", fields[0]));
+        }
+    }
+
+    /**
+     * A unit of work which holds the updates made in it until it is committed, wrapping a unit of work of the other
+     * storage if the operation is not one whose updates are held back.
+     */
+    private class HeldBackUnitOfWork implements UnitOfWork {
+        private final Operation operation;
+        private final UnitOfWork work;
+        private final List<Update> updates = new ArrayList<>();
+        private boolean committed;
+
+        HeldBackUnitOfWork(Operation operation, UnitOfWork work) {
+            this.operation = operation;
+            this.work = work;
+        }
+
+        @Override
+        public Operation getOperation() {
+            return operation;
+        }
+
+        @Override
+        public void flush() throws SQLException {
+            if (work != null) {
+                work.flush();
+            }
+        }
+
+        @Override
+        public void commit() throws SQLException {
+            if (committed) {
+                throw new IllegalStateException("The unit of work has already been committed.");
+            }
+            if (work != null) {
+                work.commit();
+            }
+            committed = true;
+            accept(updates);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            currentWork.remove();
+            if (work != null) {
+                work.close();
+            }
+        }
+    }
+
+    /**
+     * Creates a storage which holds back the updates of {@code storage}, replaying the updates recorded in
+     * {@code journal}.
+     *
+     * @param storage       the storage to which the updates are written.
+     * @param flushInterval the time, in milliseconds, between flushes; 0 to flush only when asked to.
+     * @param journal       the file in which pending updates are recorded; created if it does not exist.
+     * @throws IOException if the journal cannot be read or written.
+     */
+    public WriteBehindStorage(EntityStorage storage, long flushInterval, Path journal) throws IOException {
+        this.storage = storage;
+        this.journal = journal.toAbsolutePath();
+        for (UnitOfWork.Operation operation : UnitOfWork.Operation.values()) {
+            if (isHeldBack(operation)) {
+                pending.put(operation, new LinkedHashMap<>());
+            }
+        }
+        if (Files.exists(this.journal)) {
+            String contents = Files.readString(this.journal, StandardCharsets.UTF_8);
+            // A record without its line break was cut short by a crash before it was accepted.
+            for (String record : contents.substring(0, contents.lastIndexOf('\n') + 1).split("\n")) {
+                try {
+                    if (!record.isEmpty()) {
+                        hold(Update.fromRecord(record));
+                    }
+                } catch (IllegalArgumentException invalid) {
+                    System.err.printf("Skipped the invalid write-behind journal record '%s': %s%n", record,
+                            invalid.getLocalizedMessage());
+                }
+            }
+        }
+        rewriteJournal();
+        if (flushInterval > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "write-behind-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * @param operation a type of unit of work.
+     * @return whether the updates of {@code operation} are held back.
+     */
+    private static boolean isHeldBack(UnitOfWork.Operation operation) {
+        return operation == UnitOfWork.Operation.PROGRESS || operation == UnitOfWork.Operation.ACCOUNT
+                || operation == UnitOfWork.Operation.CONTACT_DETAILS;
+    }
+
+    /**
+     * Coalesces {@code update} into the pending updates; the caller must hold {@link #pendingLock}.
+     */
+    private void hold(Update update) {
+        pending.get(update.operation).merge(update.id, update, Update::coalesce);
+    }
+
+    /**
+     * Holds back {@code updates}, or queues them in the unit of work open on the current thread.
+     *
+     * @param updates the updates to accept.
+     * @throws SQLException if the journal cannot be written and writing the updates immediately fails.
+     */
+    private void accept(List<Update> updates) throws SQLException {
+        if (updates.isEmpty()) {
+            return;
+        }
+        HeldBackUnitOfWork work = currentWork.get();
+        if (work != null && !work.committed) {
+            work.updates.addAll(updates);
+            return;
+        }
+        StringBuilder records = new StringBuilder();
+        updates.forEach(update -> records.append(update.toRecord()));
+        pendingLock.lock();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                journalChannel.write(buffer);
+            }
+            journalChannel.force(false);
+            updates.forEach(this::hold);
+            return;
+        } catch (IOException journalError) {
+            System.err.printf("The write-behind journal could not be written, so the updates are written now: %s%n",
+                    journalError.getLocalizedMessage());
+        } finally {
+            pendingLock.unlock();
+        }
+        for (Update update : updates) {
+            if (!write(update)) {
+                throw new SQLException(UPDATE_FAILURE_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * Replaces the journal with the records of the pending updates; the caller must hold {@link #pendingLock} or be
+     * the constructor.
+     *
+     * @throws IOException if the journal cannot be written.
+     */
+    private void rewriteJournal() throws IOException {
+        StringBuilder records = new StringBuilder();
+        pending.values().forEach(updates -> updates.values().forEach(update -> records.append(update.toRecord())));
+        if (journalChannel != null) {
+            journalChannel.close();
+        }
+        if (records.length() > 0) {
+            // Written beside the journal first, so that a crash leaves either the old or the new records.
+            Path replacement = journal.resolveSibling(journal.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(replacement, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            Files.move(replacement, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journalChannel = FileChannel.open(journal, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } else {
+            journalChannel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            journalChannel.force(false);
+        }
+    }
+
+    /**
+     * @return the amount of updates which have been accepted but not written yet.
+     */
+    public int getPendingCount() {
+        pendingLock.lock();
+        try {
+            return pending.values().stream().mapToInt(Map::size).sum();
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every pending update to the other storage, waiting for a flush which is already running to finish
+     * first.
+     *
+     * @throws IllegalStateException if a unit of work is open on the current thread.
+     * @throws SQLException          if some updates could not be written; those which failed because the storage
+     *                               could not be reached stay pending, and the others are discarded.
+     */
+    @Override
+    public void flushWrites() throws SQLException {
+        if (currentWork.get() != null) {
+            throw new IllegalStateException(FLUSH_IN_UNIT_MESSAGE);
+        }
+        flushLock.lock();
+        try {
+            Map<UnitOfWork.Operation, List<Update>> flushed = new EnumMap<>(UnitOfWork.Operation.class);
+            pendingLock.lock();
+            try {
+                pending.forEach((operation, updates) -> {
+                    if (!updates.isEmpty()) {
+                        flushed.put(operation, new ArrayList<>(updates.values()));
+                        updates.clear();
+                    }
+                });
+            } finally {
+                pendingLock.unlock();
+            }
+            if (flushed.isEmpty()) {
+                return;
+            }
+            List<Update> retained = new ArrayList<>();
+            List<SQLException> retainedErrors = new ArrayList<>(), discardedErrors = new ArrayList<>();
+            for (Map.Entry<UnitOfWork.Operation, List<Update>> updates : flushed.entrySet()) {
+                writeAll(updates.getKey(), updates.getValue(), retained, retainedErrors, discardedErrors);
+            }
+            pendingLock.lock();
+            try {
+                // Updates accepted during the flush are newer than the retained ones.
+                for (Update update : retained) {
+                    pending.get(update.operation).merge(update.id, update, (newer, older) -> older.coalesce(newer));
+                }
+                rewriteJournal();
+            } catch (IOException journalError) {
+                // The journal still holds the written updates, which are written again if it is replayed.
+                System.err.printf("The write-behind journal could not be compacted: %s%n",
+                        journalError.getLocalizedMessage());
+            } finally {
+                pendingLock.unlock();
+            }
+            if (!discardedErrors.isEmpty()) {
+                throw failure(DISCARDED_MESSAGE, discardedErrors);
+            }
+            if (!retainedErrors.isEmpty()) {
+                throw failure(RETAINED_MESSAGE, retainedErrors);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @param message the format of the message, given the amount of {@code errors}.
+     * @param errors  the errors of the updates which failed.
+     * @return an exception caused by the first of {@code errors}, with the others suppressed.
+     */
+    private static SQLException failure(String message, List<SQLException> errors) {
+        SQLException failure = new SQLException(String.format(message, errors.size()), errors.get(0));
+        errors.subList(1, errors.size()).forEach(failure::addSuppressed);
+        return failure;
+    }
+
+    /**
+     * Writes {@code updates} in one unit of work, or one at a time if the unit fails.
+     *
+     * @param operation       the type of the updates.
+     * @param updates         the updates to write.
+     * @param retained        receives the updates which should stay pending.
+     * @param retainedErrors  receives the errors of the updates which should stay pending.
+     * @param discardedErrors receives the errors of the updates which were discarded.
+     */
+    private void writeAll(UnitOfWork.Operation operation, List<Update> updates, List<Update> retained,
+            List<SQLException> retainedErrors, List<SQLException> discardedErrors) {
+        try (UnitOfWork work = storage.beginWork(operation)) {
+            for (Update update : updates) {
+                if (!write(update)) {
+                    throw new SQLException(UPDATE_FAILURE_MESSAGE);
+                }
+            }
+            work.commit();
+            return;
+        } catch (SQLException batchFailed) {
+            // Written one at a time below, to find which updates failed.
+        }
+        for (Update update : updates) {
+            try {
+                if (!write(update)) {
+                    discardedErrors.add(new SQLException(UPDATE_FAILURE_MESSAGE + " (" + update.toRecord().trim() + ")"));
+                }
+            } catch (SQLException error) {
+                if (isUnreachable(error)) {
+                    retained.add(update);
+                    retainedErrors.add(error);
+                } else {
+                    discardedErrors.add(error);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param error the error of a failed write.
+     * @return whether the write failed because the storage could not be reached, rather than because of its values.
+     */
+    private static boolean isUnreachable(SQLException error) {
+        String state = error.getSQLState();
+        return error instanceof SQLTransientException || error instanceof SQLRecoverableException
+                || error instanceof SQLNonTransientConnectionException || (state != null && state.startsWith("08"));
+    }
+
+    /**
+     * @param update the update to write to the other storage.
+     * @return whether the entity was updated.
+     * @throws SQLException if the update fails.
+     */
+    private boolean write(Update update) throws SQLException {
+        switch (update.operation) {
+            case PROGRESS:
+                return storage.updateProgress(update.id, update.first == null ? Project.NOT_SET : update.first,
+                        update.second == null ? Project.NOT_SET : update.second);
+            case ACCOUNT:
+                return storage.updateAccount(update.id, Integer.parseInt(update.first),
+                        Integer.parseInt(update.second));
+            default:
+                return storage.updateContactDetails(update.id, update.first, update.second);
+        }
+    }
+
+    /**
+     * Flushes the pending updates, reporting the updates which could not be written instead of throwing.
+     */
+    private void flushQuietly() {
+        try {
+            flushWrites();
+        } catch (SQLException | RuntimeException error) {
+            System.err.printf("The pending updates could not all be written: %s%n", error.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Flushes the pending updates of the given types before they are read, or waits for a flush which is already
+     * writing them, unless a unit of work is open on the current thread, which a flush cannot join.
+     *
+     * @param operations the types of update which change what is about to be read.
+     */
+    private void flushBeforeReading(UnitOfWork.Operation... operations) {
+        if (currentWork.get() != null) {
+            return;
+        }
+        pendingLock.lock();
+        try {
+            // A flush holds flushLock from before it takes the pending updates until they are written.
+            boolean stale = flushLock.isLocked();
+            for (UnitOfWork.Operation operation : operations) {
+                stale |= !pending.get(operation).isEmpty();
+            }
+            if (!stale) {
+                return;
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+        flushQuietly();
+    }
+
+    private void flushProjects() {
+        flushBeforeReading(UnitOfWork.Operation.PROGRESS, UnitOfWork.Operation.ACCOUNT);
+    }
+
+    private void flushPeople() {
+        flushBeforeReading(UnitOfWork.Operation.CONTACT_DETAILS);
+    }
+
+    @Override
+    public List<Project> getProjects(String view) throws SQLException, IllegalArgumentException {
+        flushProjects();
+        return storage.getProjects(view);
+    }
+
+    @Override
+    public Stream<Project> streamProjects(String view) throws SQLException, IllegalArgumentException {
+        flushProjects();
+        return storage.streamProjects(view);
+    }
+
+    @Override
+    public List<Project> getProjectPage(String view, int projectId, int pageSize, boolean forward)
+            throws SQLException, IllegalArgumentException {
+        flushProjects();
+        return storage.getProjectPage(view, projectId, pageSize, forward);
+    }
+
+    @Override
+    public <T> T scanView(String view, ResultsHandler<T> handler) throws SQLException, IllegalArgumentException {
+        flushBeforeReading(UnitOfWork.Operation.PROGRESS, UnitOfWork.Operation.ACCOUNT,
+                UnitOfWork.Operation.CONTACT_DETAILS);
+        return storage.scanView(view, handler);
+    }
+
+    @Override
+    public Project selectProject(int projectId) throws SQLException {
+        flushProjects();
+        return storage.selectProject(projectId);
+    }
+
+    @Override
+    public Project selectProject(String projectName) throws SQLException {
+        flushProjects();
+        return storage.selectProject(projectName);
+    }
+
+    @Override
+    public HashMap<String, Person> getParticipants(int projectId) throws SQLException {
+        flushPeople();
+        return storage.getParticipants(projectId);
+    }
+
+    @Override
+    public List<RoleCoverage> getRoleCoverage(TypeRegistry types) throws SQLException {
+        return storage.getRoleCoverage(types);
+    }
+
+    @Override
+    public TypeRegistry loadTypes(long version) throws SQLException {
+        return storage.loadTypes(version);
+    }
+
+    @Override
+    public void loadKeyFilters() throws SQLException {
+        storage.loadKeyFilters();
+    }
+
+    @Override
+    public Person selectPerson(String phoneNumber) throws SQLException {
+        flushPeople();
+        return storage.selectPerson(phoneNumber);
+    }
+
+    @Override
+    public Person selectPerson(int personId) throws SQLException {
+        flushPeople();
+        return storage.selectPerson(personId);
+    }
+
+    @Override
+    public boolean isEmailAddressRegistered(String emailAddress) throws SQLException {
+        flushPeople();
+        return storage.isEmailAddressRegistered(emailAddress);
+    }
+
+    @Override
+    public String getAddress(int erfNumber) throws SQLException {
+        return storage.getAddress(erfNumber);
+    }
+
+    @Override
+    public Person registerPerson(String firstName, String lastName, String emailAddress, String phoneNumber,
+            int erfNumber, String physicalAddress) throws SQLException {
+        flushPeople();
+        return storage.registerPerson(firstName, lastName, emailAddress, phoneNumber, erfNumber, physicalAddress);
+    }
+
+    @Override
+    public BatchResult<Person> registerPeople(List<Person> people) throws SQLException {
+        flushPeople();
+        return storage.registerPeople(people);
+    }
+
+    @Override
+    public int registerParticipant(int projectId, int personId, String role) throws SQLException {
+        return storage.registerParticipant(projectId, personId, role);
+    }
+
+    @Override
+    public BatchResult<Participant> registerParticipants(List<Participant> participants, TypeRegistry types)
+            throws SQLException {
+        return storage.registerParticipants(participants, types);
+    }
+
+    @Override
+    public Project registerProject(String projectName, String projectType, int erfNumber, String projectAddress)
+            throws SQLException {
+        return storage.registerProject(projectName, projectType, erfNumber, projectAddress);
+    }
+
+    @Override
+    public Project createProject(String projectName, String projectType, int erfNumber, String projectAddress,
+            String dueDate, Person customer, Map<String, Person> roster, Collection<Address> newAddresses)
+            throws SQLException {
+        flushPeople();
+        return storage.createProject(projectName, projectType, erfNumber, projectAddress, dueDate, customer, roster,
+                newAddresses);
+    }
+
+    @Override
+    public BatchResult<Project> registerProjects(List<Project> projects) throws SQLException {
+        return storage.registerProjects(projects);
+    }
+
+    @Override
+    public int registerAddress(int erfNumber, String streetAddress, String suburb, String city, String province,
+            int postCode) throws SQLException {
+        return storage.registerAddress(erfNumber, streetAddress, suburb, city, province, postCode);
+    }
+
+    @Override
+    public BatchResult<Address> registerAddresses(List<Address> addresses) throws SQLException {
+        return storage.registerAddresses(addresses);
+    }
+
+    /**
+     * Holds back the update unless neither date is formatted as yyyy-mm-dd, in which case it is written now so that
+     * the invalid date is reported.
+     */
+    @Override
+    public boolean updateProgress(int projectId, String dueDate, String dateFinalized) throws SQLException {
+        boolean dateDueIsDate = dueDate.matches(DATE_FORMAT_REGEX),
+                dateFinalizedIsDate = dateFinalized.matches(DATE_FORMAT_REGEX);
+        if (!dateDueIsDate && !dateFinalizedIsDate) {
+            return storage.updateProgress(projectId, dueDate, dateFinalized);
+        }
+        accept(List.of(new Update(UnitOfWork.Operation.PROGRESS, projectId, dateDueIsDate ? dueDate : null,
+                dateFinalizedIsDate ? dateFinalized : null)));
+        return true;
+    }
+
+    /**
+     * Holds back the update; the project is assumed to exist until the update is flushed.
+     */
+    @Override
+    public boolean updateAccount(int projectId, int amountDue, int amountPaid) throws SQLException {
+        accept(List.of(new Update(UnitOfWork.Operation.ACCOUNT, projectId, String.valueOf(amountDue),
+                String.valueOf(amountPaid))));
+        return true;
+    }
+
+    /**
+     * Holds back the update once the person is found and the new details are not used by anyone else, either in the
+     * other storage or in a pending update.
+     *
+     * @throws SQLIntegrityConstraintViolationException if another person has {@code phoneNumber} or
+     *                                                  {@code emailAddress}.
+     */
+    @Override
+    public boolean updateContactDetails(int personId, String phoneNumber, String emailAddress) throws SQLException {
+        if (phoneNumber == null && emailAddress == null) {
+            return false;
+        }
+        Person person = storage.selectPerson(personId);
+        if (person == null) {
+            return false;
+        }
+        if (phoneNumber != null && !phoneNumber.equals(person.getPhoneNumber())) {
+            Person owner = storage.selectPerson(phoneNumber);
+            if (owner != null && owner.getNumber() != personId) {
+                throw duplicateEntry(phoneNumber, "person.phone_number");
+            }
+        }
+        // Email addresses are unique regardless of case, as in the database's collation.
+        if (emailAddress != null && !emailAddress.equalsIgnoreCase(person.getEmailAddress())
+                && storage.isEmailAddressRegistered(emailAddress)) {
+            throw duplicateEntry(emailAddress, "person.email_address");
+        }
+        pendingLock.lock();
+        try {
+            for (Update update : pending.get(UnitOfWork.Operation.CONTACT_DETAILS).values()) {
+                if (update.id == personId) {
+                    continue;
+                }
+                if (phoneNumber != null && phoneNumber.equals(update.first)) {
+                    throw duplicateEntry(phoneNumber, "person.phone_number");
+                }
+                if (emailAddress != null && emailAddress.equalsIgnoreCase(update.second)) {
+                    throw duplicateEntry(emailAddress, "person.email_address");
+                }
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+        accept(List.of(new Update(UnitOfWork.Operation.CONTACT_DETAILS, personId, phoneNumber, emailAddress)));
+        return true;
+    }
+
+    private static SQLException duplicateEntry(String value, String key) {
+        return new SQLIntegrityConstraintViolationException(String.format(DUPLICATE_ENTRY_MESSAGE, value, key),
+                INTEGRITY_SQL_STATE);
+    }
+
+    /**
+     * Begins a unit of work whose progress, account and contact detail updates are held back once it is committed.
+     * Other types of unit of work are also begun in the other storage.
+     */
+    @Override
+    public UnitOfWork beginWork(UnitOfWork.Operation operation) throws SQLException {
+        if (currentWork.get() != null) {
+            throw new IllegalStateException("A unit of work is already open on this thread.");
+        }
+        HeldBackUnitOfWork work = new HeldBackUnitOfWork(operation,
+                isHeldBack(operation) ? null : storage.beginWork(operation));
+        currentWork.set(work);
+        return work;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return storage.getBatchSize();
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return storage.getMaxConnections();
+    }
+
+    @Override
+    public String getStatementCacheStatistics() {
+        return storage.getStatementCacheStatistics();
+    }
+
+    @Override
+    public String getPersonCacheStatistics() {
+        return storage.getPersonCacheStatistics();
+    }
+
+    @Override
+    public String getProjectCacheStatistics() {
+        return storage.getProjectCacheStatistics();
+    }
+
+    @Override
+    public String getKeyFilterStatistics() {
+        return storage.getKeyFilterStatistics();
+    }
+}
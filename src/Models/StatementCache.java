@@ -0,0 +1,221 @@
+package Models;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least-recently-used cache of the {@link PreparedStatement} objects
+ * prepared on a single physical {@link Connection}, keyed by their SQL text and
+ * generated key columns.
+ *
+ * Statements handed out by this cache are proxies: calling
+ * {@link PreparedStatement#close()} on them clears their parameters and returns
+ * them to the cache so that the next caller preparing the same SQL reuses the
+ * statement (and its server-side handle) instead of preparing it again.
+ */
+class StatementCache {
+    /**
+     * Counts lookups across all the statement caches in a pool.
+     */
+    static class Statistics {
+        final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), evictions = new AtomicLong();
+
+        /**
+         * @return the fraction of lookups which were served from a cache.
+         */
+        double getHitRate() {
+            long hitCount = hits.get(), total = hitCount + misses.get();
+            return total == 0 ? 0 : (double) hitCount / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, evictions=%d, hit rate=%.2f%%",
+                    hits.get(), misses.get(), evictions.get(), getHitRate() * 100);
+        }
+    }
+
+    /**
+     * A physical statement stored in this cache.
+     */
+    private static class CachedStatement {
+        final PreparedStatement statement;
+        /**
+         * Whether the statement is currently handed out to a caller.
+         */
+        boolean inUse;
+        /**
+         * Whether the statement was evicted while in use and must be closed once it
+         * is returned.
+         */
+        boolean evicted;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * Returns a {@link CachedStatement} to its cache when the proxy is closed.
+     */
+    private class BorrowedStatement implements InvocationHandler {
+        private final CachedStatement cached;
+        private boolean closed;
+
+        BorrowedStatement(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + cached.statement;
+            }
+            if (closed) {
+                throw new SQLException("This statement has already been closed.");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException error) {
+                throw error.getCause();
+            }
+        }
+    }
+
+    private final Connection connection;
+    private final int capacity;
+    private final Statistics statistics;
+    /**
+     * The cached statements, least recently used first.
+     */
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    /**
+     * The constructor for StatementCache.
+     *
+     * @param connection the physical connection on which statements are prepared.
+     * @param capacity   the maximum amount of statements to keep prepared.
+     * @param statistics the counters to update on each lookup.
+     */
+    StatementCache(Connection connection, int capacity, Statistics statistics) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.statistics = statistics;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets the statement for {@code sql} from this cache, preparing and caching it
+     * if it is not cached yet.
+     *
+     * @param sql           a valid SQL statement.
+     * @param generatedKeys the columns whose generated keys should be returned; may
+     *                      be {@code null}.
+     * @return a statement which is returned to this cache when closed.
+     * @throws SQLException if a database access error occurs.
+     */
+    synchronized PreparedStatement prepare(String sql, String[] generatedKeys) throws SQLException {
+        String key = generatedKeys == null ? sql : sql + '\0' + String.join(",", generatedKeys);
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            statistics.hits.incrementAndGet();
+        } else {
+            statistics.misses.incrementAndGet();
+            PreparedStatement statement = generatedKeys == null
+                    ? connection.prepareStatement(sql)
+                    : connection.prepareStatement(sql, generatedKeys);
+            if (cached != null) {
+                // The cached statement is busy (e.g. a nested query); hand out a private one.
+                return statement;
+            }
+            cached = new CachedStatement(statement);
+            statements.put(key, cached);
+            evictOverflow();
+        }
+        cached.inUse = true;
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                new BorrowedStatement(cached));
+    }
+
+    /**
+     * Closes the least recently used statements until this cache is within its
+     * capacity.
+     */
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, CachedStatement>> eldestFirst = statements.entrySet().iterator();
+        while (statements.size() > capacity && eldestFirst.hasNext()) {
+            CachedStatement eldest = eldestFirst.next().getValue();
+            eldestFirst.remove();
+            statistics.evictions.incrementAndGet();
+            if (eldest.inUse) {
+                eldest.evicted = true;
+            } else {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    /**
+     * Resets {@code cached} so that it can be handed out again.
+     *
+     * @param cached the statement being returned.
+     */
+    private synchronized void release(CachedStatement cached) {
+        cached.inUse = false;
+        if (cached.evicted) {
+            closeQuietly(cached.statement);
+            return;
+        }
+        try {
+            cached.statement.clearParameters();
+            cached.statement.clearBatch();
+            cached.statement.setFetchSize(0);
+            cached.statement.setMaxRows(0);
+        } catch (SQLException error) {
+            statements.values().remove(cached);
+            closeQuietly(cached.statement);
+        }
+    }
+
+    /**
+     * Closes all the statements in this cache.
+     */
+    synchronized void clear() {
+        statements.values().forEach(cached -> closeQuietly(cached.statement));
+        statements.clear();
+    }
+
+    /**
+     * @param statement the statement to close, ignoring any errors.
+     */
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package Tests;
+
+import org.junit.Test;
+
+import Components.Cache.BloomFilter;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+    @Test
+    public void testAddedKeysArePresent() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.add("082" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("082" + i));
+        }
+    }
+
+    @Test
+    public void testKeysBeyondCapacityArePresent() {
+        BloomFilter filter = new BloomFilter(1, 0.01);
+        filter.add("first@example.com");
+        filter.add("second@example.com");
+
+        assertTrue(filter.mightContain("first@example.com"));
+        assertTrue(filter.mightContain("second@example.com"));
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.add("082" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("071" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300);
+    }
+}
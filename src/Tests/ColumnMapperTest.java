@@ -0,0 +1,72 @@
+package Tests;
+
+import org.junit.Test;
+
+import Components.ColumnMapper;
+import Interfaces.RowMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+public class ColumnMapperTest {
+    private static final RowMapper<String> MAPPER = new ColumnMapper<>("last_name", "first_name") {
+        @Override
+        protected String map(ResultSet results, int[] columns) throws SQLException {
+            return results.getString(columns[1]) + " " + results.getString(columns[0]);
+        }
+    };
+
+    /**
+     * @return metadata listing {@code labels} as the columns of the results.
+     */
+    private static ResultSetMetaData metadata(String... labels) {
+        return (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+                new Class<?>[] { ResultSetMetaData.class }, (proxy, method, arguments) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return labels.length;
+                        case "getColumnLabel":
+                            return labels[(int) arguments[0] - 1];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * @return results positioned on a row with {@code values}, which may only be read by index.
+     */
+    private static ResultSet row(String... values) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (proxy, method, arguments) -> {
+                    if (method.getName().equals("getString") && arguments[0] instanceof Integer) {
+                        return values[(int) arguments[0] - 1];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Test
+    public void testReadsColumnsByIndex() throws SQLException {
+        RowMapper<String> mapper = MAPPER.bind(metadata("person_id", "FIRST_NAME", "last_name"));
+
+        assertEquals("Ada Lovelace", mapper.map(row("1", "Ada", "Lovelace")));
+    }
+
+    @Test
+    public void testResolvesEachShape() throws SQLException {
+        MAPPER.bind(metadata("first_name", "last_name"));
+        RowMapper<String> mapper = MAPPER.bind(metadata("last_name", "first_name"));
+
+        assertEquals("Ada Lovelace", mapper.map(row("Lovelace", "Ada")));
+    }
+
+    @Test
+    public void testRejectsMissingColumns() {
+        assertThrows(SQLException.class, () -> MAPPER.bind(metadata("first_name")));
+    }
+}
@@ -0,0 +1,29 @@
+package Tests;
+
+import org.junit.Test;
+
+import Utilities.CsvUtils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CsvUtilsTest {
+    @Test
+    public void testParseRecord() {
+        assertArrayEquals(new String[] { "3021", "17 Steak street", "", "Cape Town" },
+                CsvUtils.parseRecord("3021, 17 Steak street,,Cape Town"));
+        assertArrayEquals(new String[] { "1 Main, street", "say \"hi\"", " kept " },
+                CsvUtils.parseRecord("\"1 Main, street\",\"say \"\"hi\"\"\",\" kept \""));
+        assertThrows(IllegalArgumentException.class, () -> CsvUtils.parseRecord("\"unclosed,field"));
+    }
+
+    @Test
+    public void testAppendField() {
+        StringBuilder record = new StringBuilder();
+        CsvUtils.appendField(record, "plain").append(CsvUtils.SEPARATOR);
+        CsvUtils.appendField(record, "a, \"b\"");
+        assertEquals("plain,\"a, \"\"b\"\"\"", record.toString());
+        assertArrayEquals(new String[] { "plain", "a, \"b\"" }, CsvUtils.parseRecord(record));
+    }
+}
@@ -0,0 +1,66 @@
+package Tests;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import Interfaces.IQuery;
+import Models.EmbeddedDatabase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EmbeddedDatabaseTest {
+    private Connection connection;
+    private Statement statement;
+
+    @Before
+    public void createSchema() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:embedded_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        EmbeddedDatabase.initialize(connection);
+        statement = connection.createStatement();
+        Fixtures.insertProject(statement);
+    }
+
+    @After
+    public void dropSchema() throws SQLException {
+        connection.close();
+    }
+
+    private String selectOne(String query) throws SQLException {
+        try (ResultSet results = statement.executeQuery(query)) {
+            results.next();
+            return results.getString(1);
+        }
+    }
+
+    @Test
+    public void testSummaryTriggersCopyAccountAndAddress() throws SQLException {
+        assertEquals("0", selectOne("SELECT amount_due FROM projects WHERE project_id = 1"));
+        assertEquals(Fixtures.STREET_ADDRESS, selectOne("SELECT project_address FROM projects WHERE project_id = 1"));
+    }
+
+    @Test
+    public void testCheckProjectNameNamesProjectAfterCustomer() throws SQLException {
+        statement.executeUpdate("INSERT INTO participant(project_id, person_id, relationship) "
+                + "VALUES (1, 1, 'customer')");
+
+        assertEquals(Fixtures.PROJECT_NAME, selectOne("SELECT project_name FROM projects WHERE project_id = 1"));
+    }
+
+    @Test
+    public void testCheckRelationshipSignalsFullRole() throws SQLException {
+        statement.executeUpdate("INSERT INTO participant(project_id, person_id, relationship) "
+                + "VALUES (1, 1, 'customer')");
+
+        SQLException error = assertThrows(SQLException.class, () -> statement.executeUpdate(
+                "INSERT INTO participant(project_id, person_id, relationship) VALUES (1, 2, 'customer')"));
+        assertEquals(IQuery.QUOTA_SQL_STATE, error.getSQLState());
+    }
+}
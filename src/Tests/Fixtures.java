@@ -0,0 +1,48 @@
+package Tests;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import Models.EntityModel.EntityStorage;
+
+/**
+ * The rows the storage tests start from: an address, two people living at it and an unnamed house built on it, which
+ * is project 1 and is named after the first customer assigned to it.
+ */
+final class Fixtures {
+    static final int ERF_NUMBER = 1024;
+    static final String STREET_ADDRESS = "12 Main Road";
+    static final int ADA_ID = 1, CHARLES_ID = 2, PROJECT_ID = 1;
+    static final String ADA_PHONE = "0211234567", CHARLES_PHONE = "0217654321";
+    static final String PROJECT_NAME = "house Lovelace";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Registers the rows of this fixture in {@code storage}.
+     *
+     * @return {@code storage}.
+     */
+    static <T extends EntityStorage> T withProject(T storage) throws SQLException {
+        storage.registerAddress(ERF_NUMBER, STREET_ADDRESS, "Gardens", "Cape Town", "Western Cape", 8001);
+        storage.registerPerson("Ada", "Lovelace", "ada@example.com", ADA_PHONE, ERF_NUMBER, null);
+        storage.registerPerson("Charles", "Babbage", "charles@example.com", CHARLES_PHONE, ERF_NUMBER, null);
+        storage.registerProject(null, "house", ERF_NUMBER, null);
+        return storage;
+    }
+
+    /**
+     * Inserts the rows of this fixture into the tables of a database with {@code statement}.
+     */
+    static void insertProject(Statement statement) throws SQLException {
+        statement.executeUpdate("INSERT INTO address(erf_number, street_address) VALUES (" + ERF_NUMBER + ", '"
+                + STREET_ADDRESS + "')");
+        statement.executeUpdate("INSERT INTO person(first_name, last_name, phone_number, email_address, "
+                + "physical_address) VALUES ('Ada', 'Lovelace', '" + ADA_PHONE + "', 'ada@example.com', "
+                + ERF_NUMBER + "), ('Charles', 'Babbage', '" + CHARLES_PHONE + "', 'charles@example.com', "
+                + ERF_NUMBER + ")");
+        statement.executeUpdate("INSERT INTO project(project_type, project_address) VALUES ('house', " + ERF_NUMBER
+                + ")");
+    }
+}
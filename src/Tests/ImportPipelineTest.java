@@ -0,0 +1,59 @@
+package Tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import Components.Import.ImportPipeline;
+import Components.Import.ImportSummary;
+import Entities.Address;
+import Factories.AddressFactory;
+import Models.EntityModel.InMemoryStorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ImportPipelineTest {
+    /**
+     * Imports {@code contents} in chunks of two records, collecting the ERF number of each record written.
+     */
+    private static ImportSummary importAddresses(String contents, List<Integer> written)
+            throws IOException, SQLException, InterruptedException {
+        Path file = Files.createTempFile("addresses", ".csv");
+        Files.writeString(file, contents);
+        return new ImportPipeline<Address>(file, AddressFactory::fromRecord, chunk -> {
+            chunk.forEach(address -> written.add(address.getErfNumber()));
+            return new InMemoryStorage().registerAddresses(chunk);
+        }, 2, 1, 4).run();
+    }
+
+    @Test
+    public void testLastRecordWithoutLineBreakIsWrittenOnce() throws Exception {
+        List<Integer> written = new ArrayList<>();
+        ImportSummary summary = importAddresses("erf,street,suburb,city,province,code\n"
+                + "1,1 Main Road,,Cape Town,,8001\n"
+                + "2,2 Main Road,,Cape Town,,8001\n"
+                + "3,3 Main Road,,Cape Town,,8001\n"
+                + "4,4 Main Road,,Cape Town,,8001", written);
+
+        assertEquals(List.of(1, 2, 3, 4), written);
+        assertEquals(4, summary.getRead());
+        assertEquals(4, summary.getWritten());
+    }
+
+    @Test
+    public void testInvalidRecordIsRejected() throws Exception {
+        List<Integer> written = new ArrayList<>();
+        ImportSummary summary = importAddresses("erf,street,suburb,city,province,code\n"
+                + "1,1 Main Road,,Cape Town,,8001\n"
+                + "two,2 Main Road,,Cape Town,,8001\n"
+                + "3,3 Main Road,,Cape Town,,8001\n", written);
+
+        assertEquals(List.of(1, 3), written);
+        assertEquals(1, summary.getRejected());
+    }
+}
@@ -0,0 +1,64 @@
+package Tests;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import org.junit.Test;
+
+import Entities.Project;
+import Models.EntityModel.InMemoryStorage;
+import Models.EntityModel.UnitOfWork;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryStorageTest {
+    private static InMemoryStorage storageWithProject() throws SQLException {
+        return Fixtures.withProject(new InMemoryStorage());
+    }
+
+    @Test
+    public void testProjectIsNamedAfterCustomer() throws SQLException {
+        InMemoryStorage storage = storageWithProject();
+        storage.registerParticipant(Fixtures.PROJECT_ID, Fixtures.ADA_ID, "customer");
+
+        Project project = storage.selectProject(Fixtures.PROJECT_NAME);
+        assertEquals(Fixtures.PROJECT_ID, project.getNumber());
+        assertEquals(Fixtures.PROJECT_NAME, project.getName());
+    }
+
+    @Test
+    public void testRoleQuotaIsEnforced() throws SQLException {
+        InMemoryStorage storage = storageWithProject();
+        storage.registerParticipant(Fixtures.PROJECT_ID, Fixtures.ADA_ID, "customer");
+
+        assertThrows(SQLException.class, () -> storage.registerParticipant(Fixtures.PROJECT_ID, Fixtures.CHARLES_ID, "customer"));
+        assertEquals(1, storage.getParticipants(Fixtures.PROJECT_ID).size());
+    }
+
+    @Test
+    public void testUncommittedWorkIsUndone() throws SQLException {
+        InMemoryStorage storage = storageWithProject();
+        try (UnitOfWork work = storage.beginWork(UnitOfWork.Operation.CONTACT_DETAILS)) {
+            storage.updateContactDetails(Fixtures.ADA_ID, "0820000000", null);
+        }
+
+        assertNull(storage.selectPerson("0820000000"));
+        assertEquals("Ada", storage.selectPerson(Fixtures.ADA_PHONE).getFirstName());
+    }
+
+    @Test
+    public void testEmailAddressesIgnoreCase() throws SQLException {
+        InMemoryStorage storage = storageWithProject();
+
+        assertTrue(storage.isEmailAddressRegistered("Ada@Example.com"));
+        assertThrows(SQLIntegrityConstraintViolationException.class,
+                () -> storage.registerPerson("Ada", "Byron", "ADA@example.com", "0820000000", Fixtures.ERF_NUMBER, null));
+        assertThrows(SQLIntegrityConstraintViolationException.class,
+                () -> storage.updateContactDetails(Fixtures.CHARLES_ID, null, "Ada@example.com"));
+        storage.updateContactDetails(Fixtures.ADA_ID, null, "ADA@example.com");
+        assertTrue(storage.isEmailAddressRegistered("ada@example.com"));
+    }
+}
@@ -0,0 +1,22 @@
+package Tests;
+
+import org.junit.Test;
+
+import Models.EntityModel.KeyFilters;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeyFiltersTest {
+    @Test
+    public void testEmailAddressCaseVariantMayExist() {
+        KeyFilters keys = new KeyFilters();
+        keys.reset(0, 1);
+        keys.addEmailAddress("ada@example.com");
+        keys.ready();
+
+        assertTrue(keys.mayHaveEmailAddress("Ada@Example.com"));
+        assertTrue(keys.mayHaveEmailAddress(" ada@example.com "));
+        assertFalse(keys.mayHaveEmailAddress("charles@example.com"));
+    }
+}
@@ -0,0 +1,38 @@
+package Tests;
+
+import org.junit.Test;
+
+import Components.Cache.LruCache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LruCacheTest {
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        List<Integer> evicted = new ArrayList<>();
+        LruCache<Integer, String> cache = new LruCache<>(2, (key, value) -> evicted.add(key));
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.get(1);
+        cache.put(3, "three");
+
+        assertEquals(List.of(2), evicted);
+        assertNull(cache.get(2));
+        assertEquals("one", cache.get(1));
+        assertEquals("three", cache.get(3));
+    }
+
+    @Test
+    public void testStatistics() {
+        LruCache<String, String> cache = new LruCache<>(4);
+        cache.put("a", "alpha");
+        cache.get("a");
+        cache.get("b");
+
+        assertEquals(0.5, cache.getStatistics().getHitRate());
+    }
+}
@@ -0,0 +1,65 @@
+package Tests;
+
+import org.junit.Test;
+
+import Components.CompiledQuery;
+import Components.QueryBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+public class QueryBuilderTest {
+    @Test
+    public void testSelect() {
+        CompiledQuery query = new QueryBuilder().select("people", "person_id", "first_name")
+                .where("phone_number").compile();
+
+        assertEquals("SELECT person_id,first_name FROM people  WHERE phone_number=?", query.getSql());
+        assertEquals(List.of("phone_number"), query.getParameters());
+        assertFalse(query.returnsGeneratedKeys());
+    }
+
+    @Test
+    public void testSelectIn() {
+        CompiledQuery query = new QueryBuilder().select("person", "person_id", "last_name")
+                .whereIn("person_id", 3).compile();
+
+        assertEquals("SELECT person_id,last_name FROM person  WHERE person_id IN (?,?,?)", query.getSql());
+        assertEquals(List.of("person_id", "person_id", "person_id"), query.getParameters());
+    }
+
+    @Test
+    public void testInsert() {
+        CompiledQuery query = new QueryBuilder().insertInto("participant")
+                .group("project_id", "person_id", "relationship")
+                .values(3).compile("participant_id");
+
+        assertEquals(List.of("project_id", "person_id", "relationship"), query.getParameters());
+        assertEquals(3, query.getParameterCount());
+        assertTrue(query.returnsGeneratedKeys());
+    }
+
+    @Test
+    public void testUpdate() {
+        CompiledQuery query = new QueryBuilder().update("account")
+                .set("amount_due", "amount_paid").where("project").compile();
+
+        assertEquals("UPDATE account SET amount_due=?,amount_paid=?  WHERE project=?", query.getSql());
+        assertEquals(List.of("amount_due", "amount_paid", "project"), query.getParameters());
+    }
+
+    @Test
+    public void testBuildersAreIndependent() {
+        QueryBuilder first = new QueryBuilder().select("projects", "*");
+        QueryBuilder second = new QueryBuilder().select("people", "*");
+        CompiledQuery projects = first.where("project_id").compile();
+
+        assertEquals("SELECT * FROM people", second.compile().getSql());
+        assertEquals("SELECT * FROM projects  WHERE project_id=?", projects.getSql());
+        assertNotSame(projects, first.compile());
+    }
+}
@@ -0,0 +1,143 @@
+package Tests;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import Components.CompiledQuery;
+import Interfaces.Strings;
+import Models.DatabaseConnectionModel;
+import Models.EntityModel.EntityQuerier;
+import Models.EntityModel.EntityUpdater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs {@code EXPLAIN} for every query the entity model emits and fails if any of them scans a whole table.
+ *
+ * Requires the database described by {@code database.env}, set up with sql/setup.sql; the test is skipped if it
+ * cannot be reached.
+ */
+public class QueryPlanTest {
+    /**
+     * The queries which read every row by design, e.g. listings, exports and the data loaded at startup.
+     */
+    private static final Set<String> FULL_READS = Set.of(
+            "SELECT_PROJECTS", "SELECT_VIEWS", "SELECT_ROLE_COVERAGE", "SELECT_BUILDING_TYPES",
+            "SELECT_RELATIONSHIP_TYPES", "COUNT_ADDRESSES", "COUNT_PEOPLE", "SELECT_ERF_NUMBERS",
+            "SELECT_CONTACT_DETAILS");
+    /**
+     * The reference tables, which hold a handful of rows and are cheaper to scan than to look up by index.
+     */
+    private static final Set<String> REFERENCE_TABLES = Set.of("building", "relationship");
+    /**
+     * The parameters bound as integers; all others are bound as strings.
+     */
+    private static final Set<String> INTEGER_PARAMETERS = Set.of(
+            "LIMIT", "erf_number", "project", "physical_address", "project_address", "amount_due", "amount_paid",
+            "post_code");
+
+    private DatabaseConnectionModel database;
+
+    @Before
+    public void connect() {
+        try (InputStream configuration = QueryPlanTest.class.getClassLoader()
+                .getResourceAsStream(Strings.DB_PROPERTIES_FILE)) {
+            database = DatabaseConnectionModel.loadFromFile(configuration);
+        } catch (Exception error) {
+            Assume.assumeNoException("The database is not available.", error);
+        }
+    }
+
+    /**
+     * @return every query declared by the entity model, keyed by field name (and view, for queries kept per view).
+     */
+    private static Map<String, CompiledQuery> entityQueries() throws IllegalAccessException {
+        Map<String, CompiledQuery> queries = new LinkedHashMap<>();
+        for (Class<?> model : List.of(EntityQuerier.class, EntityUpdater.class)) {
+            for (Field field : model.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                Object value = field.get(null);
+                if (value instanceof CompiledQuery) {
+                    queries.put(field.getName(), (CompiledQuery) value);
+                } else if (value instanceof Map) {
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                        if (entry.getValue() instanceof CompiledQuery) {
+                            queries.put(field.getName() + "[" + entry.getKey() + "]",
+                                    (CompiledQuery) entry.getValue());
+                        }
+                    }
+                }
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Binds a value of the right type to each placeholder of {@code query}, so that the plan uses the same indexes
+     * it would for real values.
+     */
+    private static void bindSampleValues(PreparedStatement statement, CompiledQuery query) throws SQLException {
+        List<String> parameters = query.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            String parameter = parameters.get(i);
+            if (INTEGER_PARAMETERS.contains(parameter) || parameter.endsWith("_id")) {
+                statement.setInt(i + 1, 1);
+            } else if (parameter.startsWith("date_")) {
+                statement.setString(i + 1, "2000-01-01");
+            } else {
+                statement.setString(i + 1, "0000000000");
+            }
+        }
+    }
+
+    @Test
+    public void testNoQueryScansAWholeTable() throws Exception {
+        List<String> fullScans = new ArrayList<>();
+        for (Map.Entry<String, CompiledQuery> entry : entityQueries().entrySet()) {
+            String name = entry.getKey();
+            if (FULL_READS.contains(name.replaceAll("\\[.*\\]$", ""))) {
+                continue;
+            }
+            CompiledQuery query = entry.getValue();
+            // A procedure cannot be explained; its statements are covered by the indexes of the tables it writes.
+            if (query.isCall()) {
+                continue;
+            }
+            try (Connection connection = database.borrow();
+                    PreparedStatement explain = connection.prepareStatement("EXPLAIN " + query.getSql())) {
+                bindSampleValues(explain, query);
+                try (ResultSet plan = explain.executeQuery()) {
+                    while (plan.next()) {
+                        String table = plan.getString("table");
+                        // The target of an insert is reported as a scan, although no rows are read from it.
+                        if ("INSERT".equals(plan.getString("select_type"))) {
+                            continue;
+                        }
+                        if ("ALL".equals(plan.getString("type")) && table != null
+                                && !REFERENCE_TABLES.contains(table.toLowerCase())) {
+                            fullScans.add(String.format("%s scans %s: %s", name, table, query.getSql()));
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals(List.of(), fullScans);
+    }
+}
@@ -0,0 +1,57 @@
+package Tests;
+
+import org.junit.Test;
+
+import Components.TypeRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+public class TypeRegistryTest {
+    private final TypeRegistry registry = new TypeRegistry(1,
+            List.of("House", "Apartment"),
+            List.of("Customer", "Architect"),
+            new int[] { 1, 2 });
+
+    @Test
+    public void testLooksUpByNameAndOrdinal() {
+        assertEquals(1, registry.getBuildingOrdinal("Apartment"));
+        assertEquals("Apartment", registry.getBuildingType(1));
+        assertEquals(0, registry.getRoleOrdinal("Customer"));
+        assertEquals(2, registry.getMaxAllowed(registry.getRoleOrdinal("Architect")));
+        assertEquals(TypeRegistry.UNKNOWN, registry.getBuildingOrdinal("Castle"));
+    }
+
+    @Test
+    public void testInternsTypes() {
+        assertSame("House", registry.getBuildingType(0));
+    }
+
+    @Test
+    public void testComparesTypesRegardlessOfVersion() {
+        assertTrue(registry.hasSameTypes(new TypeRegistry(2,
+                List.of("House", "Apartment"), List.of("Customer", "Architect"), new int[] { 1, 2 })));
+        assertFalse(registry.hasSameTypes(new TypeRegistry(2,
+                List.of("House", "Apartment"), List.of("Customer", "Architect"), new int[] { 1, 3 })));
+    }
+
+    @Test
+    public void testRoleMasks() {
+        long customerOnly = registry.getRoleMask(List.of("Customer", "Plumber"));
+
+        assertEquals(1L, customerOnly);
+        assertEquals(List.of("Architect"), registry.getRoleTypes(~customerOnly));
+        assertEquals(registry.getRoleTypes(), registry.getRoleTypes(registry.getAllRoles()));
+    }
+
+    @Test
+    public void testRejectsRepeatedTypes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TypeRegistry(1, List.of("House", "House"), List.of(), new int[0]));
+    }
+}
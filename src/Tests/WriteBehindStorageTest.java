@@ -0,0 +1,132 @@
+package Tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import Entities.Person;
+
+import Models.EntityModel.InMemoryStorage;
+import Models.EntityModel.UnitOfWork;
+import Models.EntityModel.WriteBehindStorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class WriteBehindStorageTest {
+    /**
+     * Stops in the middle of each contact detail update until it is released.
+     */
+    private static class BlockingStorage extends InMemoryStorage {
+        final CountDownLatch updating = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public boolean updateContactDetails(int personId, String phoneNumber, String emailAddress)
+                throws SQLException {
+            updating.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+            }
+            return super.updateContactDetails(personId, phoneNumber, emailAddress);
+        }
+    }
+
+    private static InMemoryStorage storageWithProject() throws SQLException {
+        return Fixtures.withProject(new InMemoryStorage());
+    }
+
+    private static Path newJournal() throws IOException {
+        return Files.createTempDirectory("write-behind").resolve("writes.journal");
+    }
+
+    @Test
+    public void testUpdatesAreCoalescedUntilFlushed() throws SQLException, IOException {
+        InMemoryStorage storage = storageWithProject();
+        WriteBehindStorage writeBehind = new WriteBehindStorage(storage, 0, newJournal());
+        writeBehind.updateContactDetails(Fixtures.ADA_ID, "0820000000", null);
+        writeBehind.updateContactDetails(Fixtures.ADA_ID, null, "ada@lovelace.org");
+
+        assertEquals(1, writeBehind.getPendingCount());
+        assertNull(storage.selectPerson("0820000000"));
+
+        writeBehind.flushWrites();
+        assertEquals(0, writeBehind.getPendingCount());
+        assertEquals("ada@lovelace.org", storage.selectPerson("0820000000").getEmailAddress());
+    }
+
+    @Test
+    public void testJournalIsReplayed() throws SQLException, IOException {
+        InMemoryStorage storage = storageWithProject();
+        Path journal = newJournal();
+        new WriteBehindStorage(storage, 0, journal).updateAccount(Fixtures.PROJECT_ID, 150000, 50000);
+
+        WriteBehindStorage restarted = new WriteBehindStorage(storage, 0, journal);
+        assertEquals(1, restarted.getPendingCount());
+        restarted.flushWrites();
+        assertEquals(500, storage.selectProject(Fixtures.PROJECT_ID).getPaid());
+        assertEquals(0, Files.size(journal));
+    }
+
+    @Test
+    public void testUncommittedUpdatesAreDiscarded() throws SQLException, IOException {
+        WriteBehindStorage writeBehind = new WriteBehindStorage(storageWithProject(), 0, newJournal());
+        try (UnitOfWork work = writeBehind.beginWork(UnitOfWork.Operation.ACCOUNT)) {
+            writeBehind.updateAccount(Fixtures.PROJECT_ID, 150000, 50000);
+        }
+
+        assertEquals(0, writeBehind.getPendingCount());
+    }
+
+    @Test
+    public void testReadWaitsForFlushInProgress() throws Exception {
+        BlockingStorage storage = Fixtures.withProject(new BlockingStorage());
+        WriteBehindStorage writeBehind = new WriteBehindStorage(storage, 0, newJournal());
+        writeBehind.updateContactDetails(Fixtures.ADA_ID, "0820000000", null);
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(() -> {
+            try {
+                writeBehind.flushWrites();
+            } catch (SQLException error) {
+                throw new IllegalStateException(error);
+            }
+        });
+        storage.updating.await(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Person> read = CompletableFuture.supplyAsync(() -> {
+            try {
+                return writeBehind.selectPerson("0820000000");
+            } catch (SQLException error) {
+                throw new IllegalStateException(error);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> read.get(200, TimeUnit.MILLISECONDS));
+
+        storage.released.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        assertEquals("Ada", read.get(5, TimeUnit.SECONDS).getFirstName());
+    }
+
+    @Test
+    public void testDuplicateContactDetailsAreRejected() throws SQLException, IOException {
+        InMemoryStorage storage = storageWithProject();
+        WriteBehindStorage writeBehind = new WriteBehindStorage(storage, 0, newJournal());
+
+        assertThrows(SQLIntegrityConstraintViolationException.class,
+                () -> writeBehind.updateContactDetails(Fixtures.CHARLES_ID, Fixtures.ADA_PHONE, null));
+        writeBehind.updateContactDetails(Fixtures.CHARLES_ID, "0820000000", null);
+        assertThrows(SQLIntegrityConstraintViolationException.class,
+                () -> writeBehind.updateContactDetails(Fixtures.ADA_ID, "0820000000", null));
+        assertEquals(1, writeBehind.getPendingCount());
+    }
+}
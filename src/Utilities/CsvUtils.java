@@ -0,0 +1,127 @@
+package Utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contains various utility functions to be used when reading and writing comma-separated values.
+ */
+public class CsvUtils {
+    /**
+     * The character separating the fields of a record.
+     */
+    public static final char SEPARATOR = ',';
+    /**
+     * The character enclosing fields which contain separators, quotes or line breaks.
+     */
+    public static final char QUOTE = '"';
+
+    /**
+     * Splits a single CSV record into its fields. Fields may be enclosed in double quotes, in which case they may
+     * contain separators and line breaks, and a double quote is escaped by doubling it. Unquoted fields are trimmed.
+     * 
+     * @param record the record to split, without its trailing line break.
+     * @return the fields of {@code record}; empty fields are returned as empty strings.
+     * @throws IllegalArgumentException if a quoted field is not closed.
+     */
+    public static String[] parseRecord(CharSequence record) throws IllegalArgumentException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false, wasQuoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char current = record.charAt(i);
+            if (quoted) {
+                if (current != QUOTE) {
+                    field.append(current);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == QUOTE) {
+                    field.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (current == QUOTE) {
+                quoted = wasQuoted = true;
+            } else if (current == SEPARATOR) {
+                fields.add(wasQuoted ? field.toString() : field.toString().trim());
+                field.setLength(0);
+                wasQuoted = false;
+            } else {
+                field.append(current);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("A quoted field is not closed.");
+        }
+        fields.add(wasQuoted ? field.toString() : field.toString().trim());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Appends {@code value} to {@code record} as a single field, quoting it only if necessary.
+     * 
+     * @param record the record being written.
+     * @param value  the value of the field; {@code null} is written as an empty field.
+     * @return {@code record}.
+     */
+    public static StringBuilder appendField(StringBuilder record, String value) {
+        if (value == null) {
+            return record;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char current = value.charAt(i);
+            needsQuotes = current == SEPARATOR || current == QUOTE || current == '\n' || current == '\r';
+        }
+        if (!needsQuotes) {
+            return record.append(value);
+        }
+        record.append(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char current = value.charAt(i);
+            if (current == QUOTE) {
+                record.append(QUOTE);
+            }
+            record.append(current);
+        }
+        return record.append(QUOTE);
+    }
+
+    /**
+     * @param fields   the fields of a record.
+     * @param expected the amount of fields the record should have.
+     * @throws IllegalArgumentException if {@code fields} does not contain exactly {@code expected} fields.
+     */
+    public static void expectFields(String[] fields, int expected) throws IllegalArgumentException {
+        if (fields.length != expected) {
+            throw new IllegalArgumentException(
+                    String.format("Expected %d fields but found %d.", expected, fields.length));
+        }
+    }
+
+    /**
+     * @param value the value of a field.
+     * @param name  the name of the field, used in the error message.
+     * @return {@code value} as an integer.
+     * @throws IllegalArgumentException if {@code value} is not an integer.
+     */
+    public static int parseInteger(String value, String name) throws IllegalArgumentException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException error) {
+            throw new IllegalArgumentException(String.format("%s should be a number but was '%s'.", name, value));
+        }
+    }
+
+    /**
+     * @param value the value of a field.
+     * @param name  the name of the field, used in the error message.
+     * @return {@code value}.
+     * @throws IllegalArgumentException if {@code value} is empty.
+     */
+    public static String requireValue(String value, String name) throws IllegalArgumentException {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(String.format("%s is required.", name));
+        }
+        return value;
+    }
+}